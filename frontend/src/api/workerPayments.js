@@ -0,0 +1,18 @@
+// src/api/workerPayments.js
+import axios from "axios";
+
+// Every payment of a worker. The list endpoint is paginated, so follow
+// X-Next-Cursor until the last page.
+export const fetchAllWorkerPayments = async (workerId) => {
+  const data = [];
+  let cursor = null;
+  do {
+    const res = await axios.get(
+      `http://localhost:8080/api/payments/worker/${workerId}`,
+      { params: cursor ? { cursor } : {} }
+    );
+    data.push(...(res.data || []));
+    cursor = res.headers["x-next-cursor"];
+  } while (cursor);
+  return data;
+};
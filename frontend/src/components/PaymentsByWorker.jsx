@@ -1,7 +1,7 @@
 // src/components/PaymentsByWorker.jsx
 import { useEffect, useState } from "react";
-import axios from "axios";
 import toast from "react-hot-toast";
+import { fetchAllWorkerPayments } from "../api/workerPayments";
 
 const PaymentsByWorker = ({ workerId }) => {
   const [payments, setPayments] = useState([]);
@@ -9,10 +9,7 @@ const PaymentsByWorker = ({ workerId }) => {
 
   const fetchPayments = async () => {
     try {
-      const res = await axios.get(
-        `http://localhost:8080/api/payments/worker/${workerId}`
-      );
-      setPayments(res.data || []);
+      setPayments(await fetchAllWorkerPayments(workerId));
     } catch (err) {
       console.error(err);
       toast.error("Failed to fetch payments");
@@ -9,6 +9,9 @@ const Attendance = () => {
   const [attendance, setAttendance] = useState([]);
   const [loadingWorkers, setLoadingWorkers] = useState(true);
   const [loadingAttendance, setLoadingAttendance] = useState(true);
+  const [nextCursor, setNextCursor] = useState(null); // X-Next-Cursor of the last page loaded
+  const [loadedRange, setLoadedRange] = useState({ from: "", to: "" });
+  const [archivedBefore, setArchivedBefore] = useState(null); // X-Archived-Before: older months are summaries only
   const [bulkAttendance, setBulkAttendance] = useState([]);
   const [dateRange, setDateRange] = useState({ from: "", to: "" });
   const [selectedWorker, setSelectedWorker] = useState(null);
@@ -19,7 +22,7 @@ const Attendance = () => {
   const fetchWorkers = async () => {
     try {
       setLoadingWorkers(true);
-      const res = await axios.get("http://localhost:8080/api/workers");
+      const res = await axios.get("http://localhost:8080/api/workers?fields=name,projectId,projectName");
       const data = res.data || [];
       setWorkers(data);
 
@@ -28,7 +31,7 @@ const Attendance = () => {
         status: "Present",
         overtimeHours: 0,
         date: today,
-        project: w.project ? { id: w.project.id } : null,
+        project: w.projectId ? { id: w.projectId } : null,
       }));
 
       setBulkAttendance(initBulk);
@@ -43,7 +46,7 @@ const Attendance = () => {
   // 🔵 Fetch projects (NEW)
   const fetchProjects = async () => {
     try {
-      const res = await axios.get("http://localhost:8080/api/projects");
+      const res = await axios.get("http://localhost:8080/api/projects?fields=name");
       setProjects(res.data || []);
     } catch (err) {
       console.error(err);
@@ -51,26 +54,30 @@ const Attendance = () => {
     }
   };
 
-  // 🔵 Fetch attendance
-  const fetchAttendance = async (customRange) => {
+  // 🔵 Fetch attendance: the first page, or the next one when a cursor is given
+  const fetchAttendance = async (customRange, cursor = null) => {
     try {
       setLoadingAttendance(true);
 
       const range = customRange || dateRange;
-      let url = "http://localhost:8080/api/attendance";
-
+      const params = {};
       if (range.from && range.to) {
-        url += `?from=${range.from}&to=${range.to}`;
+        params.from = range.from;
+        params.to = range.to;
       }
+      if (cursor) params.cursor = cursor;
 
-      const res = await axios.get(url);
-      const data = res.data || [];
+      const res = await axios.get("http://localhost:8080/api/attendance", { params });
+      const data = [...(cursor ? attendance : []), ...(res.data || [])];
 
       data.sort((a, b) =>
         (a.worker?.name || "").localeCompare(b.worker?.name || "")
       );
 
       setAttendance(data);
+      setLoadedRange(range);
+      setNextCursor(res.headers["x-next-cursor"] || null);
+      setArchivedBefore(res.headers["x-archived-before"] || null);
     } catch (err) {
       console.error(err);
       toast.error("❌ Failed to fetch attendance");
@@ -159,8 +166,8 @@ const Attendance = () => {
         status: "Present",
         overtimeHours: 0,
         date: today,
-        project: selectedWorker.project
-          ? { id: selectedWorker.project.id }
+        project: selectedWorker.projectId
+          ? { id: selectedWorker.projectId }
           : null,
       };
 
@@ -210,7 +217,7 @@ const Attendance = () => {
                       {workers[idx]?.name || "-"}
                     </td>
                     <td className="px-4 py-2 border">
-                      {workers[idx]?.project?.name || "-"}
+                      {workers[idx]?.projectName || "-"}
                     </td>
                     <td className="px-4 py-2 border">
                       <select
@@ -278,7 +285,7 @@ const Attendance = () => {
             <option value="">Select Worker</option>
             {workers.map((w) => (
               <option key={w.id} value={w.id}>
-                {w.name} ({w.project?.name || "No Project"})
+                {w.name} ({w.projectName || "No Project"})
               </option>
             ))}
           </select>
@@ -446,6 +453,21 @@ const Attendance = () => {
                 )}
               </tbody>
             </table>
+
+            {archivedBefore && (
+              <p className="mt-4 text-sm text-gray-500">
+                Attendance before {archivedBefore} is archived and not listed here; see the monthly history.
+              </p>
+            )}
+
+            {nextCursor && (
+              <button
+                onClick={() => fetchAttendance(loadedRange, nextCursor)}
+                className="mt-4 px-4 py-2 bg-gray-200 hover:bg-gray-300 text-gray-700 rounded"
+              >
+                Load more
+              </button>
+            )}
           </div>
         )}
       </div>
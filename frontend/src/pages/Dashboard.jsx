@@ -92,7 +92,7 @@ const Dashboard = ({ refreshKey }) => {
     }
 
     try {
-      const taskRes = await axios.get("http://localhost:8080/api/tasks");
+      const taskRes = await axios.get("http://localhost:8080/api/tasks?fields=status,deadline");
       const tasks = taskRes.data || [];
 
       const today = new Date();
@@ -18,6 +18,8 @@ import { Plus, Search, Trash2 } from "lucide-react";
 
 const Payments = () => {
   const [payments, setPayments] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
+  const [summary, setSummary] = useState({ totalSalary: 0, totalAdvance: 0, balance: 0 });
   const [workers, setWorkers] = useState([]);
   const [loading, setLoading] = useState(true);
 
@@ -36,19 +38,38 @@ const Payments = () => {
   });
 
   const hasFetched = useRef(false);
+  const loadedFilters = useRef(null); // worker|type of the first page on screen
 
   /** ===========================
-   * FETCH ALL DATA
+   * FETCH DATA
    * ===========================
+   * Payments come one page at a time (newest first), filtered by the server;
+   * totals come from the finance summary.
    */
+  const fetchPayments = async (cursor) => {
+    const params = {};
+    if (filterType !== "All") params.type = filterType;
+    if (filterWorker !== "All") params.workerId = filterWorker;
+    if (cursor) params.cursor = cursor;
+    else loadedFilters.current = `${filterWorker}|${filterType}`;
+    const res = await axios.get("http://localhost:8080/api/payments", { params });
+    setPayments((prev) => (cursor ? [...prev, ...(res.data || [])] : res.data || []));
+    setNextCursor(res.headers["x-next-cursor"] || null);
+  };
+
+  const fetchSummary = async () => {
+    const res = await axios.get("http://localhost:8080/api/payments/summary");
+    setSummary(res.data || {});
+  };
+
   const fetchData = async () => {
     try {
       setLoading(true);
-      const [pRes, wRes] = await Promise.all([
-        axios.get("http://localhost:8080/api/payments"),
-        axios.get("http://localhost:8080/api/workers"),
+      const [, , wRes] = await Promise.all([
+        fetchPayments(null),
+        fetchSummary(),
+        axios.get("http://localhost:8080/api/workers?fields=name,phone"),
       ]);
-      setPayments(pRes.data || []);
       setWorkers(wRes.data || []);
     } catch (err) {
       console.error(err);
@@ -58,6 +79,15 @@ const Payments = () => {
     }
   };
 
+  const loadMore = async () => {
+    try {
+      await fetchPayments(nextCursor);
+    } catch (err) {
+      console.error(err);
+      toast.error("Failed to load more payments");
+    }
+  };
+
   useEffect(() => {
     if (!hasFetched.current) {
       fetchData();
@@ -65,35 +95,34 @@ const Payments = () => {
     }
   }, []);
 
+  // worker / type filters are applied by the server; skip filters already loaded (the mount)
+  useEffect(() => {
+    if (!hasFetched.current || loadedFilters.current === `${filterWorker}|${filterType}`) return;
+    fetchPayments(null).catch((err) => {
+      console.error(err);
+      toast.error("Failed to load payments");
+    });
+  }, [filterWorker, filterType]);
+
   /** ===========================
-   * SUMMARY CALCULATIONS
+   * SUMMARY
    * ===========================
    */
-  const totalSalary = payments
-    .filter((p) => p.type === "Salary")
-    .reduce((s, p) => s + (p.amount || 0), 0);
-
-  const totalAdvance = payments
-    .filter((p) => p.type === "Advance")
-    .reduce((s, p) => s + (p.amount || 0), 0);
-
-  const balance = totalSalary - totalAdvance;
+  const totalSalary = summary.totalSalary || 0;
+  const totalAdvance = summary.totalAdvance || 0;
+  const balance = summary.balance || 0;
 
   /** ===========================
-   * FILTERED TABLE
+   * FILTERED TABLE (search within loaded rows)
    * ===========================
    */
   const matchesFilters = (p) => {
-    if (filterWorker !== "All" && String(p.worker?.id) !== String(filterWorker))
-      return false;
-    if (filterType !== "All" && p.type !== filterType) return false;
-
     const q = search.trim().toLowerCase();
     if (!q) return true;
 
     return (
       (p.note || "").toLowerCase().includes(q) ||
-      (p.worker?.name || "").toLowerCase().includes(q)
+      (p.workerName || "").toLowerCase().includes(q)
     );
   };
 
@@ -292,7 +321,7 @@ const Payments = () => {
               {filtered.map((p) => (
                 <tr key={p.id} className="hover:bg-gray-50">
                   <td className="px-4 py-2 border">{fmtDate(p.date)}</td>
-                  <td className="px-4 py-2 border">{p.worker?.name || "-"}</td>
+                  <td className="px-4 py-2 border">{p.workerName || "-"}</td>
                   <td className="px-4 py-2 border font-semibold">{p.type}</td>
                   <td className="px-4 py-2 border">₹{p.amount}</td>
                   <td className="px-4 py-2 border">
@@ -313,6 +342,13 @@ const Payments = () => {
             </tbody>
           </table>
         )}
+        {!loading && nextCursor && (
+          <div className="p-3 text-center border-t">
+            <button onClick={loadMore} className="text-sm text-blue-600 hover:underline">
+              Load more
+            </button>
+          </div>
+        )}
       </div>
 
       {/* ================= ADD PAYMENT MODAL ================= */}
@@ -53,15 +53,17 @@ const Projects = ({ refreshDashboard }) => {
   // Delete Project
   const handleDelete = async (id) => {
     if (!window.confirm("Are you sure you want to delete this project?")) return;
+    const toastId = toast.loading("Deleting project...");
     try {
-      const toastId = toast.loading("Deleting project...");
       await axios.delete(`http://localhost:8080/api/projects/${id}`);
       setProjects((prev) => prev.filter((p) => p.id !== id));
       toast.success("🗑️ Project deleted successfully!", { id: toastId });
       refreshDashboard?.();
     } catch (error) {
       console.error("Error deleting project:", error);
-      toast.error("❌ Failed to delete project.");
+      // e.g. the project still has tasks
+      const message = typeof error.response?.data === "string" ? error.response.data : null;
+      toast.error(message || "❌ Failed to delete project.", { id: toastId });
     }
   };
 
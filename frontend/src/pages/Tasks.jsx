@@ -36,8 +36,8 @@ const Tasks = () => {
       setLoading(true);
       const [taskRes, workerRes, projectRes] = await Promise.all([
         axios.get("http://localhost:8080/api/tasks"),
-        axios.get("http://localhost:8080/api/workers"),
-        axios.get("http://localhost:8080/api/projects"),
+        axios.get("http://localhost:8080/api/workers?fields=name"),
+        axios.get("http://localhost:8080/api/projects?fields=name"),
       ]);
       setTasks(taskRes.data || []);
       setWorkers(workerRes.data || []);
@@ -138,8 +138,8 @@ const Tasks = () => {
       description: t.description || "",
       status: t.status || "Pending",
       deadline: formatDateForInput(t.deadline),
-      workerId: t.worker?.id || "",
-      projectId: t.project?.id || "",
+      workerId: t.workerId || "",
+      projectId: t.projectId || "",
     });
   };
 
@@ -161,8 +161,8 @@ const Tasks = () => {
       const updated = {
         ...task,
         status: newStatus,
-        worker: { id: task.worker?.id },
-        project: { id: task.project?.id },
+        worker: { id: task.workerId },
+        project: { id: task.projectId },
         deadline: task.deadline || null,
       };
       await axios.put(
@@ -194,9 +194,9 @@ const Tasks = () => {
   }).length;
 
   const matchesFilters = (t) => {
-    if (filterWorker !== "All" && String(t.worker?.id) !== String(filterWorker))
+    if (filterWorker !== "All" && String(t.workerId) !== String(filterWorker))
       return false;
-    if (filterProject !== "All" && String(t.project?.id) !== String(filterProject))
+    if (filterProject !== "All" && String(t.projectId) !== String(filterProject))
       return false;
     if (filterStatus !== "All" && t.status !== filterStatus) return false;
     if (
@@ -384,8 +384,8 @@ const Tasks = () => {
                   >
                     <td className="px-4 py-2 border">{t.id}</td>
                     <td className="px-4 py-2 border">{t.taskName}</td>
-                    <td className="px-4 py-2 border">{t.worker?.name || "-"}</td>
-                    <td className="px-4 py-2 border">{t.project?.name || "-"}</td>
+                    <td className="px-4 py-2 border">{t.workerName || "-"}</td>
+                    <td className="px-4 py-2 border">{t.projectName || "-"}</td>
 
                     <td className="px-4 py-2 border">
                       <div className="flex items-center gap-2">
@@ -469,11 +469,11 @@ const Tasks = () => {
             <div className="grid grid-cols-2 gap-3 text-sm text-gray-700">
               <div>
                 <strong>Worker</strong>
-                <div>{selectedTask.worker?.name || "-"}</div>
+                <div>{selectedTask.workerName || "-"}</div>
               </div>
               <div>
                 <strong>Project</strong>
-                <div>{selectedTask.project?.name || "-"}</div>
+                <div>{selectedTask.projectName || "-"}</div>
               </div>
               <div>
                 <strong>Deadline</strong>
@@ -22,7 +22,8 @@ const Workers = () => {
   const [selectedWorker, setSelectedWorker] = useState(null);
   const [isDetailsModalOpen, setIsDetailsModalOpen] = useState(false); // ⬅ NEW
 
-  const hasFetched = useRef(false);
+  // the request in flight; a newer one aborts it so a stale response never lands
+  const inFlight = useRef(null);
 
   const [newWorker, setNewWorker] = useState({
     name: "",
@@ -35,26 +36,52 @@ const Workers = () => {
     role: "",
   });
 
-  // Fetch all workers
+  // All workers, or while searching just the hits (name, phone or Aadhaar on the
+  // server index) as rows fetched by id, in rank order
   const fetchWorkers = async (showToast = false) => {
+    const q = searchTerm.trim();
+    inFlight.current?.abort();
+    const controller = new AbortController();
+    inFlight.current = controller;
+    const signal = controller.signal;
     try {
-      setLoading(true);
-      const res = await axios.get("http://localhost:8080/api/workers");
-      setWorkers(res.data);
+      if (!q) setLoading(true);
+      let rows = [];
+      if (q) {
+        const hits = await axios.get("http://localhost:8080/api/workers/search", {
+          params: { q, limit: 100 },
+          signal,
+        });
+        if (hits.data.length > 0) {
+          const res = await axios.get("http://localhost:8080/api/workers", {
+            params: { ids: hits.data.map((h) => h.id).join(",") },
+            signal,
+          });
+          rows = res.data;
+        }
+      } else {
+        const res = await axios.get("http://localhost:8080/api/workers", { signal });
+        rows = res.data;
+      }
+      setWorkers(rows);
       if (showToast) toast.success("Workers refreshed!");
-    } catch {
-      toast.error("Failed to load workers");
+    } catch (err) {
+      if (axios.isCancel(err)) return;
+      toast.error(q ? "Search failed" : "Failed to load workers");
     } finally {
-      setLoading(false);
+      if (inFlight.current === controller) setLoading(false);
     }
   };
 
+  // Initial load, and the search on each change of the term (debounced)
   useEffect(() => {
-    if (!hasFetched.current) {
-      fetchWorkers(false);
-      hasFetched.current = true;
-    }
-  }, []);
+    const timer = setTimeout(() => fetchWorkers(false), searchTerm.trim() ? 200 : 0);
+    return () => {
+      clearTimeout(timer);
+      inFlight.current?.abort();
+    };
+    // eslint-disable-next-line react-hooks/exhaustive-deps
+  }, [searchTerm]);
 
   // Save worker
   const handleSaveWorker = async (e) => {
@@ -124,10 +151,6 @@ const Workers = () => {
     }
   };
 
-  const filteredWorkers = workers.filter((w) =>
-    w.name.toLowerCase().includes(searchTerm.toLowerCase())
-  );
-
   return (
     <div className="space-y-8 animate-fadeIn">
       {/* Header */}
@@ -171,7 +194,7 @@ const Workers = () => {
         <Search className="text-gray-400" size={20} />
         <input
           type="text"
-          placeholder="Search workers..."
+          placeholder="Search by name, phone or Aadhaar..."
           value={searchTerm}
           onChange={(e) => setSearchTerm(e.target.value)}
           className="flex-1 outline-none text-gray-700"
@@ -203,15 +226,15 @@ const Workers = () => {
             </thead>
 
             <tbody>
-              {filteredWorkers.length > 0 ? (
-                filteredWorkers.map((w) => (
+              {workers.length > 0 ? (
+                workers.map((w) => (
                   <tr key={w.id} className="border-t hover:bg-gray-50 text-gray-700">
                     <td className="py-3 px-6">{w.id}</td>
                     <td className="py-3 px-6">{w.name}</td>
                     <td className="py-3 px-6">{w.phone}</td>
                     <td className="py-3 px-6">₹{w.ratePerDay}</td>
                     <td className="py-3 px-6">{w.address}</td>
-                    <td className="py-3 px-6">{w.project?.name || "—"}</td>
+                    <td className="py-3 px-6">{w.projectName || "—"}</td>
                     <td className="py-3 px-6">{w.role || "—"}</td>
                     <td className="py-3 px-6">
                       {w.policeVerified ? (
@@ -279,7 +302,7 @@ const Workers = () => {
               <div><strong>Joined:</strong> {selectedWorker.joinedDate}</div>
               <div><strong>Address:</strong> {selectedWorker.address}</div>
               <div><strong>Aadhaar:</strong> {selectedWorker.aadhaarNumber}</div>
-              <div><strong>Project:</strong> {selectedWorker.project?.name || "—"}</div>
+              <div><strong>Project:</strong> {selectedWorker.projectName || "—"}</div>
               <div>
                 <strong>Police Verified:</strong>{" "}
                 {selectedWorker.policeVerified ? "Yes" : "No"}
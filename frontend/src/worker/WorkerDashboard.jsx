@@ -3,6 +3,7 @@ import { useEffect, useState } from "react";
 import { useNavigate } from "react-router-dom";
 import axios from "axios";
 import toast from "react-hot-toast";
+import { fetchAllWorkerPayments } from "../api/workerPayments";
 import { getWorker, clearWorker } from "./workerAuth";
 
 import {
@@ -140,10 +141,7 @@ const WorkerDashboard = () => {
   ============================================================ */
   const fetchPayments = async () => {
     try {
-      const res = await axios.get(
-        `http://localhost:8080/api/payments/worker/${worker.id}`
-      );
-      setPayments(res.data || []);
+      setPayments(await fetchAllWorkerPayments(worker.id));
     } catch {
       toast.error("Failed to load payments");
     }
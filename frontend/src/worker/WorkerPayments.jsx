@@ -1,6 +1,6 @@
 import { useEffect, useState } from "react";
-import axios from "axios";
 import toast from "react-hot-toast";
+import { fetchAllWorkerPayments } from "../api/workerPayments";
 import { getWorker } from "./workerAuth";
 import { ArrowDownCircle, ArrowUpCircle, Wallet } from "lucide-react";
 
@@ -11,11 +11,7 @@ const WorkerPayments = () => {
 
   const fetchPayments = async () => {
     try {
-      const res = await axios.get(
-        `http://localhost:8080/api/payments/worker/${worker.id}`
-      );
-      const data = res.data || [];
-      setPayments(data);
+      setPayments(await fetchAllWorkerPayments(worker.id));
     } catch (err) {
       console.error(err);
       toast.error("Failed to fetch payments");
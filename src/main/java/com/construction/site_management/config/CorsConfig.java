@@ -5,6 +5,10 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import com.construction.site_management.payload.CursorPage;
+import com.construction.site_management.service.AttendanceArchiveService;
+import com.construction.site_management.service.IdempotencyStore;
+
 @Configuration
 public class CorsConfig {
 
@@ -17,6 +21,8 @@ public class CorsConfig {
                         .allowedOrigins("http://localhost:5173")
                         .allowedMethods("GET", "POST", "PUT", "DELETE", "PATCH")
                         .allowedHeaders("*")
+                        .exposedHeaders(CursorPage.NEXT_CURSOR_HEADER, IdempotencyStore.REPLAYED_HEADER,
+                                AttendanceArchiveService.ARCHIVED_BEFORE_HEADER)
                         .allowCredentials(true);
             }
         };
@@ -0,0 +1,10 @@
+package com.construction.site_management.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Periodic jobs (attendance archival)
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
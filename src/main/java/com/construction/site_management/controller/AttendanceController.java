@@ -1,31 +1,83 @@
 package com.construction.site_management.controller;
 
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeParseException;
 import java.util.List;
 
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.TransactionException;
 import org.springframework.web.bind.annotation.*;
 
 import com.construction.site_management.model.Attendance;
+import com.construction.site_management.payload.BulkAttendanceResult;
+import com.construction.site_management.payload.CursorPage;
+import com.construction.site_management.service.AttendanceArchiveService;
+import com.construction.site_management.service.AttendanceCalendarService;
 import com.construction.site_management.service.AttendanceService;
+import com.construction.site_management.service.BulkDeleteService;
+import com.construction.site_management.service.IdempotencyStore;
+import com.construction.site_management.service.AttendanceWriteBehindQueue;
 
 @RestController
 @RequestMapping("/api/attendance")
 public class AttendanceController {
 
     private final AttendanceService attendanceService;
+    private final AttendanceCalendarService calendarService;
+    private final AttendanceWriteBehindQueue writeBehindQueue;
+    private final BulkDeleteService bulkDeleteService;
+    private final AttendanceArchiveService archiveService;
+    private final IdempotencyStore idempotencyStore;
 
-    public AttendanceController(AttendanceService attendanceService) {
+    public AttendanceController(AttendanceService attendanceService, AttendanceCalendarService calendarService,
+            AttendanceWriteBehindQueue writeBehindQueue, BulkDeleteService bulkDeleteService,
+            AttendanceArchiveService archiveService, IdempotencyStore idempotencyStore) {
         this.attendanceService = attendanceService;
+        this.calendarService = calendarService;
+        this.writeBehindQueue = writeBehindQueue;
+        this.bulkDeleteService = bulkDeleteService;
+        this.archiveService = archiveService;
+        this.idempotencyStore = idempotencyStore;
     }
 
-    // MARK SINGLE ATTENDANCE
+    // MARK SINGLE ATTENDANCE (retries with the same Idempotency-Key are answered once)
     @PostMapping
-    public ResponseEntity<?> markAttendance(@RequestBody Attendance attendance) {
+    public ResponseEntity<?> markAttendance(@RequestBody Attendance attendance,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute("attendance", idempotencyKey, fingerprint(attendance),
+                () -> mark(attendance));
+    }
+
+    private static String fingerprint(Attendance a) {
+        return (a.getWorker() != null ? a.getWorker().getId() : null) + "|"
+                + (a.getProject() != null ? a.getProject().getId() : null) + "|"
+                + a.getDate() + "|" + a.getStatus() + "|" + a.getOvertimeHours();
+    }
+
+    private ResponseEntity<?> mark(Attendance attendance) {
         try {
+            if (writeBehindQueue.isEnabled()) {
+                // queued and journaled; written to the database by the background writer
+                return ResponseEntity.accepted().body(writeBehindQueue.submit(attendance));
+            }
             Attendance saved = attendanceService.saveAttendance(attendance);
             return ResponseEntity.ok(saved);
+        } catch (AttendanceWriteBehindQueue.QueueFullException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(e.getMessage());
+        } catch (TransientDataAccessException | TransactionException | UncheckedIOException e) {
+            // lock timeout, deadlock, no connection, journal write: worth retrying, so not a 400
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(e.getMessage());
+        } catch (DataAccessException e) {
+            // any other database failure is ours, not the request's
+            return ResponseEntity.internalServerError().body(e.getMessage());
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -35,8 +87,8 @@ public class AttendanceController {
     @PostMapping("/bulk")
     public ResponseEntity<?> markAttendanceBulk(@RequestBody List<Attendance> attendanceList) {
         try {
-            List<Attendance> saved = attendanceService.saveAttendanceBulk(attendanceList);
-            return ResponseEntity.ok(saved);
+            BulkAttendanceResult result = attendanceService.saveAttendanceBulk(attendanceList);
+            return ResponseEntity.ok(result);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -53,27 +105,26 @@ public class AttendanceController {
         }
     }
 
-    // GET ALL ATTENDANCE (with optional date range)
+    // GET ALL ATTENDANCE (with optional date range), one keyset page at a time.
+    // The body stays a plain array; the cursor for the next page is in X-Next-Cursor.
     @GetMapping
     public ResponseEntity<List<Attendance>> getAllAttendance(
             @RequestParam(required = false) String from,
-            @RequestParam(required = false) String to) {
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
         try {
-            List<Attendance> list;
-            if (from != null && to != null) {
-                LocalDate f = LocalDate.parse(from);
-                LocalDate t = LocalDate.parse(to);
-                list = attendanceService.getAllAttendance()
-                        .stream()
-                        .filter(a -> !a.getDate().isBefore(f) && !a.getDate().isAfter(t))
-                        .toList();
-            } else {
-                list = attendanceService.getAllAttendance();
+            LocalDate f = from != null ? LocalDate.parse(from) : null;
+            LocalDate t = to != null ? LocalDate.parse(to) : null;
+            CursorPage<Attendance> page = attendanceService.getAttendancePage(f, t, cursor, size);
+            if (page.getItems().isEmpty())
+                return ResponseEntity.noContent().headers(archivedBefore(f)).build();
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().headers(archivedBefore(f));
+            if (page.getNextCursor() != null) {
+                response.header(CursorPage.NEXT_CURSOR_HEADER, page.getNextCursor());
             }
-            if (list.isEmpty())
-                return ResponseEntity.noContent().build();
-            return ResponseEntity.ok(list);
-        } catch (DateTimeParseException e) {
+            return response.body(page.getItems());
+        } catch (DateTimeParseException | IllegalArgumentException e) { // bad date or cursor
             return ResponseEntity.badRequest().build();
         }
     }
@@ -85,16 +136,20 @@ public class AttendanceController {
             @RequestParam(required = false) String to) {
         try {
             List<Attendance> list;
+            LocalDate f = null;
+            LocalDate t = null;
             if (from != null && to != null) {
-                LocalDate f = LocalDate.parse(from);
-                LocalDate t = LocalDate.parse(to);
+                f = LocalDate.parse(from);
+                t = LocalDate.parse(to);
                 list = attendanceService.getAttendanceByWorkerAndDateRange(workerId, f, t);
             } else {
                 list = attendanceService.getAttendanceByWorker(workerId);
             }
+            // include marks still waiting in the write-behind queue
+            list = writeBehindQueue.withPending(workerId, f, t, list);
             if (list.isEmpty())
-                return ResponseEntity.noContent().build();
-            return ResponseEntity.ok(list);
+                return ResponseEntity.noContent().headers(archivedBefore(f)).build();
+            return ResponseEntity.ok().headers(archivedBefore(f)).body(list);
         } catch (DateTimeParseException e) {
             return ResponseEntity.badRequest().build();
         }
@@ -107,31 +162,149 @@ public class AttendanceController {
             @RequestParam(required = false) String to) {
         try {
             List<Attendance> list;
+            LocalDate f = null;
             if (from != null && to != null) {
-                LocalDate f = LocalDate.parse(from);
+                f = LocalDate.parse(from);
                 LocalDate t = LocalDate.parse(to);
                 list = attendanceService.getAttendanceByProjectAndDateRange(projectId, f, t);
             } else {
                 list = attendanceService.getAttendanceByProject(projectId);
             }
             if (list.isEmpty())
-                return ResponseEntity.noContent().build();
-            return ResponseEntity.ok(list);
+                return ResponseEntity.noContent().headers(archivedBefore(f)).build();
+            return ResponseEntity.ok().headers(archivedBefore(f)).body(list);
         } catch (DateTimeParseException e) {
             return ResponseEntity.badRequest().build();
         }
     }
 
+    // Archived months are no longer rows; flag a range that reaches into them
+    private HttpHeaders archivedBefore(LocalDate from) {
+        HttpHeaders headers = new HttpHeaders();
+        LocalDate before = archiveService.archivedBefore(from);
+        if (before != null) {
+            headers.set(AttendanceArchiveService.ARCHIVED_BEFORE_HEADER, before.toString());
+        }
+        return headers;
+    }
+
+    // MONTH CALENDAR FOR A WORKER (bitmasks; month defaults to the current one)
+    @GetMapping("/calendar/worker/{workerId}")
+    public ResponseEntity<?> getWorkerCalendar(@PathVariable Long workerId,
+            @RequestParam(required = false) String month) {
+        try {
+            YearMonth m = month != null ? YearMonth.parse(month) : YearMonth.now();
+            return ResponseEntity.ok(calendarService.workerMonth(workerId, m));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Invalid month: " + month);
+        }
+    }
+
+    // MONTH CALENDAR FOR EVERY WORKER ON A PROJECT
+    @GetMapping("/calendar/project/{projectId}")
+    public ResponseEntity<?> getProjectCalendar(@PathVariable Long projectId,
+            @RequestParam(required = false) String month) {
+        try {
+            YearMonth m = month != null ? YearMonth.parse(month) : YearMonth.now();
+            return ResponseEntity.ok(calendarService.projectMonth(projectId, m));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Invalid month: " + month);
+        }
+    }
+
+    // WORKER IDS PRESENT ON A PROJECT ON ONE DAY
+    @GetMapping("/calendar/project/{projectId}/present")
+    public ResponseEntity<?> getPresentOn(@PathVariable Long projectId, @RequestParam String date) {
+        try {
+            return ResponseEntity.ok(calendarService.presentOn(projectId, LocalDate.parse(date)));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Invalid date: " + date);
+        }
+    }
+
+    // MONTHLY HISTORY FOR A WORKER (archived and hot months; defaults to the last 12 months)
+    @GetMapping("/worker/{workerId}/history")
+    public ResponseEntity<?> getWorkerHistory(@PathVariable Long workerId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        try {
+            YearMonth end = to != null ? YearMonth.parse(to) : YearMonth.now();
+            YearMonth start = from != null ? YearMonth.parse(from) : end.minusMonths(11);
+            return ResponseEntity.ok(archiveService.workerHistory(workerId, start, end));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Invalid month (expected yyyy-MM)");
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // MONTHLY HISTORY FOR A PROJECT
+    @GetMapping("/project/{projectId}/history")
+    public ResponseEntity<?> getProjectHistory(@PathVariable Long projectId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        try {
+            YearMonth end = to != null ? YearMonth.parse(to) : YearMonth.now();
+            YearMonth start = from != null ? YearMonth.parse(from) : end.minusMonths(11);
+            return ResponseEntity.ok(archiveService.projectHistory(projectId, start, end));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Invalid month (expected yyyy-MM)");
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // ARCHIVAL STATUS / RUN NOW
+    @GetMapping("/archive")
+    public ResponseEntity<?> getArchiveStatus() {
+        return ResponseEntity.ok(archiveService.status());
+    }
+
+    @PostMapping("/archive")
+    public ResponseEntity<?> runArchive() {
+        return ResponseEntity.ok(archiveService.archive());
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<Void> deleteAttendance(@PathVariable Long id) {
         attendanceService.deleteAttendance(id);
         return ResponseEntity.noContent().build();
     }
 
+    // WRITE-BEHIND QUEUE STATUS
+    @GetMapping("/write-behind/stats")
+    public ResponseEntity<?> getWriteBehindStats() {
+        return ResponseEntity.ok(writeBehindQueue.stats());
+    }
+
+    // Marks the write-behind writer gave up on, with the reason
+    @GetMapping("/write-behind/dead-letters")
+    public ResponseEntity<?> getWriteBehindDeadLetters() {
+        return ResponseEntity.ok(writeBehindQueue.getDeadLetters());
+    }
+
+    // Queue the dead-lettered marks again
+    @PostMapping("/write-behind/dead-letters/retry")
+    public ResponseEntity<String> retryWriteBehindDeadLetters() {
+        try {
+            int count = writeBehindQueue.retryDeadLetters();
+            return ResponseEntity.ok(count + " marks queued again");
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // REBUILD DAILY ROLLUP (historical data)
+    @PostMapping("/rollup/rebuild")
+    public ResponseEntity<String> rebuildRollup() {
+        int rows = attendanceService.rebuildRollup();
+        return ResponseEntity.ok("Attendance rollup rebuilt: " + rows + " day/project rows");
+    }
+
     // DELETE ATTENDANCE BY WORKER
     @DeleteMapping("/worker/{workerId}")
     public ResponseEntity<String> deleteAttendanceByWorker(@PathVariable Long workerId) {
-        attendanceService.deleteAttendanceByWorker(workerId);
-        return ResponseEntity.ok("All attendance records deleted for worker ID: " + workerId);
+        int deleted = bulkDeleteService.deleteAttendanceOfWorker(workerId);
+        return ResponseEntity.ok(deleted + " attendance records deleted for worker ID: " + workerId);
     }
 }
@@ -0,0 +1,67 @@
+package com.construction.site_management.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.construction.site_management.model.AttendanceImportJob;
+import com.construction.site_management.service.AttendanceImportService;
+
+@RestController
+@RequestMapping("/api/attendance/import")
+public class AttendanceImportController {
+
+    private final AttendanceImportService importService;
+
+    public AttendanceImportController(AttendanceImportService importService) {
+        this.importService = importService;
+    }
+
+    // UPLOAD CSV (workerId, date, status, overtimeHours, projectId); processed in the background
+    @PostMapping
+    public ResponseEntity<?> upload(@RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) Integer chunkSize) {
+        try {
+            return ResponseEntity.accepted().body(importService.submit(file, chunkSize));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<AttendanceImportJob>> getJobs() {
+        return ResponseEntity.ok(importService.getJobs());
+    }
+
+    // JOB STATUS / PROGRESS
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getJob(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(importService.getJob(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // REJECTED ROWS
+    @GetMapping("/{id}/errors")
+    public ResponseEntity<?> getErrors(@PathVariable Long id, @RequestParam(defaultValue = "1000") int limit) {
+        try {
+            return ResponseEntity.ok(importService.getErrors(id, limit));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // RESUME A FAILED JOB
+    @PostMapping("/{id}/resume")
+    public ResponseEntity<?> resume(@PathVariable Long id) {
+        try {
+            return ResponseEntity.accepted().body(importService.resume(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
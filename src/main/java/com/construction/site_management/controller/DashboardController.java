@@ -8,6 +8,11 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import com.construction.site_management.service.DashboardService;
+import com.construction.site_management.service.IdempotencyStore;
+import com.construction.site_management.service.ReferenceDataCache;
+import com.construction.site_management.service.RequestCoalescer;
+import com.construction.site_management.service.SummaryCache;
+import com.construction.site_management.service.WorkerSearchIndex;
 
 @RestController
 @RequestMapping("/api/dashboard")
@@ -16,8 +21,53 @@ public class DashboardController {
     @Autowired
     private DashboardService dashboardService;
 
+    @Autowired
+    private SummaryCache summaryCache;
+
+    @Autowired
+    private RequestCoalescer requestCoalescer;
+
+    @Autowired
+    private IdempotencyStore idempotencyStore;
+
+    @Autowired
+    private ReferenceDataCache referenceCache;
+
+    @Autowired
+    private WorkerSearchIndex workerSearchIndex;
+
     @GetMapping("/summary")
     public Map<String, Object> getDashboardSummary() {
-        return dashboardService.getDashboardSummary();
+        return requestCoalescer.execute("dashboard-summary", dashboardService::getDashboardSummary);
+    }
+
+    // Hit/miss/load-time statistics for the summary caches
+    @GetMapping("/cache-stats")
+    public Map<String, Object> getCacheStats() {
+        return summaryCache.stats();
+    }
+
+    // How many concurrent summary requests shared an in-flight computation
+    @GetMapping("/coalescing-stats")
+    public Map<String, Object> getCoalescingStats() {
+        return requestCoalescer.stats();
+    }
+
+    // Retried POSTs answered from the idempotency-key store
+    @GetMapping("/idempotency-stats")
+    public Map<String, Object> getIdempotencyStats() {
+        return idempotencyStore.stats();
+    }
+
+    // Worker/project lookups served by the shared reference cache
+    @GetMapping("/reference-cache-stats")
+    public Map<String, Object> getReferenceCacheStats() {
+        return referenceCache.stats();
+    }
+
+    // Size of the in-memory worker search index
+    @GetMapping("/worker-search-stats")
+    public Map<String, Object> getWorkerSearchStats() {
+        return workerSearchIndex.stats();
     }
 }
@@ -0,0 +1,35 @@
+package com.construction.site_management.controller;
+
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.construction.site_management.model.DeletionJob;
+import com.construction.site_management.service.BulkDeleteService;
+
+@RestController
+@RequestMapping("/api/deletion-jobs")
+public class DeletionJobController {
+
+    private final BulkDeleteService bulkDeleteService;
+
+    public DeletionJobController(BulkDeleteService bulkDeleteService) {
+        this.bulkDeleteService = bulkDeleteService;
+    }
+
+    @GetMapping
+    public ResponseEntity<List<DeletionJob>> getJobs() {
+        return ResponseEntity.ok(bulkDeleteService.getJobs());
+    }
+
+    // JOB PROGRESS (processedRows / totalRows)
+    @GetMapping("/{id}")
+    public ResponseEntity<?> getJob(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(bulkDeleteService.getJob(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.construction.site_management.controller;
+
+import java.time.LocalDate;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.construction.site_management.service.AttendanceArchiveService;
+import com.construction.site_management.service.ExportService;
+
+// Bulk exports for accounting: flat rows streamed as CSV or NDJSON.
+// Use these instead of the list endpoints for full-year downloads.
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+
+    private final ExportService exportService;
+    private final AttendanceArchiveService archiveService;
+
+    public ExportController(ExportService exportService, AttendanceArchiveService archiveService) {
+        this.exportService = exportService;
+        this.archiveService = archiveService;
+    }
+
+    @GetMapping("/attendance")
+    public ResponseEntity<?> exportAttendance(@RequestParam(defaultValue = ExportService.CSV) String format,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        try {
+            ExportService.checkFormat(format);
+            LocalDate f = from != null ? LocalDate.parse(from) : null;
+            LocalDate t = to != null ? LocalDate.parse(to) : null;
+            // archived months are not in the file; say where it starts
+            HttpHeaders headers = new HttpHeaders();
+            LocalDate archivedBefore = archiveService.archivedBefore(f);
+            if (archivedBefore != null) {
+                headers.set(AttendanceArchiveService.ARCHIVED_BEFORE_HEADER, archivedBefore.toString());
+            }
+            return download("attendance", format, headers, out -> exportService.exportAttendance(f, t, format, out));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/payments")
+    public ResponseEntity<?> exportPayments(@RequestParam(defaultValue = ExportService.CSV) String format,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        try {
+            ExportService.checkFormat(format);
+            LocalDate f = from != null ? LocalDate.parse(from) : null;
+            LocalDate t = to != null ? LocalDate.parse(to) : null;
+            return download("payments", format, out -> exportService.exportPayments(f, t, format, out));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/materials")
+    public ResponseEntity<?> exportMaterials(@RequestParam(defaultValue = ExportService.CSV) String format) {
+        try {
+            ExportService.checkFormat(format);
+            return download("materials", format, out -> exportService.exportMaterials(format, out));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    private ResponseEntity<StreamingResponseBody> download(String name, String format, StreamingResponseBody body) {
+        return download(name, format, new HttpHeaders(), body);
+    }
+
+    private ResponseEntity<StreamingResponseBody> download(String name, String format, HttpHeaders headers,
+            StreamingResponseBody body) {
+        MediaType type = ExportService.NDJSON.equals(format)
+                ? MediaType.parseMediaType("application/x-ndjson")
+                : MediaType.parseMediaType("text/csv");
+        return ResponseEntity.ok()
+                .headers(headers)
+                .contentType(type)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + name + "." + format + "\"")
+                .body(body);
+    }
+}
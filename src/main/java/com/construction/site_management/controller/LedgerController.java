@@ -0,0 +1,75 @@
+package com.construction.site_management.controller;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.construction.site_management.service.WorkerLedgerService;
+
+@RestController
+@RequestMapping("/api/ledger")
+public class LedgerController {
+
+    private final WorkerLedgerService ledgerService;
+
+    public LedgerController(WorkerLedgerService ledgerService) {
+        this.ledgerService = ledgerService;
+    }
+
+    // WORKER BALANCE (live, or at the end of ?asOf=yyyy-MM-dd)
+    @GetMapping("/worker/{workerId}")
+    public ResponseEntity<?> getBalance(@PathVariable Long workerId,
+            @RequestParam(required = false) String asOf) {
+        try {
+            if (asOf == null) {
+                return ResponseEntity.ok(ledgerService.balance(workerId));
+            }
+            return ResponseEntity.ok(ledgerService.balanceAsOf(workerId, LocalDate.parse(asOf)));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Invalid date: " + asOf);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // WORKER STATEMENT (current month by default)
+    @GetMapping("/worker/{workerId}/statement")
+    public ResponseEntity<?> getStatement(@PathVariable Long workerId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        try {
+            YearMonth month = YearMonth.now();
+            LocalDate start = from != null ? LocalDate.parse(from) : month.atDay(1);
+            LocalDate end = to != null ? LocalDate.parse(to) : month.atEndOfMonth();
+            return ResponseEntity.ok(ledgerService.statement(workerId, start, end));
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Invalid date (expected yyyy-MM-dd)");
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // TAKE SNAPSHOTS (end of last month by default; runs monthly on its own)
+    @PostMapping("/snapshots")
+    public ResponseEntity<String> takeSnapshot(@RequestParam(required = false) String asOf) {
+        try {
+            LocalDate date = asOf != null ? LocalDate.parse(asOf) : YearMonth.now().minusMonths(1).atEndOfMonth();
+            int rows = ledgerService.snapshot(date);
+            return ResponseEntity.ok("Ledger snapshot at " + date + ": " + rows + " workers");
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Invalid date: " + asOf);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // REBUILD RUNNING BALANCES (historical data, manual repair)
+    @PostMapping("/rebuild")
+    public ResponseEntity<String> rebuild() {
+        int rows = ledgerService.rebuild();
+        return ResponseEntity.ok("Worker ledger rebuilt: " + rows + " workers");
+    }
+}
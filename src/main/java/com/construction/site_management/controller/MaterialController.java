@@ -2,8 +2,10 @@ package com.construction.site_management.controller;
 
 import com.construction.site_management.model.Material;
 import com.construction.site_management.service.MaterialService;
+import com.construction.site_management.support.SparseFields;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -24,10 +26,10 @@ public class MaterialController {
         return new ResponseEntity<>(savedMaterial, HttpStatus.CREATED);
     }
 
+    // Flat rows; ?fields=name,quantity,... trims each row to those properties
     @GetMapping
-    public ResponseEntity<List<Material>> getAllMaterials() {
-        List<Material> materials = materialService.getAllMaterials();
-        return ResponseEntity.ok(materials);
+    public ResponseEntity<MappingJacksonValue> getAllMaterials(@RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(SparseFields.of(materialService.getMaterialRows(), fields));
     }
 
     @GetMapping("/{id}")
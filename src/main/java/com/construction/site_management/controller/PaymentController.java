@@ -1,13 +1,23 @@
 package com.construction.site_management.controller;
 
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.construction.site_management.model.Payment;
+import com.construction.site_management.model.PayrollRun;
+import com.construction.site_management.payload.CursorPage;
+import com.construction.site_management.payload.PaymentRow;
+import com.construction.site_management.service.IdempotencyStore;
 import com.construction.site_management.service.PaymentService;
+import com.construction.site_management.service.PayrollRunService;
+import com.construction.site_management.service.RequestCoalescer;
 
 @RestController
 @RequestMapping("/api/payments")
@@ -15,45 +25,88 @@ import com.construction.site_management.service.PaymentService;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final RequestCoalescer requestCoalescer;
+    private final PayrollRunService payrollRunService;
+    private final IdempotencyStore idempotencyStore;
 
-    public PaymentController(PaymentService paymentService) {
+    public PaymentController(PaymentService paymentService, RequestCoalescer requestCoalescer,
+            PayrollRunService payrollRunService, IdempotencyStore idempotencyStore) {
         this.paymentService = paymentService;
+        this.requestCoalescer = requestCoalescer;
+        this.payrollRunService = payrollRunService;
+        this.idempotencyStore = idempotencyStore;
     }
 
-    // Add Payment
+    // Add Payment (retries with the same Idempotency-Key are answered once)
     @PostMapping("/add")
-    public ResponseEntity<Payment> addPayment(@RequestBody Map<String, Object> req) {
-        Long workerId = Long.valueOf(req.get("workerId").toString());
-        String type = req.get("type").toString();
-        Double amount = Double.valueOf(req.get("amount").toString());
-        String note = req.get("note") != null ? req.get("note").toString() : "";
+    public ResponseEntity<?> addPayment(@RequestBody Map<String, Object> req,
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey) {
+        return idempotencyStore.execute("payment", idempotencyKey, new TreeMap<>(req).toString(), () -> {
+            Long workerId = Long.valueOf(req.get("workerId").toString());
+            String type = req.get("type").toString();
+            Double amount = Double.valueOf(req.get("amount").toString());
+            String note = req.get("note") != null ? req.get("note").toString() : "";
 
-        return ResponseEntity.ok(paymentService.addPayment(workerId, type, amount, note));
+            return ResponseEntity.ok(paymentService.addPayment(workerId, type, amount, note));
+        });
     }
 
-    // Worker Payments
+    // Worker Payments (one page, newest first; next page cursor in X-Next-Cursor)
     @GetMapping("/worker/{workerId}")
-    public ResponseEntity<List<Payment>> getPaymentsByWorker(@PathVariable Long workerId) {
-        return ResponseEntity.ok(paymentService.getPaymentsByWorker(workerId));
+    public ResponseEntity<?> getPaymentsByWorker(@PathVariable Long workerId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return listPayments(null, workerId, null, null, null, cursor, size);
     }
 
-    // All Payments (Admin)
+    // Payments (Admin): filter by type, worker, project and date range
     @GetMapping
-    public ResponseEntity<List<Payment>> getAllPayments() {
-        return ResponseEntity.ok(paymentService.getAllPayments());
+    public ResponseEntity<?> getPayments(
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) Long workerId,
+            @RequestParam(required = false) Long projectId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return listPayments(type, workerId, projectId, from, to, cursor, size);
     }
 
-    // Auto Salary (single)
+    private ResponseEntity<?> listPayments(String type, Long workerId, Long projectId, String from, String to,
+            String cursor, Integer size) {
+        try {
+            CursorPage<PaymentRow> page = paymentService.getPaymentPage(type, workerId, projectId,
+                    from != null ? LocalDate.parse(from) : null, to != null ? LocalDate.parse(to) : null,
+                    cursor, size);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(CursorPage.NEXT_CURSOR_HEADER, page.getNextCursor());
+            }
+            return response.body(page.getItems());
+        } catch (DateTimeParseException e) {
+            return ResponseEntity.badRequest().body("Invalid date (expected yyyy-MM-dd)");
+        } catch (IllegalArgumentException e) { // bad cursor
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Auto Salary (single) for a pay period, current month by default
     @PostMapping("/auto-salary/{workerId}")
-    public ResponseEntity<Payment> autoGenerateSalary(@PathVariable Long workerId) {
-        return ResponseEntity.ok(paymentService.generateMonthlySalary(workerId));
+    public ResponseEntity<Payment> autoGenerateSalary(@PathVariable Long workerId,
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        YearMonth month = YearMonth.now();
+        LocalDate start = from != null ? LocalDate.parse(from) : month.atDay(1);
+        LocalDate end = to != null ? LocalDate.parse(to) : month.atEndOfMonth();
+        return ResponseEntity.ok(paymentService.generateMonthlySalary(workerId, start, end));
     }
 
-    // Auto Salary (all)
+    // Auto Salary (all) — payroll run for the current month
     @PostMapping("/auto-salary/all")
     public ResponseEntity<String> autoGenerateSalaryForAll() {
-        paymentService.generateSalaryForAllWorkers();
-        return ResponseEntity.ok("Salary generated for all workers");
+        PayrollRun run = payrollRunService.runForMonth(YearMonth.now());
+        return ResponseEntity.ok("Salary generated for all workers (" + run.getPaymentCount()
+                + " payments, total " + run.getTotalAmount() + ")");
     }
 
     // Delete Payment
@@ -63,11 +116,26 @@ public class PaymentController {
         return ResponseEntity.ok("Payment deleted successfully");
     }
 
+    // Top paid workers (optionally within one project)
+    @GetMapping("/top-workers")
+    public ResponseEntity<List<Object[]>> topPaidWorkers(
+            @RequestParam(defaultValue = "5") int limit,
+            @RequestParam(required = false) Long projectId) {
+        return ResponseEntity.ok(paymentService.getTopPaidWorkers(projectId, limit));
+    }
+
+    // Rebuild monthly payment rollup
+    @PostMapping("/rollup/rebuild")
+    public ResponseEntity<String> rebuildRollup() {
+        int rows = paymentService.rebuildRollup();
+        return ResponseEntity.ok("Payment rollup rebuilt: " + rows + " month/type/project rows");
+    }
+
     // ==========================
     // FINANCE SUMMARY (NEW)
     // ==========================
     @GetMapping("/summary")
     public ResponseEntity<Map<String, Object>> financeSummary() {
-        return ResponseEntity.ok(paymentService.getFinanceSummary());
+        return ResponseEntity.ok(requestCoalescer.execute("finance-summary", paymentService::getFinanceSummary));
     }
 }
@@ -0,0 +1,53 @@
+package com.construction.site_management.controller;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.construction.site_management.model.PayrollRun;
+import com.construction.site_management.service.PayrollRunService;
+
+@RestController
+@RequestMapping("/api/payroll")
+public class PayrollController {
+
+    private final PayrollRunService payrollRunService;
+
+    public PayrollController(PayrollRunService payrollRunService) {
+        this.payrollRunService = payrollRunService;
+    }
+
+    // Run payroll for a period (defaults to the current month); rerunning a period is safe
+    @PostMapping("/runs")
+    public ResponseEntity<?> run(@RequestParam(required = false) String from,
+            @RequestParam(required = false) String to) {
+        try {
+            PayrollRun run;
+            if (from != null && to != null) {
+                run = payrollRunService.run(LocalDate.parse(from), LocalDate.parse(to));
+            } else {
+                run = payrollRunService.runForMonth(YearMonth.now());
+            }
+            return ResponseEntity.ok(run);
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    @GetMapping("/runs")
+    public ResponseEntity<List<PayrollRun>> getRuns() {
+        return ResponseEntity.ok(payrollRunService.getRuns());
+    }
+
+    @GetMapping("/runs/{id}")
+    public ResponseEntity<?> getRun(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(payrollRunService.getRun(id));
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+}
@@ -1,13 +1,15 @@
 package com.construction.site_management.controller;
 
-import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 
+import com.construction.site_management.model.DeletionJob;
 import com.construction.site_management.model.Project;
 import com.construction.site_management.service.ProjectService;
+import com.construction.site_management.support.SparseFields;
 
 import lombok.AllArgsConstructor;
 
@@ -28,9 +30,10 @@ public class ProjectController {
         }
     }
 
+    // Flat rows; ?fields=id,name,... trims each row to those properties
     @GetMapping
-    public ResponseEntity<List<Project>> getAllProjects() {
-        return ResponseEntity.ok(projectService.getAllProjects());
+    public ResponseEntity<MappingJacksonValue> getAllProjects(@RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(SparseFields.of(projectService.getProjectRows(), fields));
     }
 
     @GetMapping("/{id}")
@@ -64,10 +67,16 @@ public class ProjectController {
         }
     }
 
+    // Materials, attendance, payments and workers are kept without the project;
+    // ?deleteTasks=true is needed to remove a project that still has tasks
     @DeleteMapping("/{id}")
-    public ResponseEntity<String> deleteProject(@PathVariable Long id) {
+    public ResponseEntity<?> deleteProject(@PathVariable Long id,
+            @RequestParam(defaultValue = "false") boolean deleteTasks) {
         try {
-            projectService.deleteProject(id);
+            DeletionJob job = projectService.deleteProject(id, deleteTasks);
+            if (job != null) {
+                return ResponseEntity.accepted().body(job);
+            }
             return ResponseEntity.ok("Project deleted successfully with ID: " + id);
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
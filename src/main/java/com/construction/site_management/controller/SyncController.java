@@ -0,0 +1,25 @@
+package com.construction.site_management.controller;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.construction.site_management.service.SyncService;
+
+@RestController
+@RequestMapping("/api/sync")
+public class SyncController {
+
+    private final SyncService syncService;
+
+    public SyncController(SyncService syncService) {
+        this.syncService = syncService;
+    }
+
+    // CHANGES SINCE CURSOR (attendance, tasks, workers, payments + deletions).
+    // Start with since=0; call again with the returned cursor while hasMore is true.
+    @GetMapping
+    public ResponseEntity<?> changesSince(@RequestParam(defaultValue = "0") long since,
+            @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok(syncService.changesSince(since, limit));
+    }
+}
@@ -4,10 +4,12 @@ import java.util.List;
 import java.util.Map;
 
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 
 import com.construction.site_management.model.Task;
 import com.construction.site_management.service.TaskService;
+import com.construction.site_management.support.SparseFields;
 
 @RestController
 @RequestMapping("/api/tasks")
@@ -26,9 +28,10 @@ public class TaskController {
     }
 
     // GET ALL TASKS
+    // Flat rows; ?fields=status,deadline,... trims each row to those properties
     @GetMapping
-    public ResponseEntity<List<Task>> getAllTasks() {
-        return ResponseEntity.ok(taskService.getAllTasks());
+    public ResponseEntity<MappingJacksonValue> getAllTasks(@RequestParam(required = false) String fields) {
+        return ResponseEntity.ok(SparseFields.of(taskService.getTaskRows(), fields));
     }
 
     @GetMapping("/worker/{workerId}")
@@ -4,8 +4,14 @@ import java.util.List;
 
 import org.springframework.web.bind.annotation.*;
 
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import com.construction.site_management.model.DeletionJob;
 import com.construction.site_management.model.Worker;
+import com.construction.site_management.payload.WorkerRow;
+import com.construction.site_management.payload.WorkerSearchHit;
 import com.construction.site_management.service.WorkerService;
+import com.construction.site_management.support.SparseFields;
 
 @RestController
 @RequestMapping("/api/workers")
@@ -22,9 +28,20 @@ public class WorkerController {
         return workerService.saveWorker(worker);
     }
 
+    // Flat rows; ?fields=id,name,... trims each row to those properties,
+    // ?ids=3,1,2 returns just those workers in that order (rows for search hits)
     @GetMapping
-    public List<Worker> getAllWorkers() {
-        return workerService.getAllWorkers();
+    public MappingJacksonValue getAllWorkers(@RequestParam(required = false) String fields,
+            @RequestParam(required = false) List<Long> ids) {
+        List<WorkerRow> rows = ids != null ? workerService.getWorkerRows(ids) : workerService.getWorkerRows();
+        return SparseFields.of(rows, fields);
+    }
+
+    // Type-ahead: ?q= matches name, phone or Aadhaar by prefix or anywhere (3+ characters)
+    @GetMapping("/search")
+    public List<WorkerSearchHit> searchWorkers(@RequestParam String q,
+            @RequestParam(required = false) Integer limit) {
+        return workerService.searchWorkers(q, limit);
     }
 
     @GetMapping("/{id}")
@@ -56,8 +73,17 @@ public class WorkerController {
     }
 
 
+    // Large histories are removed by a background job (202 + job; progress at /api/deletion-jobs/{id})
     @DeleteMapping("/{id}")
-    public void deleteWorker(@PathVariable Long id) {
-        workerService.deleteWorker(id);
+    public ResponseEntity<?> deleteWorker(@PathVariable Long id) {
+        try {
+            DeletionJob job = workerService.deleteWorker(id);
+            if (job != null) {
+                return ResponseEntity.accepted().body(job);
+            }
+            return ResponseEntity.ok().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 }
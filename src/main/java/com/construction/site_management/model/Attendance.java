@@ -6,19 +6,27 @@ import jakarta.persistence.*;
 import lombok.*;
 
 @Entity
+@Table(uniqueConstraints = {
+        // one mark per worker per day; also serves worker + date range lookups
+        @UniqueConstraint(name = "uk_attendance_worker_date", columnNames = { "worker_id", "date" })
+}, indexes = {
+        @Index(name = "idx_attendance_date_id", columnList = "date, id"),
+        @Index(name = "idx_attendance_change_version", columnList = "change_version")
+})
+@EntityListeners(ChangeVersionListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class Attendance {
+public class Attendance implements ChangeVersioned {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "worker_id")
     private Worker worker;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id")
     private Project project;
 
@@ -26,4 +34,8 @@ public class Attendance {
     private String status;
     private double overtimeHours;
     private double totalPay;
+
+    // sync clock stamp, set on every insert/update
+    @Column(name = "change_version")
+    private Long changeVersion;
 }
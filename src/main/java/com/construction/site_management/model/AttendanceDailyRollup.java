@@ -0,0 +1,33 @@
+package com.construction.site_management.model;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Per-day, per-project attendance totals, maintained alongside every attendance write.
+// projectId 0 collects attendance marked without a project.
+@Entity
+@Table(name = "attendance_daily_rollup",
+       uniqueConstraints = @UniqueConstraint(name = "uk_rollup_day_project", columnNames = {"rollup_date", "project_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceDailyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate date;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    private long presentCount;
+    private long absentCount;
+    private long otherCount;
+    private double overtimeHours;
+    private double totalPay;
+}
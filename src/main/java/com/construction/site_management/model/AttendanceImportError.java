@@ -0,0 +1,34 @@
+package com.construction.site_management.model;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// A rejected row of an attendance import (row numbers are 1-based, header excluded)
+@Entity
+@Table(name = "attendance_import_error", indexes = {
+        @Index(name = "idx_import_error_job_row", columnList = "job_id, line_number")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceImportError {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_id", nullable = false)
+    private Long jobId;
+
+    // ROW_NUMBER is a reserved word in MySQL 8
+    @Column(name = "line_number", nullable = false)
+    private int rowNumber;
+
+    private Long workerId;
+    private LocalDate date;
+
+    @Column(length = 500)
+    private String reason;
+}
@@ -0,0 +1,41 @@
+package com.construction.site_management.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// A historical attendance CSV being imported chunk by chunk.
+// processedRows only moves forward in the same transaction that commits a chunk,
+// so a restarted job skips exactly the rows already committed.
+@Entity
+@Table(name = "attendance_import_job")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceImportJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    private String fileName;
+
+    @Column(length = 500)
+    private String storedPath; // uploaded file, removed once the job completes
+
+    @Column(nullable = false)
+    private String status; // PENDING, RUNNING, COMPLETED, FAILED
+
+    private int chunkSize;
+    private int processedRows; // data rows committed (accepted + rejected)
+    private int acceptedRows;
+    private int rejectedRows;
+
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    @Column(length = 500)
+    private String message;
+}
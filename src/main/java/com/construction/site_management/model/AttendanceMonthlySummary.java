@@ -0,0 +1,45 @@
+package com.construction.site_management.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// One worker's attendance for one month on one project, compacted from the
+// attendance table once the month leaves the hot window. The masks keep the
+// day-level picture (bit day - 1) for calendars.
+@Entity
+@Table(name = "attendance_monthly_summary",
+       uniqueConstraints = @UniqueConstraint(name = "uk_summary_worker_period_project",
+               columnNames = {"worker_id", "period_key", "project_id"}),
+       indexes = @Index(name = "idx_summary_project_period", columnList = "project_id, period_key"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AttendanceMonthlySummary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "worker_id", nullable = false)
+    private Long workerId;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId; // 0 when the rows had no project
+
+    @Column(name = "period_key", nullable = false)
+    private Integer periodKey; // yyyymm
+
+    private int presentDays;
+    private int absentDays;
+    private int otherDays;
+    private double overtimeHours;
+    private double totalPay;
+
+    private int presentMask;
+    private int absentMask;
+    private int halfDayMask;
+
+    // false when built on the fly from hot attendance rows
+    @Transient
+    private boolean archived = true;
+}
@@ -0,0 +1,23 @@
+package com.construction.site_management.model;
+
+import com.construction.site_management.support.ChangeClock;
+
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreRemove;
+import jakarta.persistence.PreUpdate;
+
+// Stamps every insert/update with the next change version and leaves a
+// tombstone for every delete, so sync clients can pick up removals too.
+public class ChangeVersionListener {
+
+    @PrePersist
+    @PreUpdate
+    public void stamp(Object entity) {
+        ((ChangeVersioned) entity).setChangeVersion(ChangeClock.next());
+    }
+
+    @PreRemove
+    public void tombstone(Object entity) {
+        ChangeClock.recordDeletion(SyncTombstone.typeOf(entity.getClass()), ((ChangeVersioned) entity).getId());
+    }
+}
@@ -0,0 +1,11 @@
+package com.construction.site_management.model;
+
+// Entities served by the delta sync API
+public interface ChangeVersioned {
+
+    Long getId();
+
+    Long getChangeVersion();
+
+    void setChangeVersion(Long changeVersion);
+}
@@ -0,0 +1,37 @@
+package com.construction.site_management.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Background removal of a worker or project with a large amount of dependent data
+@Entity
+@Table(name = "deletion_job")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DeletionJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String targetType; // worker, project
+
+    @Column(nullable = false)
+    private Long targetId;
+
+    @Column(nullable = false)
+    private String status; // RUNNING, COMPLETED, FAILED
+
+    private long totalRows;     // dependent rows when the job started
+    private long processedRows; // dependent rows deleted or detached so far
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    @Column(length = 500)
+    private String message;
+}
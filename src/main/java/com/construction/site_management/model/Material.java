@@ -23,7 +23,7 @@ public class Material {
     private String supplierName;
 
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id")
     private Project project;
 }
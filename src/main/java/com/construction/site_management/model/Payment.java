@@ -8,15 +8,28 @@ import java.time.LocalDate;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "payment")
-public class Payment {
+@Table(name = "payment", indexes = {
+        @Index(name = "idx_payment_type_date", columnList = "type, date"),
+        // keyset listing (date desc, id desc), alone or filtered by worker / project
+        @Index(name = "idx_payment_date_id", columnList = "date, id"),
+        @Index(name = "idx_payment_worker_date", columnList = "worker_id, date, id"),
+        @Index(name = "idx_payment_project_date", columnList = "project_id, date, id"),
+        // salaries already paid for a pay period
+        @Index(name = "idx_payment_worker_period", columnList = "worker_id, period_start, period_end"),
+        @Index(name = "idx_payment_change_version", columnList = "change_version")
+}, uniqueConstraints = {
+        // at most one salary per worker per payroll run
+        @UniqueConstraint(name = "uk_payment_run_worker", columnNames = {"payroll_run_id", "worker_id"})
+})
+@EntityListeners(ChangeVersionListener.class)
+public class Payment implements ChangeVersioned {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     // Worker for whom payment was made
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "worker_id", nullable = false)
     private Worker worker;
 
@@ -30,4 +43,23 @@ public class Payment {
     private LocalDate date;
 
     private String note;
+
+    // Project the worker was assigned to when paid (keeps monthly rollups stable if they move)
+    @Column(name = "project_id")
+    private Long projectId;
+
+    // Pay period a generated salary covers (auto salary and payroll runs)
+    @Column(name = "period_start")
+    private LocalDate periodStart;
+
+    @Column(name = "period_end")
+    private LocalDate periodEnd;
+
+    // Set on salaries created by a payroll run
+    @Column(name = "payroll_run_id")
+    private Long payrollRunId;
+
+    // sync clock stamp, set on every insert/update
+    @Column(name = "change_version")
+    private Long changeVersion;
 }
@@ -0,0 +1,33 @@
+package com.construction.site_management.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Payment totals per calendar month (yyyymm), payment type and project.
+// projectId 0 collects payments whose own project_id is null.
+@Entity
+@Table(name = "payment_monthly_rollup",
+       uniqueConstraints = @UniqueConstraint(name = "uk_payment_rollup",
+               columnNames = {"period_key", "type", "project_id"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentMonthlyRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // year * 100 + month, e.g. 202610
+    @Column(name = "period_key", nullable = false)
+    private Integer periodKey;
+
+    @Column(nullable = false)
+    private String type;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    private double totalAmount;
+    private long paymentCount;
+}
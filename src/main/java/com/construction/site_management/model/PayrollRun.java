@@ -0,0 +1,41 @@
+package com.construction.site_management.model;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// One auto-salary run for a pay period. The unique period makes reruns idempotent:
+// a completed run is returned as-is, a failed one resumes where it stopped.
+@Entity
+@Table(name = "payroll_run",
+       uniqueConstraints = @UniqueConstraint(name = "uk_payroll_period", columnNames = {"period_start", "period_end"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayrollRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "period_start", nullable = false)
+    private LocalDate periodStart;
+
+    @Column(name = "period_end", nullable = false)
+    private LocalDate periodEnd;
+
+    @Column(nullable = false)
+    private String status; // RUNNING, COMPLETED, FAILED
+
+    private int workerCount;
+    private int paymentCount;
+    private double totalAmount;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    @Column(length = 500)
+    private String message;
+}
@@ -4,11 +4,15 @@ import jakarta.persistence.*;
 import lombok.*;
 import java.time.LocalDate;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
 @Entity
 @Table(name = "projects")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
+// lazy references are Hibernate proxies; their internals are not part of the JSON
+@JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
 public class Project {
     
     @Id
@@ -0,0 +1,45 @@
+package com.construction.site_management.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Marker for a deleted row, versioned on the same clock as the live rows
+@Entity
+@Table(name = "sync_tombstone", indexes = {
+        @Index(name = "idx_tombstone_change_version", columnList = "change_version")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SyncTombstone {
+
+    public static final String ATTENDANCE = "attendance";
+    public static final String TASK = "task";
+    public static final String WORKER = "worker";
+    public static final String PAYMENT = "payment";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "entity_type", nullable = false, length = 32)
+    private String entityType;
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(name = "change_version", nullable = false)
+    private Long changeVersion;
+
+    private LocalDateTime deletedAt;
+
+    public static String typeOf(Class<?> entityClass) {
+        if (Attendance.class.isAssignableFrom(entityClass)) return ATTENDANCE;
+        if (Task.class.isAssignableFrom(entityClass)) return TASK;
+        if (Worker.class.isAssignableFrom(entityClass)) return WORKER;
+        if (Payment.class.isAssignableFrom(entityClass)) return PAYMENT;
+        throw new IllegalArgumentException("Not a synced entity: " + entityClass.getName());
+    }
+}
@@ -8,8 +8,11 @@ import java.time.LocalDate;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name="task")
-public class Task {
+@Table(name="task", indexes = {
+        @Index(name = "idx_task_change_version", columnList = "change_version")
+})
+@EntityListeners(ChangeVersionListener.class)
+public class Task implements ChangeVersioned {
     
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -21,11 +24,11 @@ public class Task {
     @Column(length = 500)
     private String description;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id", nullable = false)
     private Project project;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "worker_id", nullable = false)
     private Worker worker;
 
@@ -34,4 +37,8 @@ public class Task {
 
     @Column(nullable = false)
     private String status;
+
+    // sync clock stamp, set on every insert/update
+    @Column(name = "change_version")
+    private Long changeVersion;
 }
@@ -5,14 +5,22 @@ import lombok.*;
 import java.time.LocalDate;
 import java.util.List;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 @Entity
-@Table(name = "worker")
+@Table(name = "worker", indexes = {
+        @Index(name = "idx_worker_change_version", columnList = "change_version"),
+        // login lookups by phone
+        @Index(name = "idx_worker_phone", columnList = "phone")
+})
+@EntityListeners(ChangeVersionListener.class)
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-public class Worker {
+// lazy references are Hibernate proxies; their internals are not part of the JSON
+@JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
+public class Worker implements ChangeVersioned {
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -36,21 +44,26 @@ public class Worker {
     private String address;
     private LocalDate joinedDate = LocalDate.now();
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id")
     private Project project;
 
     private String role;
 
-    @OneToMany(mappedBy = "worker", cascade = CascadeType.ALL, orphanRemoval = true)
+    // sync clock stamp, set on every insert/update
+    @Column(name = "change_version")
+    private Long changeVersion;
+
+    // Dependent rows are removed set-based by BulkDeleteService, not by cascade
+    @OneToMany(mappedBy = "worker")
 @com.fasterxml.jackson.annotation.JsonIgnore
 private List<Attendance> attendanceList;
 
-@OneToMany(mappedBy = "worker", cascade = CascadeType.ALL, orphanRemoval = true)
+@OneToMany(mappedBy = "worker")
 @com.fasterxml.jackson.annotation.JsonIgnore
 private List<Payment> payments;
 
-@OneToMany(mappedBy = "worker", cascade = CascadeType.ALL, orphanRemoval = true)
+@OneToMany(mappedBy = "worker")
 @com.fasterxml.jackson.annotation.JsonIgnore
 private List<Task> tasks;
 
@@ -0,0 +1,26 @@
+package com.construction.site_management.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Running totals per worker, moved by deltas in the same transaction as every
+// attendance and payment write. Balance = earned - salary paid - advances paid.
+@Entity
+@Table(name = "worker_ledger")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkerLedger {
+
+    @Id
+    @Column(name = "worker_id")
+    private Long workerId;
+
+    private double earned;       // attendance totalPay
+    private double salaryPaid;   // "Salary" payments
+    private double advancesPaid; // every other payment type
+
+    private LocalDateTime updatedAt;
+}
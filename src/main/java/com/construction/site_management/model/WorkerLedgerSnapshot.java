@@ -0,0 +1,33 @@
+package com.construction.site_management.model;
+
+import java.time.LocalDate;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// A worker's ledger totals at the end of asOf (taken monthly). Balance-as-of queries
+// start from the latest snapshot and only add the activity dated after it.
+// Backdated writes shift every later snapshot of the worker.
+@Entity
+@Table(name = "worker_ledger_snapshot",
+       uniqueConstraints = @UniqueConstraint(name = "uk_ledger_snapshot_worker_date",
+               columnNames = {"worker_id", "as_of"}))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkerLedgerSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "worker_id", nullable = false)
+    private Long workerId;
+
+    @Column(name = "as_of", nullable = false)
+    private LocalDate asOf;
+
+    private double earned;
+    private double salaryPaid;
+    private double advancesPaid;
+}
@@ -0,0 +1,21 @@
+package com.construction.site_management.payload;
+
+import lombok.Data;
+
+// One worker's month as bitmasks: bit (day - 1) is set when that day has the status.
+// overtime[day - 1] holds the overtime hours; null when the month has none.
+@Data
+public class AttendanceCalendar {
+
+    private Long workerId;
+    private String month; // yyyy-MM
+    private int days;
+    private int present;
+    private int absent;
+    private int halfDay;
+    private double[] overtime;
+
+    public static int bit(int day) {
+        return 1 << (day - 1);
+    }
+}
@@ -0,0 +1,54 @@
+package com.construction.site_management.payload;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+public class BulkAttendanceResult {
+
+    public static final String ACCEPTED = "ACCEPTED";
+    public static final String REJECTED = "REJECTED";
+
+    private int accepted;
+    private int rejected;
+    private List<Row> rows = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Row {
+        private int index; // position in the request
+        private Long workerId;
+        private LocalDate date;
+        private String result; // ACCEPTED or REJECTED
+        private String reason;
+    }
+
+    public void accept(int index, Long workerId, LocalDate date) {
+        rows.add(new Row(index, workerId, date, ACCEPTED, null));
+        accepted++;
+    }
+
+    public void reject(int index, Long workerId, LocalDate date, String reason) {
+        rows.add(new Row(index, workerId, date, REJECTED, reason));
+        rejected++;
+    }
+
+    // An accepted row whose insert lost to a concurrent write of the same worker and date
+    public void rejectAccepted(Long workerId, LocalDate date, String reason) {
+        for (Row row : rows) {
+            if (ACCEPTED.equals(row.getResult()) && row.getWorkerId().equals(workerId) && row.getDate().equals(date)) {
+                row.setResult(REJECTED);
+                row.setReason(reason);
+                accepted--;
+                rejected++;
+                return;
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.construction.site_management.payload;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+// One page of a keyset-paginated list ordered by (date desc, id desc).
+// nextCursor is "yyyy-MM-dd:id" of the last item, or null on the last page.
+@Data
+@AllArgsConstructor
+public class CursorPage<T> {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private List<T> items;
+    private String nextCursor;
+
+    public static String encode(LocalDate date, Long id) {
+        return date + ":" + id;
+    }
+
+    // [date, id]; throws RuntimeException on a malformed cursor
+    public static Object[] decode(String cursor) {
+        int sep = cursor.lastIndexOf(':');
+        if (sep <= 0) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+        try {
+            return new Object[] { LocalDate.parse(cursor.substring(0, sep)), Long.valueOf(cursor.substring(sep + 1)) };
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
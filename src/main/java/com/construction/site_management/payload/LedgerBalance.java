@@ -0,0 +1,23 @@
+package com.construction.site_management.payload;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LedgerBalance {
+
+    private Long workerId;
+    private LocalDate asOf; // null for the live balance
+    private double earned;
+    private double salaryPaid;
+    private double advancesPaid;
+
+    public double getBalance() {
+        return earned - salaryPaid - advancesPaid;
+    }
+}
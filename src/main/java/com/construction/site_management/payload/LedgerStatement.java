@@ -0,0 +1,35 @@
+package com.construction.site_management.payload;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+public class LedgerStatement {
+
+    public static final String ATTENDANCE = "Attendance";
+    public static final String ARCHIVED_MONTH = "Attendance (archived month)";
+
+    private Long workerId;
+    private LocalDate from;
+    private LocalDate to;
+    private double openingBalance;
+    private double closingBalance;
+    private List<Entry> entries = new ArrayList<>();
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private LocalDate date;
+        private String kind;   // Attendance, Attendance (archived month), or the payment type
+        private Long refId;    // attendance or payment id; null for archived months
+        private String description;
+        private double credit; // earned
+        private double debit;  // paid out
+    }
+}
@@ -0,0 +1,25 @@
+package com.construction.site_management.payload;
+
+import com.construction.site_management.support.SparseFields;
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Material list row: material columns plus the project's id and name, no entities loaded
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonFilter(SparseFields.FILTER)
+public class MaterialRow {
+
+    private Long id;
+    private String name;
+    private Double quantity;
+    private String unit;
+    private Double costPerUnit;
+    private String supplierName;
+    private Long projectId;
+    private String projectName;
+}
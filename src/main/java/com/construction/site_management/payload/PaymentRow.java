@@ -0,0 +1,22 @@
+package com.construction.site_management.payload;
+
+import java.time.LocalDate;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Payment list row: selected straight from payment + worker name, no entities loaded
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentRow {
+
+    private Long id;
+    private Long workerId;
+    private String workerName;
+    private String type;
+    private Double amount;
+    private LocalDate date;
+    private String note;
+}
@@ -0,0 +1,30 @@
+package com.construction.site_management.payload;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Data;
+
+// Every worker's month on a project as packed bitmaps, column-wise:
+// workerIds[i] owns present[i], absent[i] and halfDay[i] (bit day - 1 per day).
+@Data
+public class ProjectAttendanceCalendar {
+
+    private Long projectId;
+    private String month; // yyyy-MM
+    private int days;
+    private long[] workerIds;
+    private int[] present;
+    private int[] absent;
+    private int[] halfDay;
+
+    // workers whose present bit is set for the day
+    public List<Long> workersPresentOn(int day) {
+        int mask = AttendanceCalendar.bit(day);
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < workerIds.length; i++) {
+            if ((present[i] & mask) != 0) ids.add(workerIds[i]);
+        }
+        return ids;
+    }
+}
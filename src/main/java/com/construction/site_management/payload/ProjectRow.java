@@ -0,0 +1,27 @@
+package com.construction.site_management.payload;
+
+import java.time.LocalDate;
+
+import com.construction.site_management.support.SparseFields;
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Project list row, selected as plain columns (nothing enters the persistence context)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonFilter(SparseFields.FILTER)
+public class ProjectRow {
+
+    private Long id;
+    private String name;
+    private String location;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String managerName;
+    private String status;
+    private String description;
+}
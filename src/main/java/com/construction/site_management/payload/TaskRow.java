@@ -0,0 +1,28 @@
+package com.construction.site_management.payload;
+
+import java.time.LocalDate;
+
+import com.construction.site_management.support.SparseFields;
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Task list row: task columns plus worker and project id/name, no entities loaded
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonFilter(SparseFields.FILTER)
+public class TaskRow {
+
+    private Long id;
+    private String taskName;
+    private String description;
+    private String status;
+    private LocalDate deadline;
+    private Long workerId;
+    private String workerName;
+    private Long projectId;
+    private String projectName;
+}
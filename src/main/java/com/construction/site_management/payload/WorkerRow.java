@@ -0,0 +1,35 @@
+package com.construction.site_management.payload;
+
+import java.time.LocalDate;
+
+import com.construction.site_management.support.SparseFields;
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Worker list row: worker columns plus the project's id and name, no entities loaded
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonFilter(SparseFields.FILTER)
+public class WorkerRow {
+
+    private Long id;
+    private String name;
+    private String phone;
+    private Double ratePerDay;
+    private String address;
+    private String role;
+    private Boolean policeVerified;
+    private LocalDate joinedDate;
+    // same field and JSON name as Worker; ?fields= takes either spelling
+    @JsonProperty("aadhaarNumber")
+    @JsonAlias("aadharNumber")
+    private String aadharNumber;
+    private Long projectId;
+    private String projectName;
+}
@@ -0,0 +1,21 @@
+package com.construction.site_management.payload;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One type-ahead result; higher score ranks first
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class WorkerSearchHit {
+
+    private Long id;
+    private String name;
+    private String phone;
+    @JsonProperty("aadhaarNumber") // as on Worker
+    private String aadharNumber;
+    private int score;
+}
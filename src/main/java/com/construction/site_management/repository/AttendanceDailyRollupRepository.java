@@ -0,0 +1,182 @@
+package com.construction.site_management.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.construction.site_management.model.AttendanceDailyRollup;
+
+public interface AttendanceDailyRollupRepository extends JpaRepository<AttendanceDailyRollup, Long> {
+
+    // Atomically add (or subtract) one batch of counts to a day/project bucket
+    @Modifying
+    @Query(value = "INSERT INTO attendance_daily_rollup " +
+                   "(rollup_date, project_id, present_count, absent_count, other_count, overtime_hours, total_pay) " +
+                   "VALUES (:date, :projectId, :present, :absent, :other, :overtime, :pay) " +
+                   "ON DUPLICATE KEY UPDATE present_count = present_count + VALUES(present_count), " +
+                   "absent_count = absent_count + VALUES(absent_count), " +
+                   "other_count = other_count + VALUES(other_count), " +
+                   "overtime_hours = overtime_hours + VALUES(overtime_hours), " +
+                   "total_pay = total_pay + VALUES(total_pay)",
+           nativeQuery = true)
+    void upsertDelta(LocalDate date, Long projectId, long present, long absent, long other,
+                     double overtime, double pay);
+
+    // ================= SET-BASED DELTAS (bulk deletes) =================
+
+    // Take a worker's attendance rows (id <= upToId) out of their buckets
+    @Modifying
+    @Query(value = "INSERT INTO attendance_daily_rollup " +
+                   "(rollup_date, project_id, present_count, absent_count, other_count, overtime_hours, total_pay) " +
+                   "SELECT a.date, COALESCE(a.project_id, 0), " +
+                   "-SUM(CASE WHEN LOWER(a.status) = 'present' THEN 1 ELSE 0 END), " +
+                   "-SUM(CASE WHEN LOWER(a.status) = 'absent' THEN 1 ELSE 0 END), " +
+                   "-SUM(CASE WHEN a.status IS NULL OR LOWER(a.status) NOT IN ('present', 'absent') THEN 1 ELSE 0 END), " +
+                   "-COALESCE(SUM(a.overtime_hours), 0), -COALESCE(SUM(a.total_pay), 0) " +
+                   "FROM attendance a WHERE a.worker_id = :workerId AND a.id <= :upToId AND a.date IS NOT NULL " +
+                   "GROUP BY a.date, COALESCE(a.project_id, 0) " +
+                   "ON DUPLICATE KEY UPDATE present_count = present_count + VALUES(present_count), " +
+                   "absent_count = absent_count + VALUES(absent_count), " +
+                   "other_count = other_count + VALUES(other_count), " +
+                   "overtime_hours = overtime_hours + VALUES(overtime_hours), " +
+                   "total_pay = total_pay + VALUES(total_pay)",
+           nativeQuery = true)
+    int subtractWorkerRows(Long workerId, Long upToId);
+
+    // Move a project's attendance rows (id <= upToId) into the no-project bucket,
+    // before their project_id is cleared
+    @Modifying
+    @Query(value = "INSERT INTO attendance_daily_rollup " +
+                   "(rollup_date, project_id, present_count, absent_count, other_count, overtime_hours, total_pay) " +
+                   "SELECT a.date, COALESCE(a.project_id, 0), " +
+                   "-SUM(CASE WHEN LOWER(a.status) = 'present' THEN 1 ELSE 0 END), " +
+                   "-SUM(CASE WHEN LOWER(a.status) = 'absent' THEN 1 ELSE 0 END), " +
+                   "-SUM(CASE WHEN a.status IS NULL OR LOWER(a.status) NOT IN ('present', 'absent') THEN 1 ELSE 0 END), " +
+                   "-COALESCE(SUM(a.overtime_hours), 0), -COALESCE(SUM(a.total_pay), 0) " +
+                   "FROM attendance a WHERE a.project_id = :projectId AND a.id <= :upToId AND a.date IS NOT NULL " +
+                   "GROUP BY a.date, COALESCE(a.project_id, 0) " +
+                   "ON DUPLICATE KEY UPDATE present_count = present_count + VALUES(present_count), " +
+                   "absent_count = absent_count + VALUES(absent_count), " +
+                   "other_count = other_count + VALUES(other_count), " +
+                   "overtime_hours = overtime_hours + VALUES(overtime_hours), " +
+                   "total_pay = total_pay + VALUES(total_pay)",
+           nativeQuery = true)
+    int subtractProjectRows(Long projectId, Long upToId);
+
+    @Modifying
+    @Query(value = "INSERT INTO attendance_daily_rollup " +
+                   "(rollup_date, project_id, present_count, absent_count, other_count, overtime_hours, total_pay) " +
+                   "SELECT a.date, 0, " +
+                   "SUM(CASE WHEN LOWER(a.status) = 'present' THEN 1 ELSE 0 END), " +
+                   "SUM(CASE WHEN LOWER(a.status) = 'absent' THEN 1 ELSE 0 END), " +
+                   "SUM(CASE WHEN a.status IS NULL OR LOWER(a.status) NOT IN ('present', 'absent') THEN 1 ELSE 0 END), " +
+                   "COALESCE(SUM(a.overtime_hours), 0), COALESCE(SUM(a.total_pay), 0) " +
+                   "FROM attendance a WHERE a.project_id = :projectId AND a.id <= :upToId AND a.date IS NOT NULL " +
+                   "GROUP BY a.date, COALESCE(a.project_id, 0) " +
+                   "ON DUPLICATE KEY UPDATE present_count = present_count + VALUES(present_count), " +
+                   "absent_count = absent_count + VALUES(absent_count), " +
+                   "other_count = other_count + VALUES(other_count), " +
+                   "overtime_hours = overtime_hours + VALUES(overtime_hours), " +
+                   "total_pay = total_pay + VALUES(total_pay)",
+           nativeQuery = true)
+    int addProjectRowsUnassigned(Long projectId, Long upToId);
+
+    // ================= ARCHIVED MONTHS (bulk deletes) =================
+
+    // Day offsets 0..30 within a month, to spread a summary's masks back over its days
+    String MONTH_DAYS = "SELECT 0 AS n UNION ALL SELECT 1 UNION ALL SELECT 2 UNION ALL SELECT 3 UNION ALL SELECT 4 UNION ALL SELECT 5 UNION ALL " +
+                        "SELECT 6 UNION ALL SELECT 7 UNION ALL SELECT 8 UNION ALL SELECT 9 UNION ALL SELECT 10 UNION ALL SELECT 11 UNION ALL " +
+                        "SELECT 12 UNION ALL SELECT 13 UNION ALL SELECT 14 UNION ALL SELECT 15 UNION ALL SELECT 16 UNION ALL SELECT 17 UNION ALL " +
+                        "SELECT 18 UNION ALL SELECT 19 UNION ALL SELECT 20 UNION ALL SELECT 21 UNION ALL SELECT 22 UNION ALL SELECT 23 UNION ALL " +
+                        "SELECT 24 UNION ALL SELECT 25 UNION ALL SELECT 26 UNION ALL SELECT 27 UNION ALL SELECT 28 UNION ALL SELECT 29 UNION ALL " +
+                        "SELECT 30";
+
+    // Take a worker's archived summaries (id <= upToId) out of the daily buckets, before the
+    // summaries are deleted. Present, absent and half-day counts come back per day from the
+    // masks; overtime, pay and other statuses only exist as month totals, so they come off
+    // the month's first day (monthly and overall totals stay exact).
+    @Modifying
+    @Query(value = "INSERT INTO attendance_daily_rollup " +
+                   "(rollup_date, project_id, present_count, absent_count, other_count, overtime_hours, total_pay) " +
+                   "SELECT DATE_ADD(STR_TO_DATE(CONCAT(s.period_key, '01'), '%Y%m%d'), INTERVAL d.n DAY), s.project_id, " +
+                   "-SUM((s.present_mask >> d.n) & 1), " +
+                   "-SUM((s.absent_mask >> d.n) & 1), " +
+                   "-SUM(((s.half_day_mask >> d.n) & 1) + " +
+                   "CASE WHEN d.n = 0 THEN s.other_days - BIT_COUNT(s.half_day_mask) ELSE 0 END), " +
+                   "-SUM(CASE WHEN d.n = 0 THEN s.overtime_hours ELSE 0 END), " +
+                   "-SUM(CASE WHEN d.n = 0 THEN s.total_pay ELSE 0 END) " +
+                   "FROM attendance_monthly_summary s JOIN (" + MONTH_DAYS + ") d " +
+                   "ON d.n = 0 OR ((s.present_mask | s.absent_mask | s.half_day_mask) >> d.n) & 1 = 1 " +
+                   "WHERE s.worker_id = :workerId AND s.id <= :upToId " +
+                   "GROUP BY 1, s.project_id " +
+                   "ON DUPLICATE KEY UPDATE present_count = present_count + VALUES(present_count), " +
+                   "absent_count = absent_count + VALUES(absent_count), " +
+                   "other_count = other_count + VALUES(other_count), " +
+                   "overtime_hours = overtime_hours + VALUES(overtime_hours), " +
+                   "total_pay = total_pay + VALUES(total_pay)",
+           nativeQuery = true)
+    int subtractWorkerSummaries(Long workerId, Long upToId);
+
+    // Move a project's archived days (before the hot window) into the no-project bucket,
+    // alongside its summaries; those days hold nothing but archived attendance
+    @Modifying
+    @Query(value = "INSERT INTO attendance_daily_rollup " +
+                   "(rollup_date, project_id, present_count, absent_count, other_count, overtime_hours, total_pay) " +
+                   "SELECT r.rollup_date, 0, r.present_count, r.absent_count, r.other_count, r.overtime_hours, r.total_pay " +
+                   "FROM attendance_daily_rollup r WHERE r.project_id = :projectId AND r.rollup_date < :before " +
+                   "ON DUPLICATE KEY UPDATE present_count = present_count + VALUES(present_count), " +
+                   "absent_count = absent_count + VALUES(absent_count), " +
+                   "other_count = other_count + VALUES(other_count), " +
+                   "overtime_hours = overtime_hours + VALUES(overtime_hours), " +
+                   "total_pay = total_pay + VALUES(total_pay)",
+           nativeQuery = true)
+    int addArchivedProjectDaysUnassigned(Long projectId, LocalDate before);
+
+    @Modifying
+    @Query(value = "DELETE FROM attendance_daily_rollup WHERE project_id = :projectId AND rollup_date < :before",
+           nativeQuery = true)
+    int deleteArchivedProjectDays(Long projectId, LocalDate before);
+
+    // ================= REBUILD =================
+
+    @Modifying
+    @Query(value = "DELETE FROM attendance_daily_rollup", nativeQuery = true)
+    void deleteAllRows();
+
+    // Rebuild after archival: days before the hot window have no attendance rows left
+    @Modifying
+    @Query(value = "DELETE FROM attendance_daily_rollup WHERE rollup_date >= :from", nativeQuery = true)
+    void deleteRowsFrom(LocalDate from);
+
+    @Modifying
+    @Query(value = "INSERT INTO attendance_daily_rollup " +
+                   "(rollup_date, project_id, present_count, absent_count, other_count, overtime_hours, total_pay) " +
+                   "SELECT a.date, COALESCE(a.project_id, 0), " +
+                   "SUM(CASE WHEN LOWER(a.status) = 'present' THEN 1 ELSE 0 END), " +
+                   "SUM(CASE WHEN LOWER(a.status) = 'absent' THEN 1 ELSE 0 END), " +
+                   "SUM(CASE WHEN a.status IS NULL OR LOWER(a.status) NOT IN ('present', 'absent') THEN 1 ELSE 0 END), " +
+                   "COALESCE(SUM(a.overtime_hours), 0), COALESCE(SUM(a.total_pay), 0) " +
+                   "FROM attendance a WHERE a.date IS NOT NULL " +
+                   "GROUP BY a.date, COALESCE(a.project_id, 0)",
+           nativeQuery = true)
+    int insertFromAttendance();
+
+    // ================= DASHBOARD READS =================
+
+    @Query("SELECT COALESCE(SUM(r.presentCount + r.absentCount + r.otherCount), 0), " +
+           "COALESCE(SUM(r.overtimeHours), 0) FROM AttendanceDailyRollup r")
+    List<Object[]> totals();
+
+    @Query("SELECT SUM(r.presentCount + r.absentCount + r.otherCount) * 1.0 / COUNT(DISTINCT r.date) " +
+           "FROM AttendanceDailyRollup r WHERE r.presentCount + r.absentCount + r.otherCount > 0")
+    Double averageRecordsPerDay();
+
+    // Records per day in the range, one row per day that has attendance
+    @Query("SELECT r.date, SUM(r.presentCount + r.absentCount + r.otherCount) " +
+           "FROM AttendanceDailyRollup r WHERE r.date BETWEEN :start AND :end " +
+           "GROUP BY r.date HAVING SUM(r.presentCount + r.absentCount + r.otherCount) > 0")
+    List<Object[]> recordsPerDay(LocalDate start, LocalDate end);
+}
@@ -0,0 +1,13 @@
+package com.construction.site_management.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.construction.site_management.model.AttendanceImportError;
+
+public interface AttendanceImportErrorRepository extends JpaRepository<AttendanceImportError, Long> {
+
+    List<AttendanceImportError> findByJobIdOrderByRowNumber(Long jobId, Limit limit);
+}
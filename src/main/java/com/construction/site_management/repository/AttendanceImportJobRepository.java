@@ -0,0 +1,15 @@
+package com.construction.site_management.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.construction.site_management.model.AttendanceImportJob;
+
+public interface AttendanceImportJobRepository extends JpaRepository<AttendanceImportJob, Long> {
+
+    List<AttendanceImportJob> findByStatusIn(Collection<String> statuses);
+
+    List<AttendanceImportJob> findAllByOrderByIdDesc();
+}
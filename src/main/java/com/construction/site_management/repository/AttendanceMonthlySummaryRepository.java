@@ -0,0 +1,92 @@
+package com.construction.site_management.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.construction.site_management.model.AttendanceMonthlySummary;
+
+public interface AttendanceMonthlySummaryRepository extends JpaRepository<AttendanceMonthlySummary, Long> {
+
+    // Compact one month of attendance into per-worker, per-project summaries
+    @Modifying
+    @Query(value = "INSERT INTO attendance_monthly_summary (worker_id, project_id, period_key, present_days, " +
+                   "absent_days, other_days, overtime_hours, total_pay, present_mask, absent_mask, half_day_mask) " +
+                   "SELECT a.worker_id, COALESCE(a.project_id, 0), :periodKey, " +
+                   "SUM(CASE WHEN LOWER(a.status) = 'present' THEN 1 ELSE 0 END), " +
+                   "SUM(CASE WHEN LOWER(a.status) = 'absent' THEN 1 ELSE 0 END), " +
+                   "SUM(CASE WHEN a.status IS NULL OR LOWER(a.status) NOT IN ('present', 'absent') THEN 1 ELSE 0 END), " +
+                   "COALESCE(SUM(a.overtime_hours), 0), COALESCE(SUM(a.total_pay), 0), " +
+                   "BIT_OR(CASE WHEN LOWER(a.status) = 'present' THEN 1 << (DAY(a.date) - 1) ELSE 0 END), " +
+                   "BIT_OR(CASE WHEN LOWER(a.status) = 'absent' THEN 1 << (DAY(a.date) - 1) ELSE 0 END), " +
+                   "BIT_OR(CASE WHEN LOWER(a.status) LIKE '%half%' THEN 1 << (DAY(a.date) - 1) ELSE 0 END) " +
+                   "FROM attendance a WHERE a.date BETWEEN :start AND :end " +
+                   "GROUP BY a.worker_id, COALESCE(a.project_id, 0) " +
+                   "ON DUPLICATE KEY UPDATE present_days = present_days + VALUES(present_days), " +
+                   "absent_days = absent_days + VALUES(absent_days), " +
+                   "other_days = other_days + VALUES(other_days), " +
+                   "overtime_hours = overtime_hours + VALUES(overtime_hours), " +
+                   "total_pay = total_pay + VALUES(total_pay), " +
+                   "present_mask = present_mask | VALUES(present_mask), " +
+                   "absent_mask = absent_mask | VALUES(absent_mask), " +
+                   "half_day_mask = half_day_mask | VALUES(half_day_mask)",
+           nativeQuery = true)
+    int archiveMonth(int periodKey, LocalDate start, LocalDate end);
+
+    // ================= DELETION =================
+
+    @Modifying
+    @Query(value = "DELETE FROM attendance_monthly_summary WHERE worker_id = :workerId AND id <= :upToId",
+           nativeQuery = true)
+    int deleteWorkerRows(Long workerId, Long upToId);
+
+    // Fold a project's summaries (id <= upToId) into the no-project bucket of each worker/month
+    @Modifying
+    @Query(value = "INSERT INTO attendance_monthly_summary (worker_id, project_id, period_key, present_days, " +
+                   "absent_days, other_days, overtime_hours, total_pay, present_mask, absent_mask, half_day_mask) " +
+                   "SELECT s.worker_id, 0, s.period_key, SUM(s.present_days), SUM(s.absent_days), SUM(s.other_days), " +
+                   "SUM(s.overtime_hours), SUM(s.total_pay), BIT_OR(s.present_mask), BIT_OR(s.absent_mask), " +
+                   "BIT_OR(s.half_day_mask) " +
+                   "FROM attendance_monthly_summary s WHERE s.project_id = :projectId AND s.id <= :upToId " +
+                   "GROUP BY s.worker_id, s.period_key " +
+                   "ON DUPLICATE KEY UPDATE present_days = present_days + VALUES(present_days), " +
+                   "absent_days = absent_days + VALUES(absent_days), " +
+                   "other_days = other_days + VALUES(other_days), " +
+                   "overtime_hours = overtime_hours + VALUES(overtime_hours), " +
+                   "total_pay = total_pay + VALUES(total_pay), " +
+                   "present_mask = present_mask | VALUES(present_mask), " +
+                   "absent_mask = absent_mask | VALUES(absent_mask), " +
+                   "half_day_mask = half_day_mask | VALUES(half_day_mask)",
+           nativeQuery = true)
+    int addProjectRowsUnassigned(Long projectId, Long upToId);
+
+    @Modifying
+    @Query(value = "DELETE FROM attendance_monthly_summary WHERE project_id = :projectId AND id <= :upToId",
+           nativeQuery = true)
+    int deleteProjectRows(Long projectId, Long upToId);
+
+    // ================= READS =================
+
+    @Query("SELECT MAX(s.periodKey) FROM AttendanceMonthlySummary s")
+    Integer maxPeriodKey();
+
+    List<AttendanceMonthlySummary> findByWorkerIdAndPeriodKeyBetweenOrderByPeriodKey(Long workerId, int fromKey, int toKey);
+
+    List<AttendanceMonthlySummary> findByProjectIdAndPeriodKeyBetweenOrderByPeriodKey(Long projectId, int fromKey, int toKey);
+
+    // Payroll over archived months: [presentDays, overtimeHours, totalPay]
+    @Query("SELECT COALESCE(SUM(s.presentDays), 0), COALESCE(SUM(s.overtimeHours), 0), COALESCE(SUM(s.totalPay), 0) " +
+           "FROM AttendanceMonthlySummary s WHERE s.workerId = :workerId AND s.periodKey BETWEEN :fromKey AND :toKey")
+    List<Object[]> payrollTotals(Long workerId, int fromKey, int toKey);
+
+    // Same shape as AttendanceRepository.payrollTotalsByWorker, over archived months
+    @Query("SELECT w.id, w.name, pr.id, SUM(s.presentDays), COALESCE(SUM(s.overtimeHours), 0), " +
+           "COALESCE(SUM(s.totalPay), 0) " +
+           "FROM AttendanceMonthlySummary s JOIN Worker w ON w.id = s.workerId LEFT JOIN w.project pr " +
+           "WHERE s.periodKey BETWEEN :fromKey AND :toKey " +
+           "GROUP BY w.id, w.name, pr.id")
+    List<Object[]> payrollTotalsByWorker(int fromKey, int toKey);
+}
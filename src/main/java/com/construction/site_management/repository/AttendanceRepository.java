@@ -1,41 +1,131 @@
 package com.construction.site_management.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 import com.construction.site_management.model.Attendance;
-import com.construction.site_management.model.Worker;
 
+// Attendance JSON carries the row's project and its worker (with the worker's project);
+// entity reads fetch that whole graph in one statement
 public interface AttendanceRepository extends JpaRepository<Attendance, Long> {
 
-    boolean existsByWorkerAndDate(Worker worker, LocalDate date);
+    @Override
+    @EntityGraph(attributePaths = { "project", "worker", "worker.project" })
+    Optional<Attendance> findById(Long id);
 
+    @EntityGraph(attributePaths = { "project", "worker", "worker.project" })
+    Optional<Attendance> findByWorkerIdAndDate(Long workerId, LocalDate date);
+
+    @EntityGraph(attributePaths = { "project", "worker", "worker.project" })
     List<Attendance> findByWorkerId(Long workerId);
 
     void deleteByWorkerId(Long workerId);
-    
 
+    @EntityGraph(attributePaths = { "project", "worker", "worker.project" })
     List<Attendance> findByProjectId(Long projectId);
 
+    @EntityGraph(attributePaths = { "project", "worker", "worker.project" })
     List<Attendance> findByProjectIdAndWorkerId(Long projectId, Long workerId);
 
+    @EntityGraph(attributePaths = { "project", "worker", "worker.project" })
     List<Attendance> findByProjectIdAndDateBetween(Long projectId, LocalDate start, LocalDate end);
 
+    @EntityGraph(attributePaths = { "project", "worker", "worker.project" })
     List<Attendance> findByWorkerIdAndDateBetween(Long workerId, LocalDate start, LocalDate end);
 
-    @Query("SELECT SUM(a.overtimeHours) FROM Attendance a")
-    Double sumOvertimeHours();
+    // Keyset pages over a date range, newest first (idx_attendance_date_id)
+    @Query("SELECT a FROM Attendance a JOIN FETCH a.worker w LEFT JOIN FETCH w.project LEFT JOIN FETCH a.project " +
+           "WHERE a.date BETWEEN :from AND :to ORDER BY a.date DESC, a.id DESC")
+    List<Attendance> findFirstPage(LocalDate from, LocalDate to, Limit limit);
+
+    @Query("SELECT a FROM Attendance a JOIN FETCH a.worker w LEFT JOIN FETCH w.project LEFT JOIN FETCH a.project " +
+           "WHERE a.date BETWEEN :from AND :to " +
+           "AND (a.date < :afterDate OR (a.date = :afterDate AND a.id < :afterId)) " +
+           "ORDER BY a.date DESC, a.id DESC")
+    List<Attendance> findPageAfter(LocalDate from, LocalDate to, LocalDate afterDate, Long afterId, Limit limit);
+
+    // Calendar rows: [workerId, date, status, overtimeHours]
+    @Query("SELECT a.worker.id, a.date, a.status, a.overtimeHours FROM Attendance a " +
+           "WHERE a.worker.id = :workerId AND a.date BETWEEN :start AND :end")
+    List<Object[]> calendarRowsByWorker(Long workerId, LocalDate start, LocalDate end);
+
+    @Query("SELECT a.worker.id, a.date, a.status, a.overtimeHours FROM Attendance a " +
+           "WHERE a.project.id = :projectId AND a.date BETWEEN :start AND :end ORDER BY a.worker.id")
+    List<Object[]> calendarRowsByProject(Long projectId, LocalDate start, LocalDate end);
+
+    // History rows for one worker: [projectId, date, status, overtimeHours, totalPay]
+    @Query("SELECT a.project.id, a.date, a.status, a.overtimeHours, a.totalPay FROM Attendance a " +
+           "WHERE a.worker.id = :workerId AND a.date BETWEEN :start AND :end")
+    List<Object[]> historyRowsByWorker(Long workerId, LocalDate start, LocalDate end);
+
+    // History rows for one project: [workerId, date, status, overtimeHours, totalPay]
+    @Query("SELECT a.worker.id, a.date, a.status, a.overtimeHours, a.totalPay FROM Attendance a " +
+           "WHERE a.project.id = :projectId AND a.date BETWEEN :start AND :end")
+    List<Object[]> historyRowsByProject(Long projectId, LocalDate start, LocalDate end);
+
+    // Ledger statement rows for one worker: [id, date, status, overtimeHours, totalPay]
+    @Query("SELECT a.id, a.date, a.status, a.overtimeHours, a.totalPay FROM Attendance a " +
+           "WHERE a.worker.id = :workerId AND a.date BETWEEN :start AND :end ORDER BY a.date, a.id")
+    List<Object[]> statementRowsByWorker(Long workerId, LocalDate start, LocalDate end);
+
+    @Query("SELECT MIN(a.date) FROM Attendance a")
+    LocalDate findEarliestDate();
+
+    // Archival: rows of a month once its summaries are written
+    @Modifying
+    @Query(value = "DELETE FROM attendance WHERE date BETWEEN :start AND :end", nativeQuery = true)
+    int deleteByDateRange(LocalDate start, LocalDate end);
+
+    // Bulk ingestion duplicate check: [workerId, date] pairs already marked
+    @Query("SELECT a.worker.id, a.date FROM Attendance a " +
+           "WHERE a.worker.id IN :workerIds AND a.date BETWEEN :start AND :end")
+    List<Object[]> findWorkerDates(Collection<Long> workerIds, LocalDate start, LocalDate end);
+
+    // The row a new mark replaces, locked until the transaction ends (a missing row locks
+    // its gap in the unique key): [id, projectId, status, overtimeHours, totalPay]
+    @Query(value = "SELECT id, project_id, status, overtime_hours, total_pay FROM attendance " +
+                   "WHERE worker_id = :workerId AND date = :date FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockMarked(Long workerId, LocalDate date);
+
+    // Same for a batch of marks: [workerId, date, id, projectId, status, overtimeHours, totalPay]
+    @Query(value = "SELECT worker_id, date, id, project_id, status, overtime_hours, total_pay FROM attendance " +
+                   "WHERE worker_id IN :workerIds AND date BETWEEN :start AND :end FOR UPDATE", nativeQuery = true)
+    List<Object[]> lockMarked(Collection<Long> workerIds, LocalDate start, LocalDate end);
+
+    // [workerId, date, changeVersion]: tells a batch which of its rows it actually inserted
+    @Query("SELECT a.worker.id, a.date, a.changeVersion FROM Attendance a " +
+           "WHERE a.worker.id IN :workerIds AND a.date BETWEEN :start AND :end")
+    List<Object[]> findWorkerDateVersions(Collection<Long> workerIds, LocalDate start, LocalDate end);
+
+    // Payroll for one worker: [presentDays, overtimeHours, totalPay] within the period
+    // (served by the (worker_id, date) unique index, independent of how much history exists)
+    @Query("SELECT COALESCE(SUM(CASE WHEN LOWER(a.status) = 'present' THEN 1 ELSE 0 END), 0), " +
+           "COALESCE(SUM(a.overtimeHours), 0), COALESCE(SUM(a.totalPay), 0) " +
+           "FROM Attendance a WHERE a.worker.id = :workerId AND a.date BETWEEN :start AND :end")
+    List<Object[]> payrollTotals(Long workerId, LocalDate start, LocalDate end);
+
+    String PAYROLL_BY_WORKER =
+            "SELECT w.id, w.name, pr.id, SUM(CASE WHEN LOWER(a.status) = 'present' THEN 1 ELSE 0 END), " +
+            "COALESCE(SUM(a.overtimeHours), 0), COALESCE(SUM(a.totalPay), 0) " +
+            "FROM Attendance a JOIN a.worker w LEFT JOIN w.project pr " +
+            "WHERE a.date BETWEEN :start AND :end " +
+            "GROUP BY w.id, w.name, pr.id";
 
-    @Query("SELECT COUNT(a.id) * 1.0 / COUNT(DISTINCT a.date) FROM Attendance a")
-    Double findAverageAttendancePerDay();
+    // Payroll for everyone: [workerId, workerName, projectId, presentDays, overtimeHours, totalPay]
+    // for every worker present at least once in the period
+    @Query(PAYROLL_BY_WORKER + " HAVING SUM(CASE WHEN LOWER(a.status) = 'present' THEN 1 ELSE 0 END) > 0")
+    List<Object[]> payrollTotalsByWorker(LocalDate start, LocalDate end);
 
-    // <-- NEW: weekly attendance between dates
-    @Query("SELECT FUNCTION('DAYNAME', a.date) AS day, COUNT(a.id) * 1.0 / (SELECT COUNT(DISTINCT a2.date) FROM Attendance a2 WHERE a2.date BETWEEN :start AND :end) AS avgAttendance " +
-           "FROM Attendance a " +
-           "WHERE a.date BETWEEN :start AND :end " +
-           "GROUP BY FUNCTION('DAYNAME', a.date)")
-    List<Object[]> findAttendanceBetweenDates(LocalDate start, LocalDate end);
+    // Same, for every worker with attendance in the period, present or not: the part of a
+    // period that is merged with archived months
+    @Query(PAYROLL_BY_WORKER)
+    List<Object[]> payrollTotalsByWorkerWithAttendance(LocalDate start, LocalDate end);
 }
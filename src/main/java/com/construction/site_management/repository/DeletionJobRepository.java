@@ -0,0 +1,12 @@
+package com.construction.site_management.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.construction.site_management.model.DeletionJob;
+
+public interface DeletionJobRepository extends JpaRepository<DeletionJob, Long> {
+
+    List<DeletionJob> findAllByOrderByIdDesc();
+}
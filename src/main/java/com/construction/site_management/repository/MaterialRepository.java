@@ -1,16 +1,40 @@
 package com.construction.site_management.repository;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.construction.site_management.model.Material;
+import com.construction.site_management.payload.MaterialRow;
 
 @Repository
 public interface MaterialRepository extends JpaRepository<Material, Long> {
-    
+
+    // Material JSON carries its project
+    @Override
+    @EntityGraph(attributePaths = "project")
+    List<Material> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = "project")
+    Optional<Material> findById(Long id);
+
+    @EntityGraph(attributePaths = "project")
     List<Material> findByProjectId(Long projectId);
+
+    @EntityGraph(attributePaths = "project")
     List<Material> findByNameContainingIgnoreCase(String name);
+
+    @EntityGraph(attributePaths = "project")
     List<Material> findBySupplierNameIgnoreCase(String supplierName);
+
+    // Material list: flat rows, no entities loaded
+    @Query("SELECT new com.construction.site_management.payload.MaterialRow(m.id, m.name, m.quantity, m.unit, " +
+           "m.costPerUnit, m.supplierName, p.id, p.name) " +
+           "FROM Material m LEFT JOIN m.project p ORDER BY m.id")
+    List<MaterialRow> findAllRows();
 }
@@ -0,0 +1,82 @@
+package com.construction.site_management.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.construction.site_management.model.PaymentMonthlyRollup;
+
+// Buckets are keyed by the payment's own project_id, 0 when it has none
+// (PaymentRollupService.NO_PROJECT), in the incremental and the rebuild paths alike.
+public interface PaymentMonthlyRollupRepository extends JpaRepository<PaymentMonthlyRollup, Long> {
+
+    @Modifying
+    @Query(value = "INSERT INTO payment_monthly_rollup (period_key, type, project_id, total_amount, payment_count) " +
+                   "VALUES (:periodKey, :type, :projectId, :amount, :count) " +
+                   "ON DUPLICATE KEY UPDATE total_amount = total_amount + VALUES(total_amount), " +
+                   "payment_count = payment_count + VALUES(payment_count)",
+           nativeQuery = true)
+    void upsertDelta(int periodKey, String type, Long projectId, double amount, long count);
+
+    // Take a worker's payments (id <= upToId) out of their buckets (bulk delete)
+    @Modifying
+    @Query(value = "INSERT INTO payment_monthly_rollup (period_key, type, project_id, total_amount, payment_count) " +
+                   "SELECT YEAR(p.date) * 100 + MONTH(p.date), p.type, COALESCE(p.project_id, 0), " +
+                   "-SUM(p.amount), -COUNT(*) " +
+                   "FROM payment p " +
+                   "WHERE p.worker_id = :workerId AND p.id <= :upToId AND p.date IS NOT NULL " +
+                   "GROUP BY YEAR(p.date) * 100 + MONTH(p.date), p.type, COALESCE(p.project_id, 0) " +
+                   "ON DUPLICATE KEY UPDATE total_amount = total_amount + VALUES(total_amount), " +
+                   "payment_count = payment_count + VALUES(payment_count)",
+           nativeQuery = true)
+    int subtractWorkerRows(Long workerId, Long upToId);
+
+    // Move a project's payments (id <= upToId) into the no-project bucket,
+    // before their project_id is cleared (project removal)
+    @Modifying
+    @Query(value = "INSERT INTO payment_monthly_rollup (period_key, type, project_id, total_amount, payment_count) " +
+                   "SELECT YEAR(p.date) * 100 + MONTH(p.date), p.type, p.project_id, -SUM(p.amount), -COUNT(*) " +
+                   "FROM payment p WHERE p.project_id = :projectId AND p.id <= :upToId AND p.date IS NOT NULL " +
+                   "GROUP BY YEAR(p.date) * 100 + MONTH(p.date), p.type, p.project_id " +
+                   "ON DUPLICATE KEY UPDATE total_amount = total_amount + VALUES(total_amount), " +
+                   "payment_count = payment_count + VALUES(payment_count)",
+           nativeQuery = true)
+    int subtractProjectRows(Long projectId, Long upToId);
+
+    @Modifying
+    @Query(value = "INSERT INTO payment_monthly_rollup (period_key, type, project_id, total_amount, payment_count) " +
+                   "SELECT YEAR(p.date) * 100 + MONTH(p.date), p.type, 0, SUM(p.amount), COUNT(*) " +
+                   "FROM payment p WHERE p.project_id = :projectId AND p.id <= :upToId AND p.date IS NOT NULL " +
+                   "GROUP BY YEAR(p.date) * 100 + MONTH(p.date), p.type " +
+                   "ON DUPLICATE KEY UPDATE total_amount = total_amount + VALUES(total_amount), " +
+                   "payment_count = payment_count + VALUES(payment_count)",
+           nativeQuery = true)
+    int addProjectRowsUnassigned(Long projectId, Long upToId);
+
+    // ================= REBUILD =================
+
+    @Modifying
+    @Query(value = "DELETE FROM payment_monthly_rollup", nativeQuery = true)
+    void deleteAllRows();
+
+    @Modifying
+    @Query(value = "INSERT INTO payment_monthly_rollup (period_key, type, project_id, total_amount, payment_count) " +
+                   "SELECT YEAR(p.date) * 100 + MONTH(p.date), p.type, COALESCE(p.project_id, 0), " +
+                   "SUM(p.amount), COUNT(*) " +
+                   "FROM payment p WHERE p.date IS NOT NULL " +
+                   "GROUP BY YEAR(p.date) * 100 + MONTH(p.date), p.type, COALESCE(p.project_id, 0)",
+           nativeQuery = true)
+    int insertFromPayments();
+
+    // ================= READS =================
+
+    @Query("SELECT COALESCE(SUM(r.totalAmount), 0) FROM PaymentMonthlyRollup r WHERE r.type = :type")
+    Double totalByType(String type);
+
+    // [periodKey, type, total] from the given month onwards, all projects combined
+    @Query("SELECT r.periodKey, r.type, SUM(r.totalAmount) FROM PaymentMonthlyRollup r " +
+           "WHERE r.periodKey >= :fromPeriod GROUP BY r.periodKey, r.type")
+    List<Object[]> monthlyTotalsSince(int fromPeriod);
+}
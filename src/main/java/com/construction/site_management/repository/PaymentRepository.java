@@ -1,48 +1,77 @@
 package com.construction.site_management.repository;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
 import com.construction.site_management.model.Payment;
-import com.construction.site_management.model.Worker;
+import com.construction.site_management.payload.PaymentRow;
 
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
 
-    List<Payment> findByWorkerId(Long workerId);
-    List<Payment> findByWorker(Worker worker);
+    // Deletes report the payee's name to the top-paid tracker after commit
+    @Override
+    @EntityGraph(attributePaths = "worker")
+    Optional<Payment> findById(Long id);
 
-    // ================= FINANCE SUMMARY =================
+    List<Payment> findByWorkerIdAndDateBetweenOrderByDateAscIdAsc(Long workerId, LocalDate start, LocalDate end);
+
+    // Ledger: [salaryPaid, advancesPaid] of one worker within the period
+    @Query("SELECT COALESCE(SUM(CASE WHEN LOWER(p.type) = 'salary' THEN p.amount ELSE 0 END), 0), " +
+           "COALESCE(SUM(CASE WHEN LOWER(p.type) = 'salary' THEN 0 ELSE p.amount END), 0) " +
+           "FROM Payment p WHERE p.worker.id = :workerId AND p.date BETWEEN :start AND :end")
+    List<Object[]> ledgerTotalsByWorker(Long workerId, LocalDate start, LocalDate end);
+
+    // ================= LISTING =================
+
+    // One keyset page ordered by (date desc, id desc); null filters are ignored and
+    // afterId = null starts from the newest payment
+    @Query("SELECT new com.construction.site_management.payload.PaymentRow(p.id, w.id, w.name, p.type, p.amount, " +
+           "p.date, p.note) FROM Payment p JOIN p.worker w " +
+           "WHERE p.date BETWEEN :from AND :to " +
+           "AND (:type IS NULL OR LOWER(p.type) = LOWER(:type)) " +
+           "AND (:workerId IS NULL OR w.id = :workerId) " +
+           "AND (:projectId IS NULL OR p.projectId = :projectId) " +
+           "AND (:afterId IS NULL OR p.date < :afterDate OR (p.date = :afterDate AND p.id < :afterId)) " +
+           "ORDER BY p.date DESC, p.id DESC")
+    List<PaymentRow> findPage(LocalDate from, LocalDate to, String type, Long workerId, Long projectId,
+            LocalDate afterDate, Long afterId, Limit limit);
 
-    // Total Salary Paid
-    @Query("SELECT COALESCE(SUM(p.amount), 0) FROM Payment p WHERE p.type = 'Salary'")
-    Double totalSalaryPaid();
+    @Query("SELECT p.worker.id FROM Payment p WHERE p.payrollRunId = :runId")
+    List<Long> findWorkerIdsByPayrollRunId(Long runId);
 
-    // Total Advance Given
-    @Query("SELECT COALESCE(SUM(p.amount), 0) FROM Payment p WHERE p.type = 'Advance'")
-    Double totalAdvanceGiven();
+    // Workers with a generated salary overlapping the period, whichever path paid it
+    @Query("SELECT DISTINCT p.worker.id FROM Payment p WHERE LOWER(p.type) = 'salary' " +
+           "AND p.periodStart <= :end AND p.periodEnd >= :start")
+    List<Long> findWorkerIdsWithSalaryFor(LocalDate start, LocalDate end);
 
-    // Monthly Salary (last 6 months)
-    @Query("SELECT FUNCTION('MONTH', p.date), COALESCE(SUM(p.amount), 0) " +
-           "FROM Payment p WHERE p.type='Salary' AND p.date >= :start " +
-           "GROUP BY FUNCTION('MONTH', p.date)")
-    List<Object[]> monthlySalary(LocalDate start);
+    @Query("SELECT COUNT(p.id) > 0 FROM Payment p WHERE p.worker.id = :workerId AND LOWER(p.type) = 'salary' " +
+           "AND p.periodStart <= :end AND p.periodEnd >= :start")
+    boolean existsSalaryFor(Long workerId, LocalDate start, LocalDate end);
 
-    // Monthly Advance (last 6 months)
-    @Query("SELECT FUNCTION('MONTH', p.date), COALESCE(SUM(p.amount), 0) " +
-           "FROM Payment p WHERE p.type='Advance' AND p.date >= :start " +
-           "GROUP BY FUNCTION('MONTH', p.date)")
-    List<Object[]> monthlyAdvance(LocalDate start);
+    @Query("SELECT COUNT(p.id), COALESCE(SUM(p.amount), 0) FROM Payment p WHERE p.payrollRunId = :runId")
+    List<Object[]> totalsByPayrollRunId(Long runId);
 
-    // Top 5 highest paid workers
+    // ================= FINANCE SUMMARY =================
+
+    // Totals and monthly figures are served from payment_monthly_rollup
+
+    // Salary totals per worker and project (seeds the top-paid workers tracker)
     @Query("""
-           SELECT p.worker.id, p.worker.name, SUM(p.amount)
+           SELECT p.worker.id, p.worker.name, p.projectId, SUM(p.amount)
            FROM Payment p
            WHERE p.type='Salary'
-           GROUP BY p.worker.id, p.worker.name
-           ORDER BY SUM(p.amount) DESC
+           GROUP BY p.worker.id, p.worker.name, p.projectId
            """)
-    List<Object[]> topPaidWorkers();
+    List<Object[]> salaryTotalsByWorkerAndProject();
+
+    // which of these payment versions exist (the leaderboard seed reconciles by version)
+    @Query("SELECT p.changeVersion FROM Payment p WHERE p.changeVersion IN :versions")
+    List<Long> findChangeVersionsIn(Collection<Long> versions);
 }
@@ -0,0 +1,16 @@
+package com.construction.site_management.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import com.construction.site_management.model.PayrollRun;
+
+public interface PayrollRunRepository extends JpaRepository<PayrollRun, Long> {
+
+    Optional<PayrollRun> findByPeriodStartAndPeriodEnd(LocalDate periodStart, LocalDate periodEnd);
+
+    List<PayrollRun> findAllByOrderByPeriodStartDesc();
+}
@@ -1,12 +1,24 @@
 package com.construction.site_management.repository;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import com.construction.site_management.model.Project;
+import com.construction.site_management.payload.ProjectRow;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
     boolean existsByName(String name);
 
     long countByStatus(String status);
+
+    @Query("SELECT p.status, COUNT(p) FROM Project p GROUP BY p.status")
+    List<Object[]> countGroupByStatus();
+
+    // Project list: flat rows, nothing enters the persistence context
+    @Query("SELECT new com.construction.site_management.payload.ProjectRow(p.id, p.name, p.location, p.startDate, " +
+           "p.endDate, p.managerName, p.status, p.description) FROM Project p ORDER BY p.id")
+    List<ProjectRow> findAllRows();
 }
@@ -1,18 +1,41 @@
 package com.construction.site_management.repository;
 
 import java.util.List;
+import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import com.construction.site_management.model.Project;
 import com.construction.site_management.model.Task;
-import com.construction.site_management.model.Worker;
+import com.construction.site_management.payload.TaskRow;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
-    
+
+    // Task JSON carries its project and its worker (with the worker's project)
+    @Override
+    @EntityGraph(attributePaths = { "project", "worker", "worker.project" })
+    List<Task> findAll();
+
+    @Override
+    @EntityGraph(attributePaths = { "project", "worker", "worker.project" })
+    Optional<Task> findById(Long id);
+
+    @EntityGraph(attributePaths = { "project", "worker", "worker.project" })
     List<Task> findByProject(Project project);
-    List<Task> findByWorker(Worker worker);
+
+    @EntityGraph(attributePaths = { "project", "worker", "worker.project" })
+    List<Task> findByWorkerId(Long workerId);
+
+    @EntityGraph(attributePaths = { "project", "worker", "worker.project" })
     List<Task> findByStatus(String status);
+
+    // Task list screen: flat rows, no entities loaded
+    @Query("SELECT new com.construction.site_management.payload.TaskRow(t.id, t.taskName, t.description, t.status, " +
+           "t.deadline, w.id, w.name, p.id, p.name) " +
+           "FROM Task t LEFT JOIN t.worker w LEFT JOIN t.project p ORDER BY t.id")
+    List<TaskRow> findAllRows();
 }
@@ -0,0 +1,55 @@
+package com.construction.site_management.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.construction.site_management.model.WorkerLedger;
+
+public interface WorkerLedgerRepository extends JpaRepository<WorkerLedger, Long> {
+
+    // Atomic add of one worker's deltas; creates the row on first write
+    @Modifying
+    @Query(value = "INSERT INTO worker_ledger (worker_id, earned, salary_paid, advances_paid, updated_at) " +
+                   "VALUES (:workerId, :earned, :salaryPaid, :advancesPaid, NOW()) " +
+                   "ON DUPLICATE KEY UPDATE earned = earned + VALUES(earned), " +
+                   "salary_paid = salary_paid + VALUES(salary_paid), " +
+                   "advances_paid = advances_paid + VALUES(advances_paid), " +
+                   "updated_at = VALUES(updated_at)",
+           nativeQuery = true)
+    void upsertDelta(Long workerId, double earned, double salaryPaid, double advancesPaid);
+
+    // Take a worker's attendance rows (id <= upToId) off the earned total before they are deleted
+    @Modifying
+    @Query(value = "UPDATE worker_ledger SET earned = earned - " +
+                   "(SELECT COALESCE(SUM(a.total_pay), 0) FROM attendance a WHERE a.worker_id = :workerId AND a.id <= :upToId), " +
+                   "updated_at = NOW() WHERE worker_id = :workerId",
+           nativeQuery = true)
+    int subtractWorkerAttendance(Long workerId, Long upToId);
+
+    @Modifying
+    @Query(value = "DELETE FROM worker_ledger WHERE worker_id = :workerId", nativeQuery = true)
+    void deleteWorker(Long workerId);
+
+    // ================= REBUILD =================
+
+    @Modifying
+    @Query(value = "DELETE FROM worker_ledger", nativeQuery = true)
+    void deleteAllRows();
+
+    // Hot attendance, archived monthly summaries and payments of every worker
+    @Modifying
+    @Query(value = "INSERT INTO worker_ledger (worker_id, earned, salary_paid, advances_paid, updated_at) " +
+                   "SELECT w.id, COALESCE(a.pay, 0) + COALESCE(s.pay, 0), COALESCE(p.salary, 0), " +
+                   "COALESCE(p.advances, 0), NOW() FROM worker w " +
+                   "LEFT JOIN (SELECT worker_id, SUM(total_pay) pay FROM attendance GROUP BY worker_id) a " +
+                   "ON a.worker_id = w.id " +
+                   "LEFT JOIN (SELECT worker_id, SUM(total_pay) pay FROM attendance_monthly_summary " +
+                   "GROUP BY worker_id) s ON s.worker_id = w.id " +
+                   "LEFT JOIN (SELECT worker_id, " +
+                   "SUM(CASE WHEN LOWER(type) = 'salary' THEN COALESCE(amount, 0) ELSE 0 END) salary, " +
+                   "SUM(CASE WHEN LOWER(type) = 'salary' THEN 0 ELSE COALESCE(amount, 0) END) advances " +
+                   "FROM payment GROUP BY worker_id) p ON p.worker_id = w.id",
+           nativeQuery = true)
+    int insertFromHistory();
+}
@@ -0,0 +1,54 @@
+package com.construction.site_management.repository;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import com.construction.site_management.model.WorkerLedgerSnapshot;
+
+public interface WorkerLedgerSnapshotRepository extends JpaRepository<WorkerLedgerSnapshot, Long> {
+
+    Optional<WorkerLedgerSnapshot> findFirstByWorkerIdAndAsOfLessThanEqualOrderByAsOfDesc(Long workerId, LocalDate date);
+
+    @Query("SELECT MAX(s.asOf) FROM WorkerLedgerSnapshot s")
+    LocalDate latestAsOf();
+
+    // A write dated `date` belongs to every snapshot taken at or after it
+    @Modifying
+    @Query(value = "UPDATE worker_ledger_snapshot SET earned = earned + :earned, " +
+                   "salary_paid = salary_paid + :salaryPaid, advances_paid = advances_paid + :advancesPaid " +
+                   "WHERE worker_id = :workerId AND as_of >= :date",
+           nativeQuery = true)
+    int shiftFrom(Long workerId, LocalDate date, double earned, double salaryPaid, double advancesPaid);
+
+    @Modifying
+    @Query(value = "UPDATE worker_ledger_snapshot s SET s.earned = s.earned - " +
+                   "(SELECT COALESCE(SUM(a.total_pay), 0) FROM attendance a WHERE a.worker_id = s.worker_id " +
+                   "AND a.id <= :upToId AND a.date <= s.as_of) WHERE s.worker_id = :workerId",
+           nativeQuery = true)
+    int subtractWorkerAttendance(Long workerId, Long upToId);
+
+    @Modifying
+    @Query(value = "DELETE FROM worker_ledger_snapshot WHERE worker_id = :workerId", nativeQuery = true)
+    void deleteWorker(Long workerId);
+
+    // Totals at the end of asOf: current ledger minus everything dated after it.
+    // Only valid while the days after asOf are still in the attendance table.
+    @Modifying
+    @Query(value = "INSERT INTO worker_ledger_snapshot (worker_id, as_of, earned, salary_paid, advances_paid) " +
+                   "SELECT l.worker_id, :asOf, l.earned - COALESCE(a.pay, 0), l.salary_paid - COALESCE(p.salary, 0), " +
+                   "l.advances_paid - COALESCE(p.advances, 0) FROM worker_ledger l " +
+                   "LEFT JOIN (SELECT worker_id, SUM(total_pay) pay FROM attendance WHERE date > :asOf " +
+                   "GROUP BY worker_id) a ON a.worker_id = l.worker_id " +
+                   "LEFT JOIN (SELECT worker_id, " +
+                   "SUM(CASE WHEN LOWER(type) = 'salary' THEN COALESCE(amount, 0) ELSE 0 END) salary, " +
+                   "SUM(CASE WHEN LOWER(type) = 'salary' THEN 0 ELSE COALESCE(amount, 0) END) advances " +
+                   "FROM payment WHERE date > :asOf GROUP BY worker_id) p ON p.worker_id = l.worker_id " +
+                   "ON DUPLICATE KEY UPDATE earned = VALUES(earned), salary_paid = VALUES(salary_paid), " +
+                   "advances_paid = VALUES(advances_paid)",
+           nativeQuery = true)
+    int snapshotAt(LocalDate asOf);
+}
@@ -1,13 +1,49 @@
 package com.construction.site_management.repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import com.construction.site_management.model.Worker;
+import com.construction.site_management.payload.WorkerRow;
 
+// Worker JSON includes the assigned project, so reads fetch it in the same statement
 public interface WorkerRepository extends JpaRepository<Worker, Long> {
+
+     @Override
+     @EntityGraph(attributePaths = "project")
+     List<Worker> findAll();
+
+     @Override
+     @EntityGraph(attributePaths = "project")
+     Optional<Worker> findById(Long id);
+
+     @EntityGraph(attributePaths = "project")
      List<Worker> findByProjectId(Long projectId);
+
+     @EntityGraph(attributePaths = "project")
      Optional<Worker> findByPhone(String phone);
+
+     // Reference cache batch loads
+     @EntityGraph(attributePaths = "project")
+     List<Worker> findByIdIn(Collection<Long> ids);
+
+     // Worker list screen: flat rows, no entities loaded
+     @Query("SELECT new com.construction.site_management.payload.WorkerRow(w.id, w.name, w.phone, w.ratePerDay, " +
+            "w.address, w.role, w.policeVerified, w.joinedDate, w.aadharNumber, p.id, p.name) " +
+            "FROM Worker w LEFT JOIN w.project p ORDER BY w.id")
+     List<WorkerRow> findAllRows();
+
+     @Query("SELECT new com.construction.site_management.payload.WorkerRow(w.id, w.name, w.phone, w.ratePerDay, " +
+            "w.address, w.role, w.policeVerified, w.joinedDate, w.aadharNumber, p.id, p.name) " +
+            "FROM Worker w LEFT JOIN w.project p WHERE w.id IN :ids")
+     List<WorkerRow> findRowsByIdIn(Collection<Long> ids);
+
+     // Search index rows: [id, name, phone, aadharNumber]
+     @Query("SELECT w.id, w.name, w.phone, w.aadharNumber FROM Worker w")
+     List<Object[]> searchRows();
 }
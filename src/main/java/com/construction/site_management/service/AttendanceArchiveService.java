@@ -0,0 +1,287 @@
+package com.construction.site_management.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.construction.site_management.model.AttendanceMonthlySummary;
+import com.construction.site_management.repository.AttendanceMonthlySummaryRepository;
+import com.construction.site_management.repository.AttendanceRepository;
+
+import jakarta.annotation.PostConstruct;
+
+// Keeps only the last attendance.hot-months months in the attendance table.
+// Older months are compacted into attendance_monthly_summary (one row per worker,
+// project and month, with day bitmasks) and their attendance rows removed, one
+// transaction per month. Readers go through this service to see both:
+//  - payroll sums hot rows and the summaries of whole archived months
+//  - history returns per-month summaries, built on the fly for hot months
+// Archived months are read-only; dashboards keep reading the daily rollups.
+@Service
+public class AttendanceArchiveService {
+
+    private final AttendanceMonthlySummaryRepository summaryRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int hotMonths;
+    private final boolean enabled;
+
+    // Lists and exports only read attendance rows; when a range reaches into archived
+    // months they name the first hot day in this header (the history endpoints serve the rest)
+    public static final String ARCHIVED_BEFORE_HEADER = "X-Archived-Before";
+
+    // first day still held in the attendance table; null while nothing is archived
+    private volatile LocalDate hotStart;
+
+    public AttendanceArchiveService(AttendanceMonthlySummaryRepository summaryRepository,
+            AttendanceRepository attendanceRepository,
+            TransactionTemplate transactionTemplate,
+            @Value("${attendance.hot-months:6}") int hotMonths,
+            @Value("${attendance.archive.enabled:false}") boolean enabled) {
+        this.summaryRepository = summaryRepository;
+        this.attendanceRepository = attendanceRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.hotMonths = Math.max(1, hotMonths);
+        this.enabled = enabled;
+    }
+
+    @PostConstruct
+    void loadBoundary() {
+        Integer key = summaryRepository.maxPeriodKey();
+        hotStart = key != null ? month(key).plusMonths(1).atDay(1) : null;
+    }
+
+    public LocalDate getHotStart() {
+        return hotStart;
+    }
+
+    public boolean isArchived(LocalDate date) {
+        LocalDate start = hotStart;
+        return date != null && start != null && date.isBefore(start);
+    }
+
+    public boolean isArchived(YearMonth month) {
+        return isArchived(month.atDay(1));
+    }
+
+    // First hot day if a range starting at from (null = open) reaches archived months, else null
+    public LocalDate archivedBefore(LocalDate from) {
+        LocalDate start = hotStart;
+        return start != null && (from == null || from.isBefore(start)) ? start : null;
+    }
+
+    public String archivedMessage(LocalDate date) {
+        return "Attendance for " + date + " is archived; months before " + hotStart + " are read-only";
+    }
+
+    // ================= ARCHIVAL =================
+
+    @Scheduled(cron = "${attendance.archive.cron:0 30 2 1 * *}")
+    public void scheduledArchive() {
+        if (enabled) {
+            archive();
+        }
+    }
+
+    // Compact every month older than the hot window; returns what was moved
+    public synchronized Map<String, Object> archive() {
+        YearMonth firstHot = YearMonth.now().minusMonths(hotMonths - 1);
+        LocalDate boundary = firstHot.atDay(1);
+        if (hotStart == null || hotStart.isBefore(boundary)) {
+            hotStart = boundary; // refuse new writes to the months being compacted
+        }
+
+        int months = 0;
+        long rows = 0;
+        LocalDate earliest = attendanceRepository.findEarliestDate();
+        if (earliest != null) {
+            for (YearMonth m = YearMonth.from(earliest); m.isBefore(firstHot); m = m.plusMonths(1)) {
+                YearMonth month = m;
+                Integer moved = transactionTemplate.execute(status -> {
+                    summaryRepository.archiveMonth(periodKey(month), month.atDay(1), month.atEndOfMonth());
+                    return attendanceRepository.deleteByDateRange(month.atDay(1), month.atEndOfMonth());
+                });
+                if (moved != null && moved > 0) {
+                    months++;
+                    rows += moved;
+                }
+            }
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("archivedMonths", months);
+        result.put("archivedRows", rows);
+        result.put("hotStart", hotStart);
+        return result;
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("hotMonths", hotMonths);
+        status.put("hotStart", hotStart);
+        status.put("summaryRows", summaryRepository.count());
+        return status;
+    }
+
+    // ================= PAYROLL =================
+
+    // [presentDays, overtimeHours, totalPay] for one worker over the period
+    public Object[] payrollTotals(Long workerId, LocalDate from, LocalDate to) {
+        Object[] hot = attendanceRepository.payrollTotals(workerId, from, to).get(0);
+        int[] keys = archivedKeys(from, to);
+        if (keys == null) return hot;
+        Object[] archived = summaryRepository.payrollTotals(workerId, keys[0], keys[1]).get(0);
+        return new Object[] {
+                ((Number) hot[0]).longValue() + ((Number) archived[0]).longValue(),
+                ((Number) hot[1]).doubleValue() + ((Number) archived[1]).doubleValue(),
+                ((Number) hot[2]).doubleValue() + ((Number) archived[2]).doubleValue() };
+    }
+
+    // [workerId, workerName, projectId, presentDays, overtimeHours, totalPay] for every
+    // worker present at least once in the period
+    public List<Object[]> payrollTotalsByWorker(LocalDate from, LocalDate to) {
+        int[] keys = archivedKeys(from, to);
+        if (keys == null) return attendanceRepository.payrollTotalsByWorker(from, to);
+        // "present at least once" applies to the merged period, so the hot part keeps workers
+        // present only in archived months (their hot overtime and pay still count)
+        List<Object[]> hot = attendanceRepository.payrollTotalsByWorkerWithAttendance(from, to);
+
+        Map<Long, Object[]> byWorker = new LinkedHashMap<>();
+        for (Object[] row : summaryRepository.payrollTotalsByWorker(keys[0], keys[1])) {
+            byWorker.put((Long) row[0], row.clone());
+        }
+        for (Object[] row : hot) {
+            Object[] merged = byWorker.get((Long) row[0]);
+            if (merged == null) {
+                byWorker.put((Long) row[0], row);
+                continue;
+            }
+            merged[3] = ((Number) merged[3]).longValue() + ((Number) row[3]).longValue();
+            merged[4] = ((Number) merged[4]).doubleValue() + ((Number) row[4]).doubleValue();
+            merged[5] = ((Number) merged[5]).doubleValue() + ((Number) row[5]).doubleValue();
+        }
+        List<Object[]> totals = new ArrayList<>();
+        for (Object[] row : byWorker.values()) {
+            if (row[3] != null && ((Number) row[3]).longValue() > 0) totals.add(row);
+        }
+        return totals;
+    }
+
+    // Period keys of the archived months inside [from, to], or null when none are archived.
+    // Summaries hold whole months, so the period may not start or end inside one.
+    private int[] archivedKeys(LocalDate from, LocalDate to) {
+        LocalDate start = hotStart;
+        if (start == null || !from.isBefore(start)) return null;
+        LocalDate archivedEnd = to.isBefore(start) ? to : start.minusDays(1);
+        if (from.getDayOfMonth() != 1 || !archivedEnd.equals(YearMonth.from(archivedEnd).atEndOfMonth())) {
+            throw new RuntimeException("Pay period " + from + " to " + to + " splits an archived month; "
+                    + "periods before " + start + " must cover whole months");
+        }
+        return new int[] { periodKey(YearMonth.from(from)), periodKey(YearMonth.from(archivedEnd)) };
+    }
+
+    // ================= HISTORY =================
+
+    // Per-month, per-project summaries of one worker between two months (inclusive)
+    public List<AttendanceMonthlySummary> workerHistory(Long workerId, YearMonth from, YearMonth to) {
+        checkRange(from, to);
+        Map<List<Long>, AttendanceMonthlySummary> months = new TreeMap<>(HISTORY_ORDER);
+        for (AttendanceMonthlySummary s : summaryRepository.findByWorkerIdAndPeriodKeyBetweenOrderByPeriodKey(
+                workerId, periodKey(from), periodKey(to))) {
+            months.put(List.of((long) s.getPeriodKey(), s.getProjectId()), s);
+        }
+        for (Object[] row : attendanceRepository.historyRowsByWorker(workerId, from.atDay(1), to.atEndOfMonth())) {
+            Long projectId = row[0] != null ? (Long) row[0] : AttendanceRollupService.NO_PROJECT;
+            add(months, projectId, workerId, projectId, row);
+        }
+        return new ArrayList<>(months.values());
+    }
+
+    // Per-month, per-worker summaries of one project between two months (inclusive)
+    public List<AttendanceMonthlySummary> projectHistory(Long projectId, YearMonth from, YearMonth to) {
+        checkRange(from, to);
+        Map<List<Long>, AttendanceMonthlySummary> months = new TreeMap<>(HISTORY_ORDER);
+        for (AttendanceMonthlySummary s : summaryRepository.findByProjectIdAndPeriodKeyBetweenOrderByPeriodKey(
+                projectId, periodKey(from), periodKey(to))) {
+            months.put(List.of((long) s.getPeriodKey(), s.getWorkerId()), s);
+        }
+        for (Object[] row : attendanceRepository.historyRowsByProject(projectId, from.atDay(1), to.atEndOfMonth())) {
+            add(months, (Long) row[0], (Long) row[0], projectId, row);
+        }
+        return new ArrayList<>(months.values());
+    }
+
+    // Stored summaries only (no hot rows) of one worker, for ledger statements
+    public List<AttendanceMonthlySummary> archivedMonthsOfWorker(Long workerId, YearMonth from, YearMonth to) {
+        LocalDate start = hotStart;
+        if (start == null || !isArchived(from)) return List.of();
+        YearMonth last = YearMonth.from(start.minusDays(1));
+        return summaryRepository.findByWorkerIdAndPeriodKeyBetweenOrderByPeriodKey(
+                workerId, periodKey(from), periodKey(to.isBefore(last) ? to : last));
+    }
+
+    // Summaries of archived months, for calendars
+    public List<AttendanceMonthlySummary> archivedMonthOfWorker(Long workerId, YearMonth month) {
+        if (!isArchived(month)) return List.of();
+        return summaryRepository.findByWorkerIdAndPeriodKeyBetweenOrderByPeriodKey(
+                workerId, periodKey(month), periodKey(month));
+    }
+
+    public List<AttendanceMonthlySummary> archivedMonthOfProject(Long projectId, YearMonth month) {
+        if (!isArchived(month)) return List.of();
+        return summaryRepository.findByProjectIdAndPeriodKeyBetweenOrderByPeriodKey(
+                projectId, periodKey(month), periodKey(month));
+    }
+
+    private static final Comparator<List<Long>> HISTORY_ORDER =
+            Comparator.<List<Long>, Long>comparing(k -> k.get(0)).thenComparing(k -> k.get(1));
+
+    // Fold one hot row [otherId, date, status, overtimeHours, totalPay] into the month
+    // keyed by (period, other), where other is the project or the worker
+    private static void add(Map<List<Long>, AttendanceMonthlySummary> months, Long other, Long workerId,
+            Long projectId, Object[] row) {
+        LocalDate date = (LocalDate) row[1];
+        int key = periodKey(YearMonth.from(date));
+        AttendanceMonthlySummary s = months.computeIfAbsent(List.of((long) key, other), k -> {
+            AttendanceMonthlySummary hot = new AttendanceMonthlySummary();
+            hot.setWorkerId(workerId);
+            hot.setProjectId(projectId);
+            hot.setPeriodKey(key);
+            hot.setArchived(false);
+            return hot;
+        });
+        int bit = 1 << (date.getDayOfMonth() - 1);
+        String status = row[2] != null ? ((String) row[2]).toLowerCase() : null;
+        if ("present".equals(status)) {
+            s.setPresentDays(s.getPresentDays() + 1);
+            s.setPresentMask(s.getPresentMask() | bit);
+        } else if ("absent".equals(status)) {
+            s.setAbsentDays(s.getAbsentDays() + 1);
+            s.setAbsentMask(s.getAbsentMask() | bit);
+        } else {
+            s.setOtherDays(s.getOtherDays() + 1);
+            if (status != null && status.contains("half")) s.setHalfDayMask(s.getHalfDayMask() | bit);
+        }
+        s.setOvertimeHours(s.getOvertimeHours() + ((Number) row[3]).doubleValue());
+        s.setTotalPay(s.getTotalPay() + ((Number) row[4]).doubleValue());
+    }
+
+    private static void checkRange(YearMonth from, YearMonth to) {
+        if (to.isBefore(from)) {
+            throw new RuntimeException("History end " + to + " is before start " + from);
+        }
+    }
+
+    public static int periodKey(YearMonth month) {
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+
+    private static YearMonth month(int periodKey) {
+        return YearMonth.of(periodKey / 100, periodKey % 100);
+    }
+}
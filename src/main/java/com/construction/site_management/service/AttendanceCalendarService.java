@@ -0,0 +1,120 @@
+package com.construction.site_management.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+import org.springframework.stereotype.Service;
+
+import com.construction.site_management.model.AttendanceMonthlySummary;
+import com.construction.site_management.payload.AttendanceCalendar;
+import com.construction.site_management.payload.ProjectAttendanceCalendar;
+import com.construction.site_management.repository.AttendanceRepository;
+
+// Builds month calendars from a narrow [workerId, date, status, overtime] query
+// instead of serializing full Attendance entities. Archived months come from the
+// monthly summaries' masks (without per-day overtime).
+@Service
+public class AttendanceCalendarService {
+
+    // status slots; also the index into the per-worker mask arrays
+    private static final int PRESENT = 0;
+    private static final int ABSENT = 1;
+    private static final int HALF_DAY = 2;
+
+    private final AttendanceRepository attendanceRepository;
+    private final AttendanceArchiveService archiveService;
+
+    public AttendanceCalendarService(AttendanceRepository attendanceRepository,
+            AttendanceArchiveService archiveService) {
+        this.attendanceRepository = attendanceRepository;
+        this.archiveService = archiveService;
+    }
+
+    public AttendanceCalendar workerMonth(Long workerId, YearMonth month) {
+        AttendanceCalendar calendar = new AttendanceCalendar();
+        calendar.setWorkerId(workerId);
+        calendar.setMonth(month.toString());
+        calendar.setDays(month.lengthOfMonth());
+
+        for (AttendanceMonthlySummary s : archiveService.archivedMonthOfWorker(workerId, month)) {
+            calendar.setPresent(calendar.getPresent() | s.getPresentMask());
+            calendar.setAbsent(calendar.getAbsent() | s.getAbsentMask());
+            calendar.setHalfDay(calendar.getHalfDay() | s.getHalfDayMask());
+        }
+
+        double[] overtime = new double[month.lengthOfMonth()];
+        boolean anyOvertime = false;
+        for (Object[] row : attendanceRepository.calendarRowsByWorker(workerId, month.atDay(1), month.atEndOfMonth())) {
+            int day = ((LocalDate) row[1]).getDayOfMonth();
+            int bit = AttendanceCalendar.bit(day);
+            switch (classify((String) row[2])) {
+                case PRESENT -> calendar.setPresent(calendar.getPresent() | bit);
+                case ABSENT -> calendar.setAbsent(calendar.getAbsent() | bit);
+                case HALF_DAY -> calendar.setHalfDay(calendar.getHalfDay() | bit);
+                default -> { }
+            }
+            double hours = ((Number) row[3]).doubleValue();
+            if (hours != 0) {
+                overtime[day - 1] = hours;
+                anyOvertime = true;
+            }
+        }
+        calendar.setOvertime(anyOvertime ? overtime : null);
+        return calendar;
+    }
+
+    public ProjectAttendanceCalendar projectMonth(Long projectId, YearMonth month) {
+        Map<Long, int[]> byWorker = new LinkedHashMap<>(); // [present, absent, halfDay]
+        for (AttendanceMonthlySummary s : archiveService.archivedMonthOfProject(projectId, month)) {
+            int[] mask = byWorker.computeIfAbsent(s.getWorkerId(), id -> new int[3]);
+            mask[PRESENT] |= s.getPresentMask();
+            mask[ABSENT] |= s.getAbsentMask();
+            mask[HALF_DAY] |= s.getHalfDayMask();
+        }
+        for (Object[] row : attendanceRepository.calendarRowsByProject(projectId, month.atDay(1), month.atEndOfMonth())) {
+            int[] mask = byWorker.computeIfAbsent((Long) row[0], id -> new int[3]);
+            int status = classify((String) row[2]);
+            if (status >= 0) {
+                mask[status] |= AttendanceCalendar.bit(((LocalDate) row[1]).getDayOfMonth());
+            }
+        }
+        List<Long> workerIds = new ArrayList<>(byWorker.keySet());
+        List<int[]> masks = new ArrayList<>(byWorker.values());
+
+        ProjectAttendanceCalendar calendar = new ProjectAttendanceCalendar();
+        calendar.setProjectId(projectId);
+        calendar.setMonth(month.toString());
+        calendar.setDays(month.lengthOfMonth());
+        int n = workerIds.size();
+        long[] ids = new long[n];
+        int[] present = new int[n];
+        int[] absent = new int[n];
+        int[] halfDay = new int[n];
+        for (int i = 0; i < n; i++) {
+            ids[i] = workerIds.get(i);
+            present[i] = masks.get(i)[PRESENT];
+            absent[i] = masks.get(i)[ABSENT];
+            halfDay[i] = masks.get(i)[HALF_DAY];
+        }
+        calendar.setWorkerIds(ids);
+        calendar.setPresent(present);
+        calendar.setAbsent(absent);
+        calendar.setHalfDay(halfDay);
+        return calendar;
+    }
+
+    // Worker ids present on a project on the given day
+    public List<Long> presentOn(Long projectId, LocalDate date) {
+        return projectMonth(projectId, YearMonth.from(date)).workersPresentOn(date.getDayOfMonth());
+    }
+
+    private static int classify(String status) {
+        if (status == null) return -1;
+        String s = status.toLowerCase();
+        if (s.contains("half")) return HALF_DAY;
+        if (s.equals("present")) return PRESENT;
+        if (s.equals("absent")) return ABSENT;
+        return -1;
+    }
+}
@@ -0,0 +1,320 @@
+package com.construction.site_management.service;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import com.construction.site_management.model.Attendance;
+import com.construction.site_management.model.AttendanceImportError;
+import com.construction.site_management.model.AttendanceImportJob;
+import com.construction.site_management.model.Project;
+import com.construction.site_management.model.Worker;
+import com.construction.site_management.payload.BulkAttendanceResult;
+import com.construction.site_management.repository.AttendanceImportErrorRepository;
+import com.construction.site_management.repository.AttendanceImportJobRepository;
+
+import jakarta.annotation.PreDestroy;
+
+// Imports historical attendance from CSV (columns: workerId, date, status, overtimeHours, projectId).
+//  - the upload is stored first, then read line by line in the background
+//  - every chunk is validated and inserted by AttendanceIngestionService and
+//    committed together with its rejected rows and the job's progress
+//  - a failed or interrupted job resumes after its last committed chunk
+@Service
+public class AttendanceImportService {
+
+    public static final String PENDING = "PENDING";
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    private final AttendanceImportJobRepository jobRepository;
+    private final AttendanceImportErrorRepository errorRepository;
+    private final AttendanceIngestionService ingestionService;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Path storageDir;
+    private final int defaultChunkSize;
+    private final ExecutorService importExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "attendance-import");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public AttendanceImportService(AttendanceImportJobRepository jobRepository,
+            AttendanceImportErrorRepository errorRepository,
+            AttendanceIngestionService ingestionService,
+            TransactionTemplate transactionTemplate,
+            @Value("${attendance-import.storage-dir:${java.io.tmpdir}/attendance-imports}") String storageDir,
+            @Value("${attendance-import.chunk-size:1000}") int defaultChunkSize) {
+        this.jobRepository = jobRepository;
+        this.errorRepository = errorRepository;
+        this.ingestionService = ingestionService;
+        this.transactionTemplate = transactionTemplate;
+        this.storageDir = Paths.get(storageDir);
+        this.defaultChunkSize = defaultChunkSize;
+    }
+
+    // Jobs cut short by a shutdown pick up where they stopped
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeUnfinished() {
+        for (AttendanceImportJob job : jobRepository.findByStatusIn(List.of(PENDING, RUNNING))) {
+            importExecutor.execute(() -> process(job.getId()));
+        }
+    }
+
+    public AttendanceImportJob submit(MultipartFile file, Integer chunkSize) {
+        if (file == null || file.isEmpty()) {
+            throw new RuntimeException("CSV file is required");
+        }
+        AttendanceImportJob job = new AttendanceImportJob();
+        job.setFileName(file.getOriginalFilename());
+        job.setStatus(PENDING);
+        job.setChunkSize(chunkSize != null && chunkSize > 0 ? chunkSize : defaultChunkSize);
+        job.setCreatedAt(LocalDateTime.now());
+        job = jobRepository.save(job);
+
+        try {
+            Files.createDirectories(storageDir);
+            Path target = storageDir.resolve("attendance-import-" + job.getId() + ".csv");
+            file.transferTo(target);
+            job.setStoredPath(target.toString());
+        } catch (IOException e) {
+            job.setStatus(FAILED);
+            job.setMessage("Could not store upload: " + e.getMessage());
+            jobRepository.save(job);
+            throw new RuntimeException(job.getMessage());
+        }
+        job = jobRepository.save(job);
+
+        Long jobId = job.getId();
+        importExecutor.execute(() -> process(jobId));
+        return job;
+    }
+
+    // Run a failed job again from its last committed chunk
+    public AttendanceImportJob resume(Long id) {
+        AttendanceImportJob job = getJob(id);
+        if (!FAILED.equals(job.getStatus())) {
+            throw new RuntimeException("Import job " + id + " is " + job.getStatus() + ", only failed jobs can be resumed");
+        }
+        job.setStatus(PENDING);
+        job.setMessage(null);
+        job = jobRepository.save(job);
+        importExecutor.execute(() -> process(id));
+        return job;
+    }
+
+    public AttendanceImportJob getJob(Long id) {
+        return jobRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Import job not found with ID: " + id));
+    }
+
+    public List<AttendanceImportJob> getJobs() {
+        return jobRepository.findAllByOrderByIdDesc();
+    }
+
+    public List<AttendanceImportError> getErrors(Long id, int limit) {
+        getJob(id);
+        return errorRepository.findByJobIdOrderByRowNumber(id, Limit.of(limit));
+    }
+
+    // ================= PROCESSING =================
+
+    private void process(Long jobId) {
+        AttendanceImportJob job = jobRepository.findById(jobId).orElse(null);
+        if (job == null || COMPLETED.equals(job.getStatus())) return;
+        job.setStatus(RUNNING);
+        job.setStartedAt(LocalDateTime.now());
+        job = jobRepository.save(job);
+
+        try (BufferedReader reader = Files.newBufferedReader(Paths.get(job.getStoredPath()), StandardCharsets.UTF_8)) {
+            Map<String, Integer> columns = readHeader(reader.readLine());
+
+            // skip rows committed by an earlier attempt
+            int rowNumber = 0;
+            while (rowNumber < job.getProcessedRows() && reader.readLine() != null) {
+                rowNumber++;
+            }
+
+            List<Attendance> rows = new ArrayList<>();
+            List<Integer> rowNumbers = new ArrayList<>();
+            List<AttendanceImportError> parseErrors = new ArrayList<>();
+            int chunkRows = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                rowNumber++;
+                chunkRows++; // blank lines count too, so resuming skips the same lines
+                if (!line.isBlank()) {
+                    try {
+                        rows.add(parseRow(splitCsvLine(line), columns));
+                        rowNumbers.add(rowNumber);
+                    } catch (RuntimeException e) {
+                        parseErrors.add(new AttendanceImportError(null, jobId, rowNumber, null, null, e.getMessage()));
+                    }
+                }
+                if (chunkRows >= job.getChunkSize()) {
+                    job = commitChunk(jobId, chunkRows, rows, rowNumbers, parseErrors);
+                    rows = new ArrayList<>();
+                    rowNumbers = new ArrayList<>();
+                    parseErrors = new ArrayList<>();
+                    chunkRows = 0;
+                }
+            }
+            if (chunkRows > 0) {
+                commitChunk(jobId, chunkRows, rows, rowNumbers, parseErrors);
+            }
+            finish(jobId, COMPLETED, null);
+        } catch (IOException | RuntimeException e) {
+            finish(jobId, FAILED, e.getMessage());
+        }
+    }
+
+    // Insert one chunk and advance the job's progress in the same transaction
+    private AttendanceImportJob commitChunk(Long jobId, int chunkRows, List<Attendance> rows, List<Integer> rowNumbers,
+            List<AttendanceImportError> parseErrors) {
+        return transactionTemplate.execute(status -> {
+            BulkAttendanceResult result = new BulkAttendanceResult();
+            List<Attendance> accepted = ingestionService.prepare(rows, 0, result);
+            ingestionService.write(accepted, result);
+
+            List<AttendanceImportError> errors = new ArrayList<>(parseErrors);
+            for (BulkAttendanceResult.Row r : result.getRows()) {
+                if (BulkAttendanceResult.REJECTED.equals(r.getResult())) {
+                    errors.add(new AttendanceImportError(null, jobId, rowNumbers.get(r.getIndex()), r.getWorkerId(),
+                            r.getDate(), r.getReason()));
+                }
+            }
+            errorRepository.saveAll(errors);
+
+            AttendanceImportJob job = jobRepository.findById(jobId).orElseThrow();
+            job.setProcessedRows(job.getProcessedRows() + chunkRows);
+            job.setAcceptedRows(job.getAcceptedRows() + result.getAccepted());
+            job.setRejectedRows(job.getRejectedRows() + errors.size());
+            return jobRepository.save(job);
+        });
+    }
+
+    private void finish(Long jobId, String status, String message) {
+        AttendanceImportJob job = jobRepository.findById(jobId).orElseThrow();
+        job.setStatus(status);
+        job.setFinishedAt(LocalDateTime.now());
+        job.setMessage(message != null && message.length() > 500 ? message.substring(0, 500) : message);
+        if (COMPLETED.equals(status) && job.getStoredPath() != null) {
+            try {
+                Files.deleteIfExists(Paths.get(job.getStoredPath()));
+            } catch (IOException ignored) {
+                // left for manual cleanup
+            }
+        }
+        jobRepository.save(job);
+    }
+
+    // ================= CSV =================
+
+    private static Map<String, Integer> readHeader(String header) {
+        if (header == null) {
+            throw new RuntimeException("CSV file is empty");
+        }
+        if (header.startsWith("\uFEFF")) {
+            header = header.substring(1); // Excel's UTF-8 BOM
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = splitCsvLine(header);
+        for (int i = 0; i < names.size(); i++) {
+            // accept workerId, worker_id, Worker ID ...
+            columns.put(names.get(i).replaceAll("[^A-Za-z]", "").toLowerCase(), i);
+        }
+        if (!columns.containsKey("workerid") || !columns.containsKey("date")) {
+            throw new RuntimeException("CSV header must contain workerId and date columns");
+        }
+        return columns;
+    }
+
+    private static Attendance parseRow(List<String> fields, Map<String, Integer> columns) {
+        String workerId = field(fields, columns, "workerid");
+        String date = field(fields, columns, "date");
+        String status = field(fields, columns, "status");
+        String overtime = field(fields, columns, "overtimehours");
+        String projectId = field(fields, columns, "projectid");
+
+        Attendance a = new Attendance();
+        try {
+            if (workerId != null) {
+                Worker worker = new Worker();
+                worker.setId(Long.valueOf(workerId));
+                a.setWorker(worker);
+            }
+            if (projectId != null) {
+                Project project = new Project();
+                project.setId(Long.valueOf(projectId));
+                a.setProject(project);
+            }
+            a.setOvertimeHours(overtime != null ? Double.parseDouble(overtime) : 0.0);
+        } catch (NumberFormatException e) {
+            throw new RuntimeException("Invalid number: " + e.getMessage());
+        }
+        try {
+            a.setDate(date != null ? LocalDate.parse(date) : null);
+        } catch (DateTimeParseException e) {
+            throw new RuntimeException("Invalid date (expected yyyy-MM-dd): " + date);
+        }
+        a.setStatus(status != null ? status : "Present");
+        return a;
+    }
+
+    private static String field(List<String> fields, Map<String, Integer> columns, String name) {
+        Integer i = columns.get(name);
+        if (i == null || i >= fields.size()) return null;
+        String value = fields.get(i).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    // Split one CSV line, honouring double-quoted fields with "" escapes
+    private static List<String> splitCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        importExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,310 @@
+package com.construction.site_management.service;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.util.*;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.construction.site_management.model.Attendance;
+import com.construction.site_management.model.Project;
+import com.construction.site_management.model.Worker;
+import com.construction.site_management.payload.BulkAttendanceResult;
+import com.construction.site_management.repository.AttendanceRepository;
+import com.construction.site_management.support.AfterCommit;
+import com.construction.site_management.support.ChangeClock;
+
+// Bulk attendance path: a fixed number of queries per batch instead of several per row.
+//  - workers and projects resolved through the reference cache (one IN query for misses)
+//  - existing (worker, date) pairs found with one query
+//  - pay computed in memory
+//  - rows written with a single JDBC batch insert; a row that a concurrent write inserted
+//    first is skipped by the database and reported as rejected, instead of failing the batch
+@Service
+public class AttendanceIngestionService {
+
+    // reason prefix for rows whose worker/date is already in the database
+    public static final String ALREADY_MARKED = "Attendance already marked for this worker on ";
+
+    private static final String INSERT_ATTENDANCE =
+            "INSERT INTO attendance (worker_id, project_id, date, status, overtime_hours, total_pay, change_version) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    // a second mark for the same worker and day replaces the first
+    private static final String UPSERT_ATTENDANCE = INSERT_ATTENDANCE +
+            " ON DUPLICATE KEY UPDATE project_id = VALUES(project_id), status = VALUES(status), " +
+            "overtime_hours = VALUES(overtime_hours), total_pay = VALUES(total_pay), " +
+            "change_version = VALUES(change_version)";
+
+    // the unique (worker_id, date) key turns a row marked concurrently into a no-op
+    private static final String INSERT_ATTENDANCE_UNLESS_MARKED = INSERT_ATTENDANCE + " ON DUPLICATE KEY UPDATE id = id";
+
+    private final AttendanceRepository attendanceRepository;
+    private final ReferenceDataCache referenceCache;
+    private final AttendanceRollupService rollupService;
+    private final DashboardAggregateStore aggregateStore;
+    private final SummaryCache summaryCache;
+    private final AttendanceArchiveService archiveService;
+    private final WorkerLedgerService ledgerService;
+    private final JdbcTemplate jdbcTemplate;
+
+    public AttendanceIngestionService(AttendanceRepository attendanceRepository,
+            ReferenceDataCache referenceCache,
+            AttendanceRollupService rollupService,
+            DashboardAggregateStore aggregateStore,
+            SummaryCache summaryCache,
+            AttendanceArchiveService archiveService,
+            WorkerLedgerService ledgerService,
+            JdbcTemplate jdbcTemplate) {
+        this.attendanceRepository = attendanceRepository;
+        this.referenceCache = referenceCache;
+        this.rollupService = rollupService;
+        this.aggregateStore = aggregateStore;
+        this.summaryCache = summaryCache;
+        this.archiveService = archiveService;
+        this.ledgerService = ledgerService;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Validate and insert a batch; each row is reported as accepted or rejected
+    @Transactional
+    public BulkAttendanceResult ingest(List<Attendance> rows) {
+        BulkAttendanceResult result = new BulkAttendanceResult();
+        List<Attendance> accepted = prepare(rows, 0, result);
+        write(accepted, result);
+        return result;
+    }
+
+    // Resolve references, reject invalid or duplicate rows and compute pay.
+    // indexOffset lets callers processing a larger file report absolute row numbers.
+    public List<Attendance> prepare(List<Attendance> rows, int indexOffset, BulkAttendanceResult result) {
+        return prepare(rows, indexOffset, result, false);
+    }
+
+    // With replaceMarked, a worker/day already in the database is not a duplicate:
+    // the rows are meant for upsert(List)
+    public List<Attendance> prepare(List<Attendance> rows, int indexOffset, BulkAttendanceResult result,
+            boolean replaceMarked) {
+        Set<Long> workerIds = new HashSet<>();
+        Set<Long> projectIds = new HashSet<>();
+        LocalDate minDate = null;
+        LocalDate maxDate = null;
+        for (Attendance a : rows) {
+            if (a.getWorker() != null && a.getWorker().getId() != null) workerIds.add(a.getWorker().getId());
+            if (a.getProject() != null && a.getProject().getId() != null) projectIds.add(a.getProject().getId());
+            if (a.getDate() != null) {
+                if (minDate == null || a.getDate().isBefore(minDate)) minDate = a.getDate();
+                if (maxDate == null || a.getDate().isAfter(maxDate)) maxDate = a.getDate();
+            }
+        }
+
+        Map<Long, Worker> workers = referenceCache.workers(workerIds);
+        Map<Long, Project> projects = referenceCache.projects(projectIds);
+
+        Set<String> taken = new HashSet<>();
+        if (!replaceMarked && !workerIds.isEmpty() && minDate != null) {
+            for (Object[] row : attendanceRepository.findWorkerDates(workerIds, minDate, maxDate)) {
+                taken.add(row[0] + "@" + row[1]);
+            }
+        }
+
+        List<Attendance> accepted = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Attendance a = rows.get(i);
+            int index = indexOffset + i;
+            Long workerId = a.getWorker() != null ? a.getWorker().getId() : null;
+            LocalDate date = a.getDate();
+
+            if (workerId == null) {
+                result.reject(index, null, date, "Worker ID is required");
+                continue;
+            }
+            Worker worker = workers.get(workerId);
+            if (worker == null) {
+                result.reject(index, workerId, date, "Worker not found with ID: " + workerId);
+                continue;
+            }
+            if (date == null) {
+                result.reject(index, workerId, null, "Date is required");
+                continue;
+            }
+            if (archiveService.isArchived(date)) {
+                result.reject(index, workerId, date, archiveService.archivedMessage(date));
+                continue;
+            }
+            Project project = null;
+            if (a.getProject() != null && a.getProject().getId() != null) {
+                project = projects.get(a.getProject().getId());
+                if (project == null) {
+                    result.reject(index, workerId, date, "Project not found with ID: " + a.getProject().getId());
+                    continue;
+                }
+            }
+            // also catches the same worker/date twice inside this batch
+            if (!taken.add(workerId + "@" + date)) {
+                result.reject(index, workerId, date, ALREADY_MARKED + date);
+                continue;
+            }
+
+            a.setWorker(worker);
+            a.setProject(project);
+            a.setTotalPay(AttendanceService.calculatePay(worker.getRatePerDay(), a.getStatus(), a.getOvertimeHours()));
+            accepted.add(a);
+            result.accept(index, workerId, date);
+        }
+        return accepted;
+    }
+
+    // The worker's row for that day as it is before a new mark, or null; locked until the
+    // caller's transaction ends, so the mark's deltas are taken against what it replaces
+    public Attendance lockMarked(Worker worker, LocalDate date) {
+        List<Object[]> rows = attendanceRepository.lockMarked(worker.getId(), date);
+        if (rows.isEmpty()) return null;
+        Object[] row = rows.get(0);
+        Attendance before = new Attendance();
+        before.setId(((Number) row[0]).longValue());
+        before.setWorker(worker);
+        if (row[1] != null) {
+            Project project = new Project();
+            project.setId(((Number) row[1]).longValue());
+            before.setProject(project);
+        }
+        before.setDate(date);
+        before.setStatus((String) row[2]);
+        before.setOvertimeHours(((Number) row[3]).doubleValue());
+        before.setTotalPay(((Number) row[4]).doubleValue());
+        return before;
+    }
+
+    // Insert-or-update one prepared row on the unique (worker_id, date) key; returns true
+    // when it replaced an existing row. A newly inserted row gets its id set.
+    public boolean upsert(Attendance a) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        int rows = jdbcTemplate.update(con -> {
+            PreparedStatement ps = con.prepareStatement(UPSERT_ATTENDANCE, Statement.RETURN_GENERATED_KEYS);
+            bind(ps, a);
+            return ps;
+        }, keyHolder);
+        // 1 for an insert, 2 for an update (the change version always changes)
+        if (rows > 1) return true;
+        a.setId(keyHolder.getKey().longValue());
+        return false;
+    }
+
+    // Batch form of saveAttendance's insert-or-update, for rows prepared with replaceMarked
+    // (at most one per worker and day). The rows they replace are read and locked first,
+    // which also holds back concurrent first marks, and the rollups, ledger and dashboard
+    // move by the difference. Must run inside the caller's transaction.
+    public void upsert(List<Attendance> accepted) {
+        if (accepted.isEmpty()) return;
+        Set<Long> workerIds = new HashSet<>();
+        LocalDate minDate = null;
+        LocalDate maxDate = null;
+        Map<String, Attendance> byKey = new HashMap<>();
+        for (Attendance a : accepted) {
+            workerIds.add(a.getWorker().getId());
+            if (minDate == null || a.getDate().isBefore(minDate)) minDate = a.getDate();
+            if (maxDate == null || a.getDate().isAfter(maxDate)) maxDate = a.getDate();
+            byKey.put(a.getWorker().getId() + "@" + a.getDate(), a);
+        }
+
+        List<Attendance> replaced = new ArrayList<>();
+        for (Object[] row : attendanceRepository.lockMarked(workerIds, minDate, maxDate)) {
+            Object date = row[1] instanceof java.sql.Date d ? d.toLocalDate() : row[1];
+            Attendance a = byKey.get(row[0] + "@" + date);
+            if (a == null) continue; // another day in the range
+            Attendance before = new Attendance();
+            before.setId(((Number) row[2]).longValue());
+            before.setWorker(a.getWorker());
+            if (row[3] != null) {
+                Project project = new Project();
+                project.setId(((Number) row[3]).longValue());
+                before.setProject(project);
+            }
+            before.setDate(a.getDate());
+            before.setStatus((String) row[4]);
+            before.setOvertimeHours(((Number) row[5]).doubleValue());
+            before.setTotalPay(((Number) row[6]).doubleValue());
+            a.setId(before.getId());
+            replaced.add(before);
+        }
+
+        jdbcTemplate.batchUpdate(UPSERT_ATTENDANCE, accepted, accepted.size(), this::bind);
+        rollupService.apply(replaced, -1);
+        rollupService.apply(accepted, 1);
+        ledgerService.applyAttendance(replaced, -1);
+        ledgerService.applyAttendance(accepted, 1);
+        AfterCommit.run(() -> {
+            replaced.forEach(a -> aggregateStore.recordAttendance(a, -1));
+            accepted.forEach(a -> aggregateStore.recordAttendance(a, 1));
+            summaryCache.attendanceChanged();
+        });
+    }
+
+    // JDBC batch insert of prepared rows plus the matching rollup / dashboard updates.
+    // Rows another writer inserted since prepare() are moved to rejected in the result.
+    // Must run inside the caller's transaction.
+    public void write(List<Attendance> accepted, BulkAttendanceResult result) {
+        if (accepted.isEmpty()) return;
+        jdbcTemplate.batchUpdate(INSERT_ATTENDANCE_UNLESS_MARKED, accepted, accepted.size(), this::bind);
+        List<Attendance> written = inserted(accepted, result);
+        if (written.isEmpty()) return;
+        rollupService.apply(written, 1);
+        ledgerService.applyAttendance(written, 1);
+        AfterCommit.run(() -> {
+            written.forEach(a -> aggregateStore.recordAttendance(a, 1));
+            summaryCache.attendanceChanged();
+        });
+    }
+
+    // Rows of the batch that are in the database with this batch's change version
+    private List<Attendance> inserted(List<Attendance> accepted, BulkAttendanceResult result) {
+        Set<Long> workerIds = new HashSet<>();
+        LocalDate minDate = null;
+        LocalDate maxDate = null;
+        for (Attendance a : accepted) {
+            workerIds.add(a.getWorker().getId());
+            if (minDate == null || a.getDate().isBefore(minDate)) minDate = a.getDate();
+            if (maxDate == null || a.getDate().isAfter(maxDate)) maxDate = a.getDate();
+        }
+        Map<String, Long> versions = new HashMap<>();
+        for (Object[] row : attendanceRepository.findWorkerDateVersions(workerIds, minDate, maxDate)) {
+            versions.put(row[0] + "@" + row[1], (Long) row[2]);
+        }
+
+        List<Attendance> written = new ArrayList<>(accepted.size());
+        for (Attendance a : accepted) {
+            Long workerId = a.getWorker().getId();
+            if (a.getChangeVersion().equals(versions.get(workerId + "@" + a.getDate()))) {
+                written.add(a);
+            } else {
+                result.rejectAccepted(workerId, a.getDate(), ALREADY_MARKED + a.getDate());
+            }
+        }
+        return written;
+    }
+
+    private void bind(PreparedStatement ps, Attendance a) throws SQLException {
+        ps.setLong(1, a.getWorker().getId());
+        if (a.getProject() != null) {
+            ps.setLong(2, a.getProject().getId());
+        } else {
+            ps.setNull(2, Types.BIGINT);
+        }
+        ps.setObject(3, a.getDate() != null ? Date.valueOf(a.getDate()) : null, Types.DATE);
+        ps.setString(4, a.getStatus());
+        ps.setDouble(5, a.getOvertimeHours());
+        ps.setDouble(6, a.getTotalPay());
+        // bypasses the entity listener, so stamp the sync version here
+        a.setChangeVersion(ChangeClock.next());
+        ps.setLong(7, a.getChangeVersion());
+    }
+}
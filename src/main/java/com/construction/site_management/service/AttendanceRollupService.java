@@ -0,0 +1,87 @@
+package com.construction.site_management.service;
+
+import java.time.LocalDate;
+import java.util.*;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.construction.site_management.model.Attendance;
+import com.construction.site_management.repository.AttendanceDailyRollupRepository;
+import com.construction.site_management.repository.AttendanceRepository;
+
+// Keeps attendance_daily_rollup in step with the attendance table.
+// Callers apply deltas inside the same transaction as the attendance write.
+@Service
+public class AttendanceRollupService {
+
+    public static final long NO_PROJECT = 0L;
+
+    private final AttendanceDailyRollupRepository rollupRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final AttendanceArchiveService archiveService;
+
+    public AttendanceRollupService(AttendanceDailyRollupRepository rollupRepository,
+            AttendanceRepository attendanceRepository,
+            AttendanceArchiveService archiveService) {
+        this.rollupRepository = rollupRepository;
+        this.attendanceRepository = attendanceRepository;
+        this.archiveService = archiveService;
+    }
+
+    // Build the rollup for historical data the first time the app starts with it
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    @Transactional
+    public void buildIfEmpty() {
+        if (rollupRepository.count() == 0 && attendanceRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    public void apply(Attendance attendance, int sign) {
+        apply(List.of(attendance), sign);
+    }
+
+    // Several rows for the same day/project collapse into one upsert
+    public void apply(Collection<Attendance> records, int sign) {
+        Map<List<Object>, double[]> buckets = new LinkedHashMap<>();
+        for (Attendance a : records) {
+            if (a.getDate() == null) continue;
+            double[] b = buckets.computeIfAbsent(List.of(a.getDate(), projectKey(a)), k -> new double[5]);
+            b[statusSlot(a.getStatus())] += 1;
+            b[3] += a.getOvertimeHours();
+            b[4] += a.getTotalPay();
+        }
+        buckets.forEach((key, b) -> rollupRepository.upsertDelta(
+                (LocalDate) key.get(0), (Long) key.get(1),
+                sign * (long) b[0], sign * (long) b[1], sign * (long) b[2],
+                sign * b[3], sign * b[4]));
+    }
+
+    // Full rebuild from the attendance table; returns the number of rollup rows written.
+    // Days of archived months are kept, their attendance rows are gone.
+    @Transactional
+    public int rebuild() {
+        LocalDate hotStart = archiveService.getHotStart();
+        if (hotStart != null) {
+            rollupRepository.deleteRowsFrom(hotStart);
+        } else {
+            rollupRepository.deleteAllRows();
+        }
+        return rollupRepository.insertFromAttendance();
+    }
+
+    private static Long projectKey(Attendance a) {
+        return a.getProject() != null && a.getProject().getId() != null ? a.getProject().getId() : NO_PROJECT;
+    }
+
+    private static int statusSlot(String status) {
+        if ("Present".equalsIgnoreCase(status)) return 0;
+        if ("Absent".equalsIgnoreCase(status)) return 1;
+        return 2;
+    }
+}
@@ -2,96 +2,181 @@ package com.construction.site_management.service;
 
 import java.time.LocalDate;
 import java.util.*;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.construction.site_management.model.Attendance;
 import com.construction.site_management.model.Project;
 import com.construction.site_management.model.Worker;
+import com.construction.site_management.payload.BulkAttendanceResult;
+import com.construction.site_management.payload.CursorPage;
 import com.construction.site_management.repository.AttendanceRepository;
-import com.construction.site_management.repository.ProjectRepository;
-import com.construction.site_management.repository.WorkerRepository;
+import com.construction.site_management.support.AfterCommit;
 
 @Service
 public class AttendanceService {
 
+    // bounds used when a list request leaves one end of the range open
+    private static final LocalDate EARLIEST_DATE = LocalDate.of(1900, 1, 1);
+    private static final LocalDate LATEST_DATE = LocalDate.of(9999, 12, 31);
+
     private final AttendanceRepository attendanceRepository;
-    private final WorkerRepository workerRepository;
-    private final ProjectRepository projectRepository;
+    private final ReferenceDataCache referenceCache;
+    private final DashboardAggregateStore aggregateStore;
+    private final SummaryCache summaryCache;
+    private final AttendanceRollupService rollupService;
+    private final AttendanceIngestionService ingestionService;
+    private final AttendanceArchiveService archiveService;
+    private final WorkerLedgerService ledgerService;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
     public AttendanceService(AttendanceRepository attendanceRepository,
-            WorkerRepository workerRepository,
-            ProjectRepository projectRepository) {
+            ReferenceDataCache referenceCache,
+            DashboardAggregateStore aggregateStore,
+            SummaryCache summaryCache,
+            AttendanceRollupService rollupService,
+            AttendanceIngestionService ingestionService,
+            AttendanceArchiveService archiveService,
+            WorkerLedgerService ledgerService,
+            @Value("${attendance.page-size:500}") int defaultPageSize,
+            @Value("${attendance.max-page-size:2000}") int maxPageSize) {
         this.attendanceRepository = attendanceRepository;
-        this.workerRepository = workerRepository;
-        this.projectRepository = projectRepository;
+        this.referenceCache = referenceCache;
+        this.aggregateStore = aggregateStore;
+        this.summaryCache = summaryCache;
+        this.rollupService = rollupService;
+        this.ingestionService = ingestionService;
+        this.archiveService = archiveService;
+        this.ledgerService = ledgerService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
-    // Save single attendance
+    // Mark one worker for one day; a second mark for the same day replaces the first
+    @Transactional
     public Attendance saveAttendance(Attendance attendance) {
+        if (archiveService.isArchived(attendance.getDate())) {
+            throw new RuntimeException(archiveService.archivedMessage(attendance.getDate()));
+        }
+        // references and the rate come from the shared cache
         Long workerId = attendance.getWorker().getId();
-        Worker worker = workerRepository.findById(workerId)
+        Worker worker = referenceCache.worker(workerId)
                 .orElseThrow(() -> new RuntimeException("Worker not found with ID: " + workerId));
         attendance.setWorker(worker);
 
         if (attendance.getProject() != null && attendance.getProject().getId() != null) {
             Long projectId = attendance.getProject().getId();
-            Project project = projectRepository.findById(projectId)
+            Project project = referenceCache.project(projectId)
                     .orElseThrow(() -> new RuntimeException("Project not found with ID: " + projectId));
             attendance.setProject(project);
         }
 
-        // Prevent duplicates
-        if (attendanceRepository.existsByWorkerAndDate(worker, attendance.getDate())) {
-            throw new RuntimeException("Attendance already marked for this worker on " + attendance.getDate());
+        // Insert-or-update on the unique (worker_id, date) key. The row it replaces is read
+        // and locked first, so the rollups, ledger and dashboard move by the difference.
+        Attendance before = ingestionService.lockMarked(worker, attendance.getDate());
+        if (before != null) {
+            // a re-mark without status or project keeps the first mark's
+            if (attendance.getStatus() == null) attendance.setStatus(before.getStatus());
+            if (attendance.getProject() == null) attendance.setProject(before.getProject());
         }
+        attendance.setTotalPay(calculatePay(worker.getRatePerDay(), attendance.getStatus(), attendance.getOvertimeHours()));
 
-        double totalPay = 0.0;
-        if ("Present".equalsIgnoreCase(attendance.getStatus())) {
-            totalPay = worker.getRatePerDay() + (attendance.getOvertimeHours() * (worker.getRatePerDay() / 8));
+        boolean replaced = ingestionService.upsert(attendance);
+        if (replaced != (before != null)) {
+            // only possible when the lock above did not hold back a concurrent first mark
+            throw new ConcurrencyFailureException("Attendance for worker " + workerId + " on " + attendance.getDate()
+                    + " changed concurrently, retry");
+        }
+        if (before != null) {
+            attendance.setId(before.getId());
+            rollupService.apply(before, -1);
+            ledgerService.applyAttendance(before, -1);
         }
-        attendance.setTotalPay(totalPay);
+        rollupService.apply(attendance, 1);
+        ledgerService.applyAttendance(attendance, 1);
+        AfterCommit.run(() -> {
+            if (before != null) {
+                aggregateStore.recordOvertimeChange(before.getOvertimeHours(), attendance.getOvertimeHours());
+            } else {
+                aggregateStore.recordAttendance(attendance, 1);
+            }
+            summaryCache.attendanceChanged();
+        });
+        return attendance;
+    }
 
-        return attendanceRepository.save(attendance);
+    // Daily pay: rate for a present day plus overtime at the hourly rate (rate / 8)
+    public static double calculatePay(double ratePerDay, String status, double overtimeHours) {
+        if (!"Present".equalsIgnoreCase(status)) {
+            return 0.0;
+        }
+        return ratePerDay + (overtimeHours * (ratePerDay / 8));
     }
 
     // Bulk save (only today)
-    @Transactional
-    public List<Attendance> saveAttendanceBulk(List<Attendance> attendanceList) {
-        List<Attendance> saved = new ArrayList<>();
+    public BulkAttendanceResult saveAttendanceBulk(List<Attendance> attendanceList) {
         LocalDate today = LocalDate.now();
-        for (Attendance att : attendanceList) {
-            att.setDate(today); // force today
-            if (!attendanceRepository.existsByWorkerAndDate(att.getWorker(), today)) {
-                saved.add(saveAttendance(att));
-            }
-        }
-        return saved;
+        attendanceList.forEach(att -> att.setDate(today)); // force today
+        return ingestionService.ingest(attendanceList);
     }
 
     // Update attendance
+    @Transactional
     public Attendance updateAttendance(Long id, Attendance attendance) {
         Attendance existing = attendanceRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Attendance not found with ID: " + id));
 
+        Attendance before = new Attendance(existing.getId(), existing.getWorker(), existing.getProject(),
+                existing.getDate(), existing.getStatus(), existing.getOvertimeHours(), existing.getTotalPay(),
+                existing.getChangeVersion());
+        double previousOvertime = existing.getOvertimeHours();
         if (attendance.getStatus() != null)
             existing.setStatus(attendance.getStatus());
         existing.setOvertimeHours(attendance.getOvertimeHours());
 
         // Recalculate total pay
-        double totalPay = 0.0;
-        if ("Present".equalsIgnoreCase(existing.getStatus())) {
-            totalPay = existing.getWorker().getRatePerDay()
-                    + (existing.getOvertimeHours() * (existing.getWorker().getRatePerDay() / 8));
-        }
-        existing.setTotalPay(totalPay);
-
-        return attendanceRepository.save(existing);
+        existing.setTotalPay(calculatePay(existing.getWorker().getRatePerDay(), existing.getStatus(),
+                existing.getOvertimeHours()));
+
+        Attendance saved = attendanceRepository.save(existing);
+        rollupService.apply(before, -1);
+        rollupService.apply(saved, 1);
+        ledgerService.applyAttendance(before, -1);
+        ledgerService.applyAttendance(saved, 1);
+        AfterCommit.run(() -> {
+            aggregateStore.recordOvertimeChange(previousOvertime, saved.getOvertimeHours());
+            summaryCache.attendanceChanged();
+        });
+        return saved;
     }
 
-    // Fetch all attendance
-    public List<Attendance> getAllAttendance() {
-        return attendanceRepository.findAll();
+    // Keyset page of attendance in [from, to]; open ends default to all dates
+    public CursorPage<Attendance> getAttendancePage(LocalDate from, LocalDate to, String cursor, Integer size) {
+        LocalDate start = from != null ? from : EARLIEST_DATE;
+        LocalDate end = to != null ? to : LATEST_DATE;
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        // fetch one extra row to know whether another page exists
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<Attendance> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = attendanceRepository.findFirstPage(start, end, limit);
+        } else {
+            Object[] after = CursorPage.decode(cursor);
+            rows = attendanceRepository.findPageAfter(start, end, (LocalDate) after[0], (Long) after[1], limit);
+        }
+
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<Attendance> items = rows.subList(0, pageSize);
+        Attendance last = items.get(pageSize - 1);
+        return new CursorPage<>(items, CursorPage.encode(last.getDate(), last.getId()));
     }
 
     // Fetch by worker
@@ -119,14 +204,25 @@ public class AttendanceService {
         return attendanceRepository.findByProjectIdAndWorkerId(projectId, workerId);
     }
 
+    @Transactional
     public void deleteAttendance(Long id) {
-        attendanceRepository.deleteById(id);
+        attendanceRepository.findById(id).ifPresent(existing -> {
+            attendanceRepository.delete(existing);
+            rollupService.apply(existing, -1);
+            ledgerService.applyAttendance(existing, -1);
+            AfterCommit.run(() -> {
+                aggregateStore.recordAttendance(existing, -1);
+                summaryCache.attendanceChanged();
+            });
+        });
     }
 
-    @Transactional
-    public void deleteAttendanceByWorker(Long workerId) {
-        List<Attendance> records = attendanceRepository.findByWorkerId(workerId);
-        attendanceRepository.deleteAll(records);
+    // Rebuild the daily rollup from raw attendance (historical data, manual repair)
+    public int rebuildRollup() {
+        int rows = rollupService.rebuild();
+        aggregateStore.rebuild();
+        summaryCache.attendanceChanged();
+        return rows;
     }
 
 }
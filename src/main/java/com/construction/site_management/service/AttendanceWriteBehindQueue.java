@@ -0,0 +1,586 @@
+package com.construction.site_management.service;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.construction.site_management.model.Attendance;
+import com.construction.site_management.model.Project;
+import com.construction.site_management.model.Worker;
+import com.construction.site_management.payload.BulkAttendanceResult;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+// Optional write-behind mode for POST /api/attendance (attendance.write-behind.enabled).
+//  - a mark is checked against cached worker data, appended to a local journal
+//    (fsync'd) and queued; the request is acknowledged straight away
+//  - a background writer flushes the queue in batches through AttendanceIngestionService
+//  - a full queue rejects new marks (back-pressure) instead of growing without bound
+//  - reads for a worker merge in that worker's still-queued marks
+//  - a second mark for the same worker and day replaces the first, as on the synchronous
+//    path: it is merged into the queued entry, or, when the first is already being
+//    written, stays queued and is written as an update of that row
+//  - when a batch fails, its marks are written one at a time; while the database is up, a
+//    mark that keeps failing on its own is moved to a dead-letter file after max-attempts
+// On startup the journal is replayed, so acknowledged marks survive a crash. Written marks
+// are journaled by seq, so a restart replays exactly the marks not yet in the database.
+@Component
+public class AttendanceWriteBehindQueue {
+
+    private static final TypeReference<Map<String, Object>> RECORD = new TypeReference<>() {
+    };
+
+    // how long shutdown waits for a flush in progress before closing the journal
+    private static final long SHUTDOWN_WAIT_MILLIS = 10_000;
+
+    // queued mark; attendance is replaced in place when the same worker/day is marked again
+    private static class Entry {
+        // journal records merged into this entry: the first mark and any re-marks
+        final List<Long> seqs = new ArrayList<>();
+        Attendance attendance;
+        int revision;
+        int failures; // failed writes of this mark on its own
+
+        Entry(long seq, Attendance attendance) {
+            this.seqs.add(seq);
+            this.attendance = attendance;
+        }
+    }
+
+    public static class QueueFullException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        public QueueFullException(int capacity) {
+            super("Attendance queue is full (" + capacity + " pending), retry shortly");
+        }
+    }
+
+    private final boolean enabled;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final int maxAttempts;
+    private final Path journalPath;
+    private final Path deadLetterPath;
+
+    private final ReferenceDataCache referenceCache;
+    private final AttendanceIngestionService ingestionService;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Deque<Entry> queue = new ArrayDeque<>();
+    private final Map<Long, Map<LocalDate, Entry>> pendingByWorker = new HashMap<>();
+    private long nextSeq = 1;
+    private FileChannel journal;
+    private FileChannel deadLetterFile;
+    // marks given up on, as journal records plus reason; kept until retried
+    private final List<Map<String, Object>> deadLetters = new ArrayList<>();
+
+    private Thread writer;
+    private volatile boolean running = true;
+
+    private long accepted;
+    private long flushed;
+    private long rejected;
+    private String lastError;
+    private final Deque<String> recentRejections = new ArrayDeque<>();
+
+    public AttendanceWriteBehindQueue(@Value("${attendance.write-behind.enabled:false}") boolean enabled,
+            @Value("${attendance.write-behind.capacity:10000}") int capacity,
+            @Value("${attendance.write-behind.batch-size:500}") int batchSize,
+            @Value("${attendance.write-behind.flush-interval-ms:200}") long flushIntervalMillis,
+            @Value("${attendance.write-behind.max-attempts:5}") int maxAttempts,
+            @Value("${attendance.write-behind.journal:${java.io.tmpdir}/attendance-write-behind.journal}") String journal,
+            ReferenceDataCache referenceCache,
+            AttendanceIngestionService ingestionService,
+            TransactionTemplate transactionTemplate,
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper) {
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxAttempts = maxAttempts;
+        this.journalPath = Paths.get(journal);
+        this.deadLetterPath = Paths.get(journal + ".dead");
+        this.referenceCache = referenceCache;
+        this.ingestionService = ingestionService;
+        this.transactionTemplate = transactionTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // ================= JOURNAL =================
+
+    // Reload marks acknowledged before the last shutdown/crash (even if the mode is now off)
+    @PostConstruct
+    public void replay() throws IOException {
+        if (!enabled && !Files.exists(journalPath)) return;
+        if (journalPath.getParent() != null) {
+            Files.createDirectories(journalPath.getParent());
+        }
+        long checkpoint = 0; // written by earlier versions: everything up to it is in the database
+        Set<Long> written = new HashSet<>();
+        List<Map<String, Object>> records = new ArrayList<>();
+        for (Map<String, Object> record : read(journalPath)) {
+            if (record.containsKey("checkpoint")) {
+                checkpoint = Math.max(checkpoint, ((Number) record.get("checkpoint")).longValue());
+            } else if (record.containsKey("flushed")) {
+                for (Object seq : (List<?>) record.get("flushed")) {
+                    written.add(((Number) seq).longValue());
+                }
+            } else {
+                records.add(record);
+            }
+        }
+        deadLetters.addAll(read(deadLetterPath));
+        journal = open(journalPath);
+        deadLetterFile = open(deadLetterPath);
+
+        for (Map<String, Object> record : records) {
+            long seq = ((Number) record.get("seq")).longValue();
+            nextSeq = Math.max(nextSeq, seq + 1);
+            if (seq > checkpoint && !written.contains(seq)) {
+                enqueue(seq, fromRecord(record));
+            }
+        }
+    }
+
+    private List<Map<String, Object>> read(Path path) throws IOException {
+        List<Map<String, Object>> records = new ArrayList<>();
+        if (!Files.exists(path)) return records;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                try {
+                    records.add(objectMapper.readValue(line, RECORD));
+                } catch (IOException e) {
+                    break; // torn last line from a crash mid-append
+                }
+            }
+        }
+        return records;
+    }
+
+    private static FileChannel open(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+    }
+
+    // writer starts once the dashboard store has been seeded
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(10)
+    public void startWriter() {
+        if (journal == null) return;
+        writer = new Thread(this::writeLoop, "attendance-write-behind");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    private void append(Map<String, Object> record) throws IOException {
+        append(journal, record);
+    }
+
+    private void append(FileChannel file, Map<String, Object> record) throws IOException {
+        byte[] line = (objectMapper.writeValueAsString(record) + "\n").getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.wrap(line);
+        while (buffer.hasRemaining()) {
+            file.write(buffer);
+        }
+        file.force(false);
+    }
+
+    private Map<String, Object> toRecord(long seq, Attendance a) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("seq", seq);
+        record.put("workerId", a.getWorker().getId());
+        record.put("projectId", a.getProject() != null ? a.getProject().getId() : null);
+        record.put("date", a.getDate().toString());
+        record.put("status", a.getStatus());
+        record.put("overtimeHours", a.getOvertimeHours());
+        return record;
+    }
+
+    private Attendance fromRecord(Map<String, Object> record) {
+        Attendance a = new Attendance();
+        Worker worker = new Worker();
+        worker.setId(((Number) record.get("workerId")).longValue());
+        a.setWorker(worker);
+        if (record.get("projectId") != null) {
+            Project project = new Project();
+            project.setId(((Number) record.get("projectId")).longValue());
+            a.setProject(project);
+        }
+        a.setDate(LocalDate.parse((String) record.get("date")));
+        a.setStatus((String) record.get("status"));
+        a.setOvertimeHours(((Number) record.get("overtimeHours")).doubleValue());
+        return a;
+    }
+
+    // ================= INTAKE =================
+
+    // Validate, journal and queue one mark; returns it as it will be stored (without an id yet)
+    public Attendance submit(Attendance attendance) {
+        if (attendance.getWorker() == null || attendance.getWorker().getId() == null) {
+            throw new RuntimeException("Worker ID is required");
+        }
+        Long workerId = attendance.getWorker().getId();
+        // validated and priced from the shared reference cache, without a database round trip
+        Worker worker = referenceCache.worker(workerId).orElse(null);
+        if (worker == null) {
+            throw new RuntimeException("Worker not found with ID: " + workerId);
+        }
+
+        Attendance a = new Attendance();
+        a.setWorker(worker);
+        if (attendance.getProject() != null && attendance.getProject().getId() != null) {
+            Project project = new Project(); // checked when the batch is written
+            project.setId(attendance.getProject().getId());
+            a.setProject(project);
+        }
+        a.setDate(attendance.getDate() != null ? attendance.getDate() : LocalDate.now());
+        a.setStatus(attendance.getStatus());
+        a.setOvertimeHours(attendance.getOvertimeHours());
+        a.setTotalPay(AttendanceService.calculatePay(worker.getRatePerDay(), a.getStatus(), a.getOvertimeHours()));
+
+        lock.lock();
+        try {
+            boolean replacesPending = pendingByWorker.getOrDefault(workerId, Map.of()).containsKey(a.getDate());
+            if (!replacesPending && queue.size() >= capacity) {
+                throw new QueueFullException(capacity);
+            }
+            long seq = nextSeq++;
+            try {
+                append(toRecord(seq, a));
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not journal attendance: " + e.getMessage(), e);
+            }
+            enqueue(seq, a);
+            accepted++;
+            notEmpty.signal();
+        } finally {
+            lock.unlock();
+        }
+        return a;
+    }
+
+    private void enqueue(long seq, Attendance a) {
+        Map<LocalDate, Entry> byDate = pendingByWorker.computeIfAbsent(a.getWorker().getId(), k -> new HashMap<>());
+        Entry existing = byDate.get(a.getDate());
+        if (existing != null) {
+            // same worker and day marked again before it was written, or while it is being
+            // written: last mark wins, and completed() keeps the entry queued for it
+            existing.attendance = a;
+            existing.seqs.add(seq);
+            existing.revision++;
+            existing.failures = 0;
+            return;
+        }
+        Entry entry = new Entry(seq, a);
+        byDate.put(a.getDate(), entry);
+        queue.addLast(entry);
+    }
+
+    // ================= READ-YOUR-WRITES =================
+
+    // Overlay this worker's queued marks on rows read from the database
+    public List<Attendance> withPending(Long workerId, LocalDate from, LocalDate to, List<Attendance> stored) {
+        Map<LocalDate, Attendance> pending = new HashMap<>();
+        lock.lock();
+        try {
+            Map<LocalDate, Entry> byDate = pendingByWorker.get(workerId);
+            if (byDate == null) return stored;
+            byDate.forEach((date, entry) -> {
+                if ((from == null || !date.isBefore(from)) && (to == null || !date.isAfter(to))) {
+                    pending.put(date, entry.attendance);
+                }
+            });
+        } finally {
+            lock.unlock();
+        }
+        if (pending.isEmpty()) return stored;
+        List<Attendance> merged = new ArrayList<>();
+        for (Attendance a : stored) {
+            if (!pending.containsKey(a.getDate())) merged.add(a);
+        }
+        merged.addAll(pending.values());
+        return merged;
+    }
+
+    // ================= WRITER =================
+
+    private void writeLoop() {
+        while (running) {
+            List<Entry> batch = new ArrayList<>();
+            List<Integer> revisions = new ArrayList<>();
+            lock.lock();
+            try {
+                if (queue.isEmpty()) {
+                    notEmpty.await(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                }
+                Iterator<Entry> it = queue.iterator();
+                while (it.hasNext() && batch.size() < batchSize) {
+                    Entry entry = it.next();
+                    batch.add(entry);
+                    revisions.add(entry.revision);
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+            if (batch.isEmpty()) continue;
+
+            try {
+                flush(batch);
+                completed(batch, revisions);
+            } catch (RuntimeException e) {
+                noteError(e.getMessage());
+                flushEach(batch, revisions);
+                sleep(Math.max(flushIntervalMillis, 1000)); // back off before retrying what is left
+            }
+        }
+    }
+
+    // After a failed batch: write its marks one at a time, so one bad mark cannot hold up the
+    // rest. Failures only count against a mark while the database itself answers; during an
+    // outage everything stays queued and is retried.
+    private void flushEach(List<Entry> batch, List<Integer> revisions) {
+        Map<Integer, String> failures = new LinkedHashMap<>();
+        for (int i = 0; i < batch.size() && running; i++) {
+            List<Entry> one = List.of(batch.get(i));
+            List<Integer> revision = List.of(revisions.get(i));
+            try {
+                flush(one);
+                completed(one, revision);
+            } catch (RuntimeException e) {
+                failures.put(i, e.getMessage());
+            }
+        }
+        if (failures.isEmpty() || !databaseAvailable()) return;
+        failures.forEach((i, reason) -> failed(batch.get(i), revisions.get(i), reason));
+    }
+
+    private boolean databaseAvailable() {
+        try {
+            jdbcTemplate.queryForObject("SELECT 1", Integer.class);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    // Count a failed write of one mark; after maxAttempts move it to the dead-letter file
+    private void failed(Entry entry, int revision, String reason) {
+        lock.lock();
+        try {
+            if (entry.revision != revision) return; // marked again since: the new mark starts over
+            if (++entry.failures < maxAttempts) return;
+            Map<String, Object> record = toRecord(entry.seqs.get(entry.seqs.size() - 1), entry.attendance);
+            record.put("reason", reason);
+            record.put("failedAt", LocalDateTime.now().toString());
+            try {
+                append(deadLetterFile, record);
+            } catch (IOException e) {
+                noteError("dead letter: " + e.getMessage());
+                return; // stays queued
+            }
+            deadLetters.add(record);
+            dequeue(entry);
+            journalWritten(entry.seqs);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Queue the dead-lettered marks again, e.g. once the cause has been fixed
+    public int retryDeadLetters() {
+        lock.lock();
+        try {
+            int count = deadLetters.size();
+            for (Map<String, Object> record : deadLetters) {
+                long seq = nextSeq++;
+                Attendance a = fromRecord(record);
+                append(toRecord(seq, a));
+                enqueue(seq, a);
+            }
+            deadLetters.clear();
+            deadLetterFile.truncate(0);
+            deadLetterFile.force(false);
+            notEmpty.signal();
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not journal attendance: " + e.getMessage(), e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public List<Map<String, Object>> getDeadLetters() {
+        lock.lock();
+        try {
+            return new ArrayList<>(deadLetters);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void flush(List<Entry> batch) {
+        List<Attendance> rows = new ArrayList<>();
+        for (Entry entry : batch) {
+            rows.add(copyOf(entry.attendance));
+        }
+        BulkAttendanceResult result = new BulkAttendanceResult();
+        transactionTemplate.executeWithoutResult(status -> {
+            // one entry per worker and day; a day already in the database is updated
+            List<Attendance> accepted = ingestionService.prepare(rows, 0, result, true);
+            ingestionService.upsert(accepted);
+        });
+
+        // unknown worker or project, or a date in an archived month
+        for (BulkAttendanceResult.Row row : result.getRows()) {
+            if (BulkAttendanceResult.REJECTED.equals(row.getResult())) {
+                rejected(row);
+            }
+        }
+    }
+
+    // Drop flushed entries and journal their seqs as written. An entry marked again meanwhile
+    // stays queued with all its seqs: the next flush, or a replay after a restart, writes the
+    // latest mark as an update of the row just written.
+    private void completed(List<Entry> batch, List<Integer> revisions) {
+        lock.lock();
+        try {
+            List<Long> written = new ArrayList<>();
+            for (int i = 0; i < batch.size(); i++) {
+                Entry entry = batch.get(i);
+                if (entry.revision != revisions.get(i)) continue;
+                dequeue(entry);
+                written.addAll(entry.seqs);
+            }
+            flushed += batch.size();
+            journalWritten(written);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dequeue(Entry entry) {
+        queue.remove(entry);
+        Map<LocalDate, Entry> byDate = pendingByWorker.get(entry.attendance.getWorker().getId());
+        if (byDate != null) {
+            byDate.remove(entry.attendance.getDate(), entry);
+            if (byDate.isEmpty()) pendingByWorker.remove(entry.attendance.getWorker().getId());
+        }
+    }
+
+    // Record that these journal seqs need no replay; call with the lock held
+    private void journalWritten(List<Long> seqs) {
+        try {
+            if (queue.isEmpty()) {
+                journal.truncate(0); // nothing left to replay
+                journal.force(false);
+            } else if (!seqs.isEmpty()) {
+                append(Map.of("flushed", seqs));
+            }
+        } catch (IOException e) {
+            noteError("journal: " + e.getMessage());
+        }
+    }
+
+    private synchronized void noteError(String message) {
+        lastError = LocalDateTime.now() + " " + message;
+    }
+
+    private synchronized void rejected(BulkAttendanceResult.Row row) {
+        rejected++;
+        recentRejections.addFirst(row.getWorkerId() + " " + row.getDate() + ": " + row.getReason());
+        while (recentRejections.size() > 20) {
+            recentRejections.removeLast();
+        }
+    }
+
+    private static Attendance copyOf(Attendance a) {
+        Attendance copy = new Attendance();
+        copy.setWorker(a.getWorker());
+        copy.setProject(a.getProject());
+        copy.setDate(a.getDate());
+        copy.setStatus(a.getStatus());
+        copy.setOvertimeHours(a.getOvertimeHours());
+        copy.setTotalPay(a.getTotalPay());
+        return copy;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        lock.lock();
+        try {
+            stats.put("queued", queue.size());
+            stats.put("accepted", accepted);
+            stats.put("flushed", flushed);
+            stats.put("deadLetters", deadLetters.size());
+        } finally {
+            lock.unlock();
+        }
+        stats.put("capacity", capacity);
+        synchronized (this) {
+            stats.put("rejected", rejected);
+            stats.put("recentRejections", new ArrayList<>(recentRejections));
+            stats.put("lastError", lastError);
+        }
+        return stats;
+    }
+
+    // Stop the writer and let a flush in progress finish before the journal is closed
+    @PreDestroy
+    public void shutdown() throws IOException, InterruptedException {
+        running = false;
+        if (writer != null) {
+            lock.lock();
+            try {
+                notEmpty.signalAll();
+            } finally {
+                lock.unlock();
+            }
+            writer.join(SHUTDOWN_WAIT_MILLIS);
+            if (writer.isAlive()) return; // still writing: leave the files to the JVM exit
+        }
+        if (journal != null) journal.close();
+        if (deadLetterFile != null) deadLetterFile.close();
+    }
+}
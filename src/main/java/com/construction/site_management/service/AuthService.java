@@ -7,18 +7,22 @@ import org.springframework.stereotype.Service;
 import com.construction.site_management.model.Worker;
 import com.construction.site_management.repository.WorkerRepository;
 import com.construction.site_management.payload.LoginResponse;
+import com.construction.site_management.support.AfterCommit;
 
 @Service
 public class AuthService {
 
     private final WorkerRepository workerRepository;
+    private final ReferenceDataCache referenceCache;
     private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
 
-    public AuthService(WorkerRepository workerRepository) {
+    public AuthService(WorkerRepository workerRepository, ReferenceDataCache referenceCache) {
         this.workerRepository = workerRepository;
+        this.referenceCache = referenceCache;
     }
 
     public LoginResponse login(String phone, String rawPassword) {
+        // credentials always come from the database, never from the reference cache
         Worker worker = workerRepository.findByPhone(phone)
                 .orElseThrow(() -> new RuntimeException("Invalid credentials"));
 
@@ -58,6 +62,7 @@ public class AuthService {
         worker.setPassword(hashed);
         worker.setMustResetPassword(false);
         workerRepository.save(worker);
+        AfterCommit.run(() -> referenceCache.workerChanged(workerId));
     }
 
     public void adminResetPassword(Long workerId) {
@@ -67,5 +72,6 @@ public class AuthService {
         worker.setPassword(passwordEncoder.encode(worker.getPhone()));
         worker.setMustResetPassword(true);
         workerRepository.save(worker);
+        AfterCommit.run(() -> referenceCache.workerChanged(workerId));
     }
 }
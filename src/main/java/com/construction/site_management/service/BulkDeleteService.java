@@ -0,0 +1,408 @@
+package com.construction.site_management.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.construction.site_management.model.DeletionJob;
+import com.construction.site_management.model.Project;
+import com.construction.site_management.model.SyncTombstone;
+import com.construction.site_management.repository.AttendanceDailyRollupRepository;
+import com.construction.site_management.repository.AttendanceMonthlySummaryRepository;
+import com.construction.site_management.repository.DeletionJobRepository;
+import com.construction.site_management.repository.PaymentMonthlyRollupRepository;
+import com.construction.site_management.repository.ProjectRepository;
+import com.construction.site_management.repository.WorkerRepository;
+import com.construction.site_management.support.AfterCommit;
+import com.construction.site_management.support.ChangeClock;
+
+import jakarta.annotation.PreDestroy;
+
+// Removes a worker or project together with its dependent rows using set-based
+// statements: one per child table (rollup delta, tombstones, delete/detach) instead
+// of loading and deleting every child through Hibernate.
+//  - worker:  attendance (hot rows and archived monthly summaries), payments and
+//             tasks are deleted
+//  - project: materials, attendance, payments and workers are kept but no longer
+//             assigned to the project. Tasks cannot exist without their project, so a
+//             project with tasks is only removed when the caller asks for its tasks to go
+//             too (deleteTasks); otherwise it is refused, as the foreign key always did
+// Small removals run in the caller's thread in one transaction. Larger ones
+// (more than deletion.async-threshold dependent rows) become a DeletionJob that works
+// through each table in id-ordered chunks, one transaction per chunk, reporting progress.
+@Service
+public class BulkDeleteService {
+
+    public static final String WORKER = "worker";
+    public static final String PROJECT = "project";
+
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    // one child table of a worker/project and the set-based action applied to its rows
+    private interface ChunkAction {
+        int run(Long ownerId, Long upToId);
+    }
+
+    private record Step(String table, String ownerColumn, ChunkAction action) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DeletionJobRepository jobRepository;
+    private final WorkerRepository workerRepository;
+    private final ProjectRepository projectRepository;
+    private final AttendanceDailyRollupRepository attendanceRollupRepository;
+    private final PaymentMonthlyRollupRepository paymentRollupRepository;
+    private final AttendanceMonthlySummaryRepository summaryRepository;
+    private final AttendanceArchiveService archiveService;
+    private final DashboardAggregateStore aggregateStore;
+    private final SummaryCache summaryCache;
+    private final TopPaidWorkersTracker topPaidWorkers;
+    private final ReferenceDataCache referenceCache;
+    private final WorkerSearchIndex searchIndex;
+    private final WorkerLedgerService ledgerService;
+
+    private final int chunkSize;
+    private final long asyncThreshold;
+    private final ExecutorService jobExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "deletion-job");
+        t.setDaemon(true);
+        return t;
+    });
+    private final Set<String> activeTargets = ConcurrentHashMap.newKeySet();
+
+    private final List<Step> workerSteps;
+    private final List<Step> projectSteps;
+    private final Step projectTasks;
+
+    public BulkDeleteService(JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            DeletionJobRepository jobRepository,
+            WorkerRepository workerRepository,
+            ProjectRepository projectRepository,
+            AttendanceDailyRollupRepository attendanceRollupRepository,
+            PaymentMonthlyRollupRepository paymentRollupRepository,
+            AttendanceMonthlySummaryRepository summaryRepository,
+            AttendanceArchiveService archiveService,
+            DashboardAggregateStore aggregateStore,
+            SummaryCache summaryCache,
+            TopPaidWorkersTracker topPaidWorkers,
+            ReferenceDataCache referenceCache,
+            WorkerSearchIndex searchIndex,
+            WorkerLedgerService ledgerService,
+            @Value("${deletion.chunk-size:5000}") int chunkSize,
+            @Value("${deletion.async-threshold:20000}") long asyncThreshold) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.jobRepository = jobRepository;
+        this.workerRepository = workerRepository;
+        this.projectRepository = projectRepository;
+        this.attendanceRollupRepository = attendanceRollupRepository;
+        this.paymentRollupRepository = paymentRollupRepository;
+        this.summaryRepository = summaryRepository;
+        this.archiveService = archiveService;
+        this.aggregateStore = aggregateStore;
+        this.summaryCache = summaryCache;
+        this.topPaidWorkers = topPaidWorkers;
+        this.referenceCache = referenceCache;
+        this.searchIndex = searchIndex;
+        this.ledgerService = ledgerService;
+        this.chunkSize = chunkSize;
+        this.asyncThreshold = asyncThreshold;
+
+        this.workerSteps = List.of(
+                new Step("attendance", "worker_id", this::deleteWorkerAttendance),
+                new Step("attendance_monthly_summary", "worker_id", this::deleteWorkerSummaries),
+                new Step("payment", "worker_id", this::deleteWorkerPayments),
+                new Step("task", "worker_id", (id, upTo) -> deleteSynced("task", SyncTombstone.TASK, "worker_id", id, upTo)));
+        this.projectTasks = new Step("task", "project_id",
+                (id, upTo) -> deleteSynced("task", SyncTombstone.TASK, "project_id", id, upTo));
+        this.projectSteps = List.of(
+                new Step("materials", "project_id", (id, upTo) -> jdbcTemplate.update(
+                        "UPDATE materials SET project_id = NULL WHERE project_id = ? AND id <= ?", id, upTo)),
+                new Step("attendance", "project_id", this::detachProjectAttendance),
+                new Step("attendance_monthly_summary", "project_id", this::detachProjectSummaries),
+                new Step("payment", "project_id", this::detachProjectPayments),
+                new Step("worker", "project_id", (id, upTo) -> detachSynced("worker", id, upTo)));
+    }
+
+    // ================= ENTRY POINTS =================
+
+    // Returns null when the worker was removed right away, otherwise the background job
+    public DeletionJob deleteWorker(Long workerId) {
+        if (!workerRepository.existsById(workerId)) {
+            throw new RuntimeException("Cannot delete — Worker not found with ID: " + workerId);
+        }
+        return start(WORKER, workerId, workerSteps);
+    }
+
+    // Returns null when the project was removed right away, otherwise the background job.
+    // Its tasks are deleted with it only when deleteTasks is set.
+    public DeletionJob deleteProject(Long projectId, boolean deleteTasks) {
+        if (!projectRepository.existsById(projectId)) {
+            throw new RuntimeException("Cannot delete — Project not found with ID: " + projectId);
+        }
+        if (deleteTasks) {
+            List<Step> steps = new ArrayList<>();
+            steps.add(projectTasks);
+            steps.addAll(projectSteps);
+            return start(PROJECT, projectId, steps);
+        }
+        long tasks = count(projectTasks, projectId);
+        if (tasks > 0) {
+            throw new RuntimeException("Cannot delete — Project " + projectId + " still has " + tasks
+                    + " task(s); delete them first or pass deleteTasks=true");
+        }
+        return start(PROJECT, projectId, projectSteps);
+    }
+
+    // All attendance of one worker in a single set-based pass
+    public int deleteAttendanceOfWorker(Long workerId) {
+        return transactionTemplate.execute(status -> {
+            return deleteWorkerAttendance(workerId, Long.MAX_VALUE);
+        });
+    }
+
+    public DeletionJob getJob(Long id) {
+        return jobRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Deletion job not found with ID: " + id));
+    }
+
+    public List<DeletionJob> getJobs() {
+        return jobRepository.findAllByOrderByIdDesc();
+    }
+
+    private DeletionJob start(String type, Long ownerId, List<Step> steps) {
+        String target = type + ":" + ownerId;
+        if (!activeTargets.add(target)) {
+            throw new RuntimeException("Deletion of " + type + " " + ownerId + " is already in progress");
+        }
+        try {
+            long total = 0;
+            for (Step step : steps) {
+                total += count(step, ownerId);
+            }
+
+            if (total <= asyncThreshold) {
+                transactionTemplate.executeWithoutResult(status -> {
+                    for (Step step : steps) {
+                        step.action().run(ownerId, Long.MAX_VALUE);
+                    }
+                    deleteOwner(type, ownerId);
+                });
+                activeTargets.remove(target);
+                return null;
+            }
+
+            DeletionJob job = jobRepository.save(new DeletionJob(null, type, ownerId, RUNNING, total, 0,
+                    LocalDateTime.now(), null, null));
+            jobExecutor.execute(() -> runJob(job.getId(), target, type, ownerId, steps));
+            return job;
+        } catch (RuntimeException e) {
+            activeTargets.remove(target);
+            throw e;
+        }
+    }
+
+    private void runJob(Long jobId, String target, String type, Long ownerId, List<Step> steps) {
+        try {
+            for (Step step : steps) {
+                Long upTo;
+                while ((upTo = chunkBoundary(step, ownerId)) != null) {
+                    Long boundary = upTo;
+                    transactionTemplate.executeWithoutResult(status -> {
+                        int rows = step.action().run(ownerId, boundary);
+                        DeletionJob job = jobRepository.findById(jobId).orElseThrow();
+                        job.setProcessedRows(job.getProcessedRows() + rows);
+                        jobRepository.save(job);
+                    });
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> deleteOwner(type, ownerId));
+            finishJob(jobId, COMPLETED, null);
+        } catch (RuntimeException e) {
+            // rerunning the delete picks up the rows that are left; committed chunks
+            // have already been taken out of the dashboard totals
+            finishJob(jobId, FAILED, e.getMessage());
+            summaryCache.workersChanged();
+        } finally {
+            activeTargets.remove(target);
+        }
+    }
+
+    private void finishJob(Long jobId, String status, String message) {
+        DeletionJob job = jobRepository.findById(jobId).orElseThrow();
+        job.setStatus(status);
+        job.setFinishedAt(LocalDateTime.now());
+        job.setMessage(message != null && message.length() > 500 ? message.substring(0, 500) : message);
+        jobRepository.save(job);
+    }
+
+    // Remove the worker/project row itself (through JPA, so it leaves its own tombstone)
+    private void deleteOwner(String type, Long ownerId) {
+        if (WORKER.equals(type)) {
+            workerRepository.findById(ownerId).ifPresent(workerRepository::delete);
+            ledgerService.removeWorker(ownerId);
+            AfterCommit.run(() -> {
+                topPaidWorkers.removeWorker(ownerId);
+                referenceCache.workerChanged(ownerId);
+                searchIndex.remove(ownerId);
+                summaryCache.workersChanged();
+            });
+        } else {
+            Optional<Project> project = projectRepository.findById(ownerId);
+            project.ifPresent(projectRepository::delete);
+            String status = project.map(Project::getStatus).orElse(null);
+            AfterCommit.run(() -> {
+                if (project.isPresent()) {
+                    aggregateStore.recordProjectStatus(status, null, true, false);
+                }
+                topPaidWorkers.removeProject(ownerId);
+                referenceCache.projectChanged(ownerId);
+                summaryCache.projectsChanged();
+                summaryCache.workersChanged();
+            });
+        }
+    }
+
+    // ================= CHUNKS =================
+
+    private long count(Step step, Long ownerId) {
+        Long n = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM " + step.table() + " WHERE " + step.ownerColumn() + " = ?", Long.class, ownerId);
+        return n != null ? n : 0;
+    }
+
+    // Highest id among the next chunkSize rows still owned, or null when none are left
+    private Long chunkBoundary(Step step, Long ownerId) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM " + step.table() + " WHERE " + step.ownerColumn() + " = ? ORDER BY id LIMIT 1 OFFSET ?",
+                Long.class, ownerId, chunkSize - 1);
+        if (!ids.isEmpty()) return ids.get(0);
+        return jdbcTemplate.queryForObject(
+                "SELECT MAX(id) FROM " + step.table() + " WHERE " + step.ownerColumn() + " = ?", Long.class, ownerId);
+    }
+
+    // ================= SET-BASED ACTIONS =================
+
+    private int deleteWorkerAttendance(Long workerId, Long upTo) {
+        attendanceRemoved("SELECT COUNT(*) AS records, COALESCE(SUM(overtime_hours), 0) AS hours " +
+                "FROM attendance WHERE worker_id = ? AND id <= ? AND date IS NOT NULL", workerId, upTo);
+        attendanceRollupRepository.subtractWorkerRows(workerId, upTo);
+        ledgerService.attendanceOfWorkerDeleted(workerId, upTo);
+        return deleteSynced("attendance", SyncTombstone.ATTENDANCE, "worker_id", workerId, upTo);
+    }
+
+    // Archived months: their share of the daily rollup goes with the summaries
+    private int deleteWorkerSummaries(Long workerId, Long upTo) {
+        attendanceRemoved("SELECT COALESCE(SUM(present_days + absent_days + other_days), 0) AS records, " +
+                "COALESCE(SUM(overtime_hours), 0) AS hours " +
+                "FROM attendance_monthly_summary WHERE worker_id = ? AND id <= ?", workerId, upTo);
+        attendanceRollupRepository.subtractWorkerSummaries(workerId, upTo);
+        return summaryRepository.deleteWorkerRows(workerId, upTo);
+    }
+
+    private int deleteWorkerPayments(Long workerId, Long upTo) {
+        paymentsRemoved(workerId, upTo);
+        paymentRollupRepository.subtractWorkerRows(workerId, upTo);
+        return deleteSynced("payment", SyncTombstone.PAYMENT, "worker_id", workerId, upTo);
+    }
+
+    // The dashboard store drops the totals of rows about to be deleted once their chunk
+    // commits, as the single-row delete paths do, instead of rereading every table
+    private void attendanceRemoved(String totalsSql, Long workerId, Long upTo) {
+        Map<String, Object> totals = jdbcTemplate.queryForMap(totalsSql, workerId, upTo);
+        long records = ((Number) totals.get("records")).longValue();
+        double hours = ((Number) totals.get("hours")).doubleValue();
+        if (records == 0 && hours == 0) return;
+        AfterCommit.run(() -> {
+            aggregateStore.recordAttendanceTotals(records, hours, -1);
+            summaryCache.attendanceChanged();
+        });
+    }
+
+    private void paymentsRemoved(Long workerId, Long upTo) {
+        List<Map<String, Object>> totals = jdbcTemplate.queryForList(
+                "SELECT YEAR(date) * 100 + MONTH(date) AS period, type, SUM(amount) AS amount FROM payment " +
+                "WHERE worker_id = ? AND id <= ? GROUP BY YEAR(date) * 100 + MONTH(date), type", workerId, upTo);
+        if (totals.isEmpty()) return;
+        AfterCommit.run(() -> {
+            for (Map<String, Object> row : totals) {
+                Number period = (Number) row.get("period");
+                YearMonth month = period != null ? PaymentRollupService.toYearMonth(period.intValue()) : null;
+                aggregateStore.recordPaymentTotal((String) row.get("type"), month,
+                        -((Number) row.get("amount")).doubleValue());
+            }
+            summaryCache.paymentsChanged();
+        });
+    }
+
+    private int detachProjectAttendance(Long projectId, Long upTo) {
+        attendanceRollupRepository.subtractProjectRows(projectId, upTo);
+        attendanceRollupRepository.addProjectRowsUnassigned(projectId, upTo);
+        return detachSynced("attendance", projectId, upTo);
+    }
+
+    // Archived months: the project's summaries move to each worker's no-project bucket,
+    // and its archived days of the daily rollup to bucket 0 (a no-op on later chunks)
+    private int detachProjectSummaries(Long projectId, Long upTo) {
+        LocalDate hotStart = archiveService.getHotStart();
+        if (hotStart != null) {
+            attendanceRollupRepository.addArchivedProjectDaysUnassigned(projectId, hotStart);
+            attendanceRollupRepository.deleteArchivedProjectDays(projectId, hotStart);
+        }
+        summaryRepository.addProjectRowsUnassigned(projectId, upTo);
+        return summaryRepository.deleteProjectRows(projectId, upTo);
+    }
+
+    // Payments keep their amounts but move from the project's rollup buckets to bucket 0
+    private int detachProjectPayments(Long projectId, Long upTo) {
+        paymentRollupRepository.subtractProjectRows(projectId, upTo);
+        paymentRollupRepository.addProjectRowsUnassigned(projectId, upTo);
+        return detachSynced("payment", projectId, upTo);
+    }
+
+    // Tombstone then delete the rows of a synced table
+    private int deleteSynced(String table, String entityType, String ownerColumn, Long ownerId, Long upTo) {
+        Long offset = reserveVersions(table, ownerColumn, ownerId, upTo);
+        if (offset == null) return 0;
+        jdbcTemplate.update("INSERT INTO sync_tombstone (entity_type, entity_id, change_version, deleted_at) " +
+                "SELECT ?, id, id + ?, NOW() FROM " + table + " WHERE " + ownerColumn + " = ? AND id <= ?",
+                entityType, offset, ownerId, upTo);
+        return jdbcTemplate.update("DELETE FROM " + table + " WHERE " + ownerColumn + " = ? AND id <= ?", ownerId, upTo);
+    }
+
+    // Clear project_id on a synced table, bumping each row's change version
+    private int detachSynced(String table, Long projectId, Long upTo) {
+        Long offset = reserveVersions(table, "project_id", projectId, upTo);
+        if (offset == null) return 0;
+        return jdbcTemplate.update("UPDATE " + table + " SET project_id = NULL, change_version = id + ? " +
+                "WHERE project_id = ? AND id <= ?", offset, projectId, upTo);
+    }
+
+    // Versions for the affected rows are id + offset: unique, and above everything already handed out
+    private Long reserveVersions(String table, String ownerColumn, Long ownerId, Long upTo) {
+        Map<String, Object> range = jdbcTemplate.queryForMap("SELECT MIN(id) AS lo, MAX(id) AS hi FROM " + table +
+                " WHERE " + ownerColumn + " = ? AND id <= ?", ownerId, upTo);
+        if (range.get("lo") == null) return null;
+        long lo = ((Number) range.get("lo")).longValue();
+        long hi = ((Number) range.get("hi")).longValue();
+        return ChangeClock.reserve(hi - lo + 1) - lo;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,266 @@
+package com.construction.site_management.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import com.construction.site_management.model.Attendance;
+import com.construction.site_management.model.Payment;
+import com.construction.site_management.repository.AttendanceDailyRollupRepository;
+import com.construction.site_management.repository.PaymentMonthlyRollupRepository;
+import com.construction.site_management.repository.ProjectRepository;
+
+// In-memory running totals behind the dashboard.
+// Seeded once from the database, then kept current by the payment, attendance
+// and project write paths so the summary never has to scan those tables.
+@Component
+public class DashboardAggregateStore {
+
+    private final PaymentMonthlyRollupRepository paymentRollupRepository;
+    private final AttendanceDailyRollupRepository rollupRepository;
+    private final ProjectRepository projectRepository;
+
+    // a rebuild retries this many times when a write commits while its own query runs
+    private static final int REBUILD_ATTEMPTS = 3;
+
+    // the seed query each write path feeds
+    private static final int PAYMENTS = 0;
+    private static final int PROJECTS = 1;
+    private static final int ATTENDANCE = 2;
+
+    // progress of each seed query during a rebuild
+    private static final int NOT_READ = 0;
+    private static final int READING = 1;
+    private static final int READ = 2;
+
+    private final Object rebuildLock = new Object();
+
+    private boolean seeded;
+    // while a rebuild runs: how far each seed query is, and the deltas to replay on its result
+    private int[] readState;
+    private List<Runnable> pending;
+    // a delta landed while its query was running, so the query may or may not include it
+    private boolean ambiguous;
+
+    private double salaryTotal;
+    private double advanceTotal;
+    private final Map<YearMonth, double[]> monthly = new HashMap<>(); // [salary, advance]
+
+    private final Map<String, Long> projectsByStatus = new HashMap<>();
+
+    private long attendanceRecords;
+    private double overtimeHours;
+
+    // totals read by one rebuild pass, installed as a whole
+    private static class Seed {
+        double salaryTotal;
+        double advanceTotal;
+        final Map<YearMonth, double[]> monthly = new HashMap<>();
+        final Map<String, Long> projectsByStatus = new HashMap<>();
+        long attendanceRecords;
+        double overtimeHours;
+    }
+
+    public DashboardAggregateStore(PaymentMonthlyRollupRepository paymentRollupRepository,
+            AttendanceDailyRollupRepository rollupRepository,
+            ProjectRepository projectRepository) {
+        this.paymentRollupRepository = paymentRollupRepository;
+        this.rollupRepository = rollupRepository;
+        this.projectRepository = projectRepository;
+    }
+
+    // runs after the attendance and payment rollups have been built
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(1)
+    public void seed() {
+        rebuild();
+    }
+
+    // Reload everything from the database (startup, or after cascading deletes).
+    // A delta that lands before its seed query starts is already in the database it reads,
+    // and one that lands after the query finished is replayed onto the result. One that
+    // lands while the query runs may be in either, so that pass is discarded and read again;
+    // only if writes keep landing there is it kept with the delta replayed.
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            for (int attempt = 1; ; attempt++) {
+                synchronized (this) {
+                    readState = new int[3];
+                    pending = new ArrayList<>();
+                    ambiguous = false;
+                }
+                Seed seed;
+                try {
+                    seed = load();
+                } catch (RuntimeException e) {
+                    synchronized (this) {
+                        readState = null;
+                        pending = null;
+                    }
+                    throw e;
+                }
+                synchronized (this) {
+                    if (ambiguous && attempt < REBUILD_ATTEMPTS) continue;
+                    install(seed);
+                    pending.forEach(Runnable::run);
+                    readState = null;
+                    pending = null;
+                    return;
+                }
+            }
+        }
+    }
+
+    private Seed load() {
+        Seed seed = new Seed();
+        reading(PAYMENTS, READING);
+        for (Object[] row : paymentRollupRepository.monthlyTotalsSince(0)) {
+            YearMonth month = PaymentRollupService.toYearMonth((Integer) row[0]);
+            double amount = ((Number) row[2]).doubleValue();
+            int slot = paymentSlot((String) row[1]);
+            if (slot == 0) seed.salaryTotal += amount;
+            if (slot == 1) seed.advanceTotal += amount;
+            if (slot >= 0 && month != null) seed.monthly.computeIfAbsent(month, m -> new double[2])[slot] += amount;
+        }
+        reading(PAYMENTS, READ);
+
+        reading(PROJECTS, READING);
+        for (Object[] row : projectRepository.countGroupByStatus()) {
+            seed.projectsByStatus.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        reading(PROJECTS, READ);
+
+        reading(ATTENDANCE, READING);
+        Object[] attendanceTotals = rollupRepository.totals().get(0);
+        seed.attendanceRecords = ((Number) attendanceTotals[0]).longValue();
+        seed.overtimeHours = ((Number) attendanceTotals[1]).doubleValue();
+        reading(ATTENDANCE, READ);
+        return seed;
+    }
+
+    private synchronized void reading(int source, int state) {
+        readState[source] = state;
+    }
+
+    private void install(Seed seed) {
+        salaryTotal = seed.salaryTotal;
+        advanceTotal = seed.advanceTotal;
+        monthly.clear();
+        monthly.putAll(seed.monthly);
+        projectsByStatus.clear();
+        projectsByStatus.putAll(seed.projectsByStatus);
+        attendanceRecords = seed.attendanceRecords;
+        overtimeHours = seed.overtimeHours;
+        seeded = true;
+    }
+
+    // ================= WRITE PATHS =================
+
+    public synchronized void recordPayment(Payment payment, int sign) {
+        double amount = sign * payment.getAmount();
+        LocalDate date = payment.getDate();
+        YearMonth month = date != null ? YearMonth.from(date) : null;
+        apply(PAYMENTS, () -> addPaymentAmount(payment.getType(), month, amount));
+    }
+
+    public synchronized void recordAttendance(Attendance attendance, int sign) {
+        double hours = attendance.getOvertimeHours();
+        apply(ATTENDANCE, () -> {
+            attendanceRecords += sign;
+            overtimeHours += sign * hours;
+        });
+    }
+
+    // Totals of many rows at once (set-based deletes)
+    public synchronized void recordAttendanceTotals(long records, double hours, int sign) {
+        apply(ATTENDANCE, () -> {
+            attendanceRecords += sign * records;
+            overtimeHours += sign * hours;
+        });
+    }
+
+    public synchronized void recordPaymentTotal(String type, YearMonth month, double amount) {
+        apply(PAYMENTS, () -> addPaymentAmount(type, month, amount));
+    }
+
+    public synchronized void recordOvertimeChange(double previousHours, double newHours) {
+        apply(ATTENDANCE, () -> overtimeHours += newHours - previousHours);
+    }
+
+    public synchronized void recordProjectStatus(String previousStatus, String newStatus, boolean existedBefore,
+            boolean existsAfter) {
+        apply(PROJECTS, () -> {
+            if (existedBefore) {
+                projectsByStatus.merge(previousStatus, -1L, Long::sum);
+            }
+            if (existsAfter) {
+                projectsByStatus.merge(newStatus, 1L, Long::sum);
+            }
+        });
+    }
+
+    // Apply a delta now, and remember it if a rebuild has started reading its source
+    private void apply(int source, Runnable delta) {
+        if (seeded) delta.run();
+        if (readState == null || readState[source] == NOT_READ) return;
+        if (readState[source] == READING) ambiguous = true;
+        pending.add(delta);
+    }
+
+    // 0 = salary, 1 = advance, -1 = not tracked
+    private static int paymentSlot(String type) {
+        if ("Salary".equalsIgnoreCase(type)) return 0;
+        if ("Advance".equalsIgnoreCase(type)) return 1;
+        return -1;
+    }
+
+    private void addPaymentAmount(String type, YearMonth month, double amount) {
+        int slot = paymentSlot(type);
+        if (slot < 0) return;
+        if (slot == 0) {
+            salaryTotal += amount;
+        } else {
+            advanceTotal += amount;
+        }
+        if (month != null) {
+            monthly.computeIfAbsent(month, m -> new double[2])[slot] += amount;
+        }
+    }
+
+    // ================= READS =================
+
+    public synchronized double getSalaryTotal() {
+        return salaryTotal;
+    }
+
+    public synchronized double getAdvanceTotal() {
+        return advanceTotal;
+    }
+
+    // [salary, advance] paid in the given month
+    public synchronized double[] getMonth(YearMonth month) {
+        double[] bucket = monthly.get(month);
+        return bucket != null ? bucket.clone() : new double[2];
+    }
+
+    public synchronized long getProjectCount(String status) {
+        return projectsByStatus.getOrDefault(status, 0L);
+    }
+
+    public synchronized long getTotalProjects() {
+        return projectsByStatus.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public synchronized long getAttendanceRecords() {
+        return attendanceRecords;
+    }
+
+    public synchronized double getOvertimeHours() {
+        return overtimeHours;
+    }
+}
@@ -2,13 +2,13 @@ package com.construction.site_management.service;
 
 import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import com.construction.site_management.repository.AttendanceRepository;
-import com.construction.site_management.repository.PaymentRepository;
-import com.construction.site_management.repository.ProjectRepository;
+import com.construction.site_management.repository.AttendanceDailyRollupRepository;
 import com.construction.site_management.repository.WorkerRepository;
 
 @Service
@@ -18,32 +18,50 @@ public class DashboardService {
     private WorkerRepository workerRepository;
 
     @Autowired
-    private ProjectRepository projectRepository;
+    private AttendanceDailyRollupRepository rollupRepository;
 
     @Autowired
-    private AttendanceRepository attendanceRepository;
+    private DashboardAggregateStore aggregateStore;
 
     @Autowired
-    private PaymentRepository paymentRepository;
+    private SummaryCache summaryCache;
+
+    @Autowired
+    private QueryFanOut queryFanOut;
+
+    @Autowired
+    private TopPaidWorkersTracker topPaidWorkers;
 
     public Map<String, Object> getDashboardSummary() {
+        return summaryCache.dashboard(this::computeDashboardSummary);
+    }
+
+    private Map<String, Object> computeDashboardSummary() {
 
         Map<String, Object> summary = new HashMap<>();
 
+        LocalDate end = LocalDate.now();
+        LocalDate start = end.minusDays(6);
+
+        // The remaining database queries are independent: issue them together
+        CompletableFuture<Long> workerCount = queryFanOut.submit(workerRepository::count);
+        CompletableFuture<Double> averageAttendance = queryFanOut.submit(rollupRepository::averageRecordsPerDay);
+        CompletableFuture<List<Object[]>> weeklyRows = queryFanOut.submit(
+                () -> rollupRepository.recordsPerDay(start, end));
+
         // ====================================================
         // BASIC COUNTS
         // ====================================================
-        long totalWorkers = workerRepository.count();
-        long totalProjects = projectRepository.count();
-        long activeProjects = projectRepository.countByStatus("Active");
-        long completedProjects = projectRepository.countByStatus("Completed");
-        long pendingProjects = projectRepository.countByStatus("Pending");
-        long totalAttendanceRecords = attendanceRepository.count();
+        long totalWorkers = queryFanOut.await("workerCount", workerCount);
+        long totalProjects = aggregateStore.getTotalProjects();
+        long activeProjects = aggregateStore.getProjectCount("Active");
+        long completedProjects = aggregateStore.getProjectCount("Completed");
+        long pendingProjects = aggregateStore.getProjectCount("Pending");
+        long totalAttendanceRecords = aggregateStore.getAttendanceRecords();
 
-        Double totalOvertimeHours = attendanceRepository.sumOvertimeHours();
-        if (totalOvertimeHours == null) totalOvertimeHours = 0.0;
+        double totalOvertimeHours = aggregateStore.getOvertimeHours();
 
-        Double avgAttendance = attendanceRepository.findAverageAttendancePerDay();
+        Double avgAttendance = queryFanOut.await("averageAttendance", averageAttendance);
         if (avgAttendance == null) avgAttendance = 0.0;
 
         summary.put("totalWorkers", totalWorkers);
@@ -58,20 +76,19 @@ public class DashboardService {
         // ====================================================
         // WEEKLY ATTENDANCE SUMMARY (for chart)
         // ====================================================
-        LocalDate end = LocalDate.now();
-        LocalDate start = end.minusDays(6);
-
-        List<Object[]> raw = attendanceRepository.findAttendanceBetweenDates(start, end);
+        // at most seven rollup rows: records that day / days with attendance in the window
+        List<Object[]> raw = queryFanOut.await("weeklyAttendance", weeklyRows);
 
         Map<DayOfWeek, Double> map = new HashMap<>();
         for (int i = 0; i < 7; i++) {
             map.put(start.plusDays(i).getDayOfWeek(), 0.0);
         }
 
+        int activeDays = raw.size();
         for (Object[] row : raw) {
-            String dayName = (String) row[0];
-            Double val = (Double) row[1];
-            map.put(DayOfWeek.valueOf(dayName.toUpperCase()), val);
+            LocalDate day = (LocalDate) row[0];
+            long records = ((Number) row[1]).longValue();
+            map.put(day.getDayOfWeek(), records * 1.0 / activeDays);
         }
 
         List<Map<String, Object>> weekly = new ArrayList<>();
@@ -89,15 +106,8 @@ public class DashboardService {
         // ⭐ FINANCE SUMMARY (used in updated Dashboard)
         // ====================================================
 
-        Double totalSalary = paymentRepository.findAll().stream()
-                .filter(p -> "Salary".equalsIgnoreCase(p.getType()))
-                .mapToDouble(p -> p.getAmount())
-                .sum();
-
-        Double totalAdvance = paymentRepository.findAll().stream()
-                .filter(p -> "Advance".equalsIgnoreCase(p.getType()))
-                .mapToDouble(p -> p.getAmount())
-                .sum();
+        double totalSalary = aggregateStore.getSalaryTotal();
+        double totalAdvance = aggregateStore.getAdvanceTotal();
 
         summary.put("totalSalary", totalSalary);
         summary.put("totalAdvance", totalAdvance);
@@ -109,22 +119,13 @@ public class DashboardService {
         List<Object[]> salaryMonthly = new ArrayList<>();
         List<Object[]> advanceMonthly = new ArrayList<>();
 
-        LocalDate today = LocalDate.now();
+        YearMonth current = YearMonth.now();
         for (int i = 5; i >= 0; i--) {
-            int month = today.minusMonths(i).getMonthValue();
-
-            double sal = paymentRepository.findAll().stream()
-                    .filter(p -> "Salary".equalsIgnoreCase(p.getType()))
-                    .filter(p -> p.getDate() != null && p.getDate().getMonthValue() == month)
-                    .mapToDouble(p -> p.getAmount()).sum();
-
-            double adv = paymentRepository.findAll().stream()
-                    .filter(p -> "Advance".equalsIgnoreCase(p.getType()))
-                    .filter(p -> p.getDate() != null && p.getDate().getMonthValue() == month)
-                    .mapToDouble(p -> p.getAmount()).sum();
+            YearMonth ym = current.minusMonths(i);
+            double[] bucket = aggregateStore.getMonth(ym);
 
-            salaryMonthly.add(new Object[]{month, sal});
-            advanceMonthly.add(new Object[]{month, adv});
+            salaryMonthly.add(new Object[]{ym.getMonthValue(), bucket[0]});
+            advanceMonthly.add(new Object[]{ym.getMonthValue(), bucket[1]});
         }
 
         summary.put("salaryMonthly", salaryMonthly);
@@ -133,31 +134,7 @@ public class DashboardService {
         // -----------------------------
         // TOP PAID WORKERS
         // -----------------------------
-        Map<Long, Double> salaryMap = new HashMap<>();
-
-        paymentRepository.findAll().forEach(p -> {
-            if ("Salary".equalsIgnoreCase(p.getType())) {
-                salaryMap.put(
-                        p.getWorker().getId(),
-                        salaryMap.getOrDefault(p.getWorker().getId(), 0.0) + p.getAmount()
-                );
-            }
-        });
-
-        List<Object[]> topWorkers = new ArrayList<>();
-
-        salaryMap.entrySet().stream()
-                .sorted((a, b) -> Double.compare(b.getValue(), a.getValue()))
-                .limit(5)
-                .forEach(e -> {
-                    topWorkers.add(new Object[]{
-                            e.getKey(),
-                            workerRepository.findById(e.getKey()).get().getName(),
-                            e.getValue()
-                    });
-                });
-
-        summary.put("topPaidWorkers", topWorkers);
+        summary.put("topPaidWorkers", topPaidWorkers.top(5));
 
         return summary;
     }
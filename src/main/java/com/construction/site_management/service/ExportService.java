@@ -0,0 +1,213 @@
+package com.construction.site_management.service;
+
+import java.io.*;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.*;
+import java.time.LocalDate;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+// Streams flat export rows from a forward-only result set straight to the response.
+// Connector/J only streams row by row with fetch size Integer.MIN_VALUE; any other
+// value makes it buffer the whole result in the JVM first. Memory use is one row
+// plus the output buffer, whatever the row count.
+@Service
+public class ExportService {
+
+    public static final String CSV = "csv";
+    public static final String NDJSON = "ndjson";
+
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    // bounds used when an export leaves one end of the range open
+    private static final LocalDate EARLIEST_DATE = LocalDate.of(1900, 1, 1);
+    private static final LocalDate LATEST_DATE = LocalDate.of(9999, 12, 31);
+
+    private static final String ATTENDANCE_SQL =
+            "SELECT a.id, a.date, a.worker_id, w.name AS worker_name, a.project_id, p.name AS project_name, " +
+            "a.status, a.overtime_hours, a.total_pay " +
+            "FROM attendance a JOIN worker w ON w.id = a.worker_id LEFT JOIN projects p ON p.id = a.project_id " +
+            "WHERE a.date BETWEEN ? AND ? ORDER BY a.date, a.id";
+
+    private static final String PAYMENT_SQL =
+            "SELECT pm.id, pm.date, pm.type, pm.amount, pm.worker_id, w.name AS worker_name, pm.project_id, " +
+            "pm.payroll_run_id, pm.note " +
+            "FROM payment pm JOIN worker w ON w.id = pm.worker_id " +
+            "WHERE pm.date BETWEEN ? AND ? ORDER BY pm.id";
+
+    private static final String MATERIAL_SQL =
+            "SELECT m.id, m.name, m.quantity, m.unit, m.cost_per_unit, m.supplier_name, m.project_id, " +
+            "p.name AS project_name " +
+            "FROM materials m LEFT JOIN projects p ON p.id = m.project_id ORDER BY m.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public ExportService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public static void checkFormat(String format) {
+        if (!CSV.equals(format) && !NDJSON.equals(format)) {
+            throw new RuntimeException("Unsupported export format: " + format + " (use csv or ndjson)");
+        }
+    }
+
+    public void exportAttendance(LocalDate from, LocalDate to, String format, OutputStream out) throws IOException {
+        stream(ATTENDANCE_SQL, format, out, from != null ? from : EARLIEST_DATE, to != null ? to : LATEST_DATE);
+    }
+
+    public void exportPayments(LocalDate from, LocalDate to, String format, OutputStream out) throws IOException {
+        stream(PAYMENT_SQL, format, out, from != null ? from : EARLIEST_DATE, to != null ? to : LATEST_DATE);
+    }
+
+    public void exportMaterials(String format, OutputStream out) throws IOException {
+        stream(MATERIAL_SQL, format, out);
+    }
+
+    private void stream(String sql, String format, OutputStream out, Object... params) throws IOException {
+        RowWriter writer = NDJSON.equals(format) ? new NdjsonWriter(out) : new CsvWriter(out);
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(STREAMING_FETCH_SIZE);
+            for (int i = 0; i < params.length; i++) {
+                ps.setObject(i + 1, params[i]);
+            }
+            return ps;
+        }, (ResultSetExtractor<Void>) rs -> {
+            try {
+                writer.header(rs.getMetaData());
+                while (rs.next()) {
+                    writer.row(rs);
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e); // client went away
+            }
+            return null;
+        });
+        writer.finish();
+    }
+
+    // ================= WRITERS =================
+
+    private interface RowWriter {
+        void header(ResultSetMetaData meta) throws SQLException, IOException;
+
+        void row(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    private static class CsvWriter implements RowWriter {
+        private final Writer out;
+        private int columns;
+
+        CsvWriter(OutputStream out) {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void header(ResultSetMetaData meta) throws SQLException, IOException {
+            columns = meta.getColumnCount();
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) out.write(',');
+                out.write(meta.getColumnLabel(i));
+            }
+            out.write('\n');
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) out.write(',');
+                Object value = rs.getObject(i);
+                if (value != null) out.write(escape(value.toString()));
+            }
+            out.write('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            out.flush();
+        }
+
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0
+                    && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+
+    private class NdjsonWriter implements RowWriter {
+        private final JsonGenerator json;
+        private String[] names;
+
+        NdjsonWriter(OutputStream out) throws IOException {
+            this.json = jsonFactory.createGenerator(out, JsonEncoding.UTF8);
+            this.json.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void header(ResultSetMetaData meta) throws SQLException {
+            names = new String[meta.getColumnCount()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = toCamelCase(meta.getColumnLabel(i + 1));
+            }
+        }
+
+        @Override
+        public void row(ResultSet rs) throws SQLException, IOException {
+            json.writeStartObject();
+            for (int i = 0; i < names.length; i++) {
+                json.writeFieldName(names[i]);
+                writeValue(rs.getObject(i + 1));
+            }
+            json.writeEndObject();
+            json.writeRaw('\n');
+        }
+
+        private void writeValue(Object value) throws IOException {
+            if (value == null) {
+                json.writeNull();
+            } else if (value instanceof Integer || value instanceof Long) {
+                json.writeNumber(((Number) value).longValue());
+            } else if (value instanceof BigDecimal d) {
+                json.writeNumber(d);
+            } else if (value instanceof Number n) {
+                json.writeNumber(n.doubleValue());
+            } else if (value instanceof Boolean b) {
+                json.writeBoolean(b);
+            } else {
+                json.writeString(value.toString()); // dates come out as yyyy-MM-dd
+            }
+        }
+
+        @Override
+        public void finish() throws IOException {
+            json.flush();
+        }
+
+        private static String toCamelCase(String column) {
+            StringBuilder sb = new StringBuilder(column.length());
+            boolean upper = false;
+            for (char c : column.toCharArray()) {
+                if (c == '_') {
+                    upper = true;
+                } else {
+                    sb.append(upper ? Character.toUpperCase(c) : c);
+                    upper = false;
+                }
+            }
+            return sb.toString();
+        }
+    }
+}
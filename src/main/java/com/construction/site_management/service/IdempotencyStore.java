@@ -0,0 +1,122 @@
+package com.construction.site_management.service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import com.construction.site_management.support.SingleFlight;
+
+// Remembers the responses of recent POSTs sent with an Idempotency-Key header.
+//  - a retry with the same key is answered from memory, without touching the database
+//  - concurrent requests with the same key share one execution (SingleFlight)
+//  - the same key with a different request body is refused with 422
+//  - bounded LRU with a TTL. Only outcomes a retry would get again are kept (2xx and
+//    validation 4xx); 5xx, 408, 409 and 429 are not, so a retry runs the request again
+@Component
+public class IdempotencyStore {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private record Stored(String fingerprint, ResponseEntity<?> response, long storedAt) {
+    }
+
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final Map<String, Stored> entries;
+    private final SingleFlight<String, ResponseEntity<?>> inFlight = new SingleFlight<>();
+
+    private final AtomicLong replays = new AtomicLong();
+    private final AtomicLong mismatches = new AtomicLong();
+
+    public IdempotencyStore(@Value("${idempotency.max-entries:10000}") int maxEntries,
+            @Value("${idempotency.ttl-minutes:60}") long ttlMinutes) {
+        this.maxEntries = maxEntries;
+        this.ttlNanos = Duration.ofMinutes(ttlMinutes).toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Stored> eldest) {
+                return size() > IdempotencyStore.this.maxEntries;
+            }
+        };
+    }
+
+    // Run the request once per (scope, key); without a key it simply runs
+    public ResponseEntity<?> execute(String scope, String key, String fingerprint,
+            Supplier<ResponseEntity<?>> request) {
+        if (key == null || key.isBlank()) {
+            return request.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            return ResponseEntity.badRequest().body(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        String storeKey = scope + ":" + key;
+
+        Stored stored = lookup(storeKey);
+        if (stored == null) {
+            ResponseEntity<?> response = inFlight.execute(storeKey, () -> {
+                Stored done = lookup(storeKey); // finished between the lookup above and here
+                if (done != null) return done.response();
+                ResponseEntity<?> result = request.get();
+                if (replayable(result.getStatusCode())) {
+                    synchronized (entries) {
+                        entries.put(storeKey, new Stored(fingerprint, result, System.nanoTime()));
+                    }
+                }
+                return result;
+            });
+            stored = lookup(storeKey);
+            if (stored == null || Objects.equals(stored.fingerprint(), fingerprint)) {
+                return response; // ours, or shared with a concurrent identical request
+            }
+        }
+
+        if (!Objects.equals(stored.fingerprint(), fingerprint)) {
+            mismatches.incrementAndGet();
+            return ResponseEntity.unprocessableEntity()
+                    .body(HEADER + " " + key + " was already used for a different request");
+        }
+        replays.incrementAndGet();
+        return ResponseEntity.status(stored.response().getStatusCode())
+                .headers(stored.response().getHeaders())
+                .header(REPLAYED_HEADER, "true")
+                .body(stored.response().getBody());
+    }
+
+    private static boolean replayable(HttpStatusCode status) {
+        if (status.is2xxSuccessful()) return true;
+        int code = status.value();
+        return status.is4xxClientError() && code != 408 && code != 409 && code != 429;
+    }
+
+    private Stored lookup(String storeKey) {
+        synchronized (entries) {
+            Stored stored = entries.get(storeKey);
+            if (stored != null && System.nanoTime() - stored.storedAt() > ttlNanos) {
+                entries.remove(storeKey);
+                return null;
+            }
+            return stored;
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        synchronized (entries) {
+            stats.put("entries", entries.size());
+        }
+        stats.put("maxEntries", maxEntries);
+        stats.put("replays", replays.get());
+        stats.put("mismatches", mismatches.get());
+        stats.put("execution", inFlight.stats());
+        return stats;
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.construction.site_management.model.Material;
+import com.construction.site_management.payload.MaterialRow;
 import com.construction.site_management.repository.MaterialRepository;
 
 @Service
@@ -22,8 +23,8 @@ public class MaterialService {
         return materialRepository.save(material);
     }
 
-    public List<Material> getAllMaterials() {
-        return materialRepository.findAll();
+    public List<MaterialRow> getMaterialRows() {
+        return materialRepository.findAllRows();
     }
 
     public Material getMaterialById(Long id) {
@@ -0,0 +1,74 @@
+package com.construction.site_management.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.construction.site_management.model.Payment;
+import com.construction.site_management.repository.PaymentMonthlyRollupRepository;
+import com.construction.site_management.repository.PaymentRepository;
+
+// Keeps payment_monthly_rollup in step with the payment table.
+// Callers apply deltas inside the same transaction as the payment write.
+@Service
+public class PaymentRollupService {
+
+    public static final long NO_PROJECT = 0L;
+
+    private final PaymentMonthlyRollupRepository rollupRepository;
+    private final PaymentRepository paymentRepository;
+
+    public PaymentRollupService(PaymentMonthlyRollupRepository rollupRepository,
+            PaymentRepository paymentRepository) {
+        this.rollupRepository = rollupRepository;
+        this.paymentRepository = paymentRepository;
+    }
+
+    public static int periodKey(YearMonth month) {
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+
+    public static YearMonth toYearMonth(int periodKey) {
+        return YearMonth.of(periodKey / 100, periodKey % 100);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(0)
+    @Transactional
+    public void buildIfEmpty() {
+        if (rollupRepository.count() == 0 && paymentRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    public void apply(Payment payment, int sign) {
+        apply(List.of(payment), sign);
+    }
+
+    public void apply(Collection<Payment> payments, int sign) {
+        Map<List<Object>, double[]> buckets = new LinkedHashMap<>();
+        for (Payment p : payments) {
+            LocalDate date = p.getDate();
+            if (date == null) continue;
+            Long projectId = p.getProjectId() != null ? p.getProjectId() : NO_PROJECT;
+            double[] b = buckets.computeIfAbsent(
+                    List.of(periodKey(YearMonth.from(date)), p.getType(), projectId), k -> new double[2]);
+            b[0] += p.getAmount();
+            b[1] += 1;
+        }
+        buckets.forEach((key, b) -> rollupRepository.upsertDelta(
+                (Integer) key.get(0), (String) key.get(1), (Long) key.get(2), sign * b[0], sign * (long) b[1]));
+    }
+
+    @Transactional
+    public int rebuild() {
+        rollupRepository.deleteAllRows();
+        return rollupRepository.insertFromPayments();
+    }
+}
@@ -1,38 +1,76 @@
 package com.construction.site_management.service;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import com.construction.site_management.model.Attendance;
 import com.construction.site_management.model.Payment;
 import com.construction.site_management.model.Worker;
+import com.construction.site_management.payload.CursorPage;
+import com.construction.site_management.payload.PaymentRow;
 
-import com.construction.site_management.repository.AttendanceRepository;
+import com.construction.site_management.repository.PaymentMonthlyRollupRepository;
 import com.construction.site_management.repository.PaymentRepository;
-import com.construction.site_management.repository.WorkerRepository;
+import com.construction.site_management.support.AfterCommit;
 
 @Service
 public class PaymentService {
 
+    // bounds used when a list request leaves one end of the range open
+    private static final LocalDate EARLIEST_DATE = LocalDate.of(1900, 1, 1);
+    private static final LocalDate LATEST_DATE = LocalDate.of(9999, 12, 31);
+
     private final PaymentRepository paymentRepository;
-    private final WorkerRepository workerRepository;
-    private final AttendanceRepository attendanceRepository;
+    private final ReferenceDataCache referenceCache;
+    private final AttendanceArchiveService archiveService;
+    private final DashboardAggregateStore aggregateStore;
+    private final SummaryCache summaryCache;
+    private final QueryFanOut queryFanOut;
+    private final PaymentRollupService rollupService;
+    private final PaymentMonthlyRollupRepository rollupRepository;
+    private final TopPaidWorkersTracker topPaidWorkers;
+    private final WorkerLedgerService ledgerService;
+    private final int defaultPageSize;
+    private final int maxPageSize;
 
     public PaymentService(
             PaymentRepository paymentRepository,
-            WorkerRepository workerRepository,
-            AttendanceRepository attendanceRepository
+            ReferenceDataCache referenceCache,
+            AttendanceArchiveService archiveService,
+            DashboardAggregateStore aggregateStore,
+            SummaryCache summaryCache,
+            QueryFanOut queryFanOut,
+            PaymentRollupService rollupService,
+            PaymentMonthlyRollupRepository rollupRepository,
+            TopPaidWorkersTracker topPaidWorkers,
+            WorkerLedgerService ledgerService,
+            @Value("${payment.page-size:200}") int defaultPageSize,
+            @Value("${payment.max-page-size:1000}") int maxPageSize
     ) {
         this.paymentRepository = paymentRepository;
-        this.workerRepository = workerRepository;
-        this.attendanceRepository = attendanceRepository;
+        this.referenceCache = referenceCache;
+        this.archiveService = archiveService;
+        this.aggregateStore = aggregateStore;
+        this.summaryCache = summaryCache;
+        this.queryFanOut = queryFanOut;
+        this.rollupService = rollupService;
+        this.rollupRepository = rollupRepository;
+        this.topPaidWorkers = topPaidWorkers;
+        this.ledgerService = ledgerService;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
     }
 
     // ================== ADD PAYMENT ==================
+    @Transactional
     public Payment addPayment(Long workerId, String type, Double amount, String note) {
-        Worker worker = workerRepository.findById(workerId)
+        Worker worker = referenceCache.worker(workerId)
                 .orElseThrow(() -> new RuntimeException("Worker not found"));
 
         Payment p = new Payment();
@@ -41,75 +79,168 @@ public class PaymentService {
         p.setAmount(amount);
         p.setDate(LocalDate.now());
         p.setNote(note);
+        p.setProjectId(worker.getProject() != null ? worker.getProject().getId() : null);
 
-        return paymentRepository.save(p);
+        Payment saved = paymentRepository.save(p);
+        rollupService.apply(saved, 1);
+        ledgerService.applyPayment(saved, 1);
+        AfterCommit.run(() -> paymentWritten(saved, 1));
+        return saved;
     }
 
-    // ================== GET ALL ==================
-    public List<Payment> getAllPayments() {
-        return paymentRepository.findAll();
+    // ================== LIST ==================
+    // Newest first, one keyset page at a time; every filter is optional
+    public CursorPage<PaymentRow> getPaymentPage(String type, Long workerId, Long projectId,
+            LocalDate from, LocalDate to, String cursor, Integer size) {
+        LocalDate start = from != null ? from : EARLIEST_DATE;
+        LocalDate end = to != null ? to : LATEST_DATE;
+        int pageSize = size == null || size <= 0 ? defaultPageSize : Math.min(size, maxPageSize);
+        String typeFilter = type == null || type.isBlank() || "All".equalsIgnoreCase(type) ? null : type;
+
+        LocalDate afterDate = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            Object[] after = CursorPage.decode(cursor);
+            afterDate = (LocalDate) after[0];
+            afterId = (Long) after[1];
+        }
+        // fetch one extra row to know whether another page exists
+        List<PaymentRow> rows = paymentRepository.findPage(start, end, typeFilter, workerId, projectId,
+                afterDate, afterId, Limit.of(pageSize + 1));
+
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<PaymentRow> items = rows.subList(0, pageSize);
+        PaymentRow last = items.get(pageSize - 1);
+        return new CursorPage<>(items, CursorPage.encode(last.getDate(), last.getId()));
     }
 
     // ================== AUTO SALARY ==================
-    public Payment generateMonthlySalary(Long workerId) {
-        Worker worker = workerRepository.findById(workerId)
+    // Salary for one pay period: present days, overtime and earned pay are summed in the database
+    // (hot attendance rows plus monthly summaries of archived months)
+    @Transactional
+    public Payment generateMonthlySalary(Long workerId, LocalDate from, LocalDate to) {
+        if (to.isBefore(from)) {
+            throw new RuntimeException("Pay period end " + to + " is before start " + from);
+        }
+        Worker worker = referenceCache.worker(workerId)
                 .orElseThrow(() -> new RuntimeException("Worker not found"));
+        // covers salaries from payroll runs as well as earlier auto salaries
+        if (paymentRepository.existsSalaryFor(workerId, from, to)) {
+            throw new RuntimeException("Salary already paid for a period overlapping " + from + " to " + to);
+        }
 
-        List<Attendance> records = attendanceRepository.findByWorkerId(worker.getId());
-
-        int presentDays = (int) records.stream()
-                .filter(a -> "Present".equalsIgnoreCase(a.getStatus()))
-                .count();
-
-        double salaryAmount = presentDays * worker.getRatePerDay();
+        Object[] totals = archiveService.payrollTotals(worker.getId(), from, to);
+        long presentDays = ((Number) totals[0]).longValue();
+        double overtimeHours = ((Number) totals[1]).doubleValue();
+        double salaryAmount = ((Number) totals[2]).doubleValue(); // daily rate + overtime, as recorded
 
         Payment p = new Payment();
         p.setWorker(worker);
         p.setType("Salary");
         p.setAmount(salaryAmount);
         p.setDate(LocalDate.now());
-        p.setNote("Auto-generated based on attendance");
-
-        return paymentRepository.save(p);
+        p.setNote(salaryNote(from, to, presentDays, overtimeHours));
+        p.setPeriodStart(from);
+        p.setPeriodEnd(to);
+        p.setProjectId(worker.getProject() != null ? worker.getProject().getId() : null);
+
+        Payment saved = paymentRepository.save(p);
+        rollupService.apply(saved, 1);
+        ledgerService.applyPayment(saved, 1);
+        AfterCommit.run(() -> paymentWritten(saved, 1));
+        return saved;
     }
 
-    public void generateSalaryForAllWorkers() {
-        workerRepository.findAll().forEach(w -> generateMonthlySalary(w.getId()));
+    static String salaryNote(LocalDate from, LocalDate to, long presentDays, double overtimeHours) {
+        return "Auto-generated for " + from + " to " + to + ": " + presentDays + " present days, "
+                + overtimeHours + " overtime hours";
     }
 
     // ================== DELETE PAYMENT ==================
+    @Transactional
     public void deletePayment(Long id) {
-        if (!paymentRepository.existsById(id)) {
-            throw new RuntimeException("Payment not found");
+        Payment payment = paymentRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Payment not found"));
+        paymentRepository.delete(payment);
+        rollupService.apply(payment, -1);
+        ledgerService.applyPayment(payment, -1);
+        AfterCommit.run(() -> paymentWritten(payment, -1));
+    }
+
+    // keep dashboard aggregates and cached summaries in step with payment writes
+    private void paymentWritten(Payment payment, int sign) {
+        paymentsWritten(List.of(payment), sign);
+    }
+
+    // in-memory side of payment writes made elsewhere (payroll runs); call after commit
+    public void paymentsWritten(Collection<Payment> payments, int sign) {
+        for (Payment payment : payments) {
+            aggregateStore.recordPayment(payment, sign);
+            topPaidWorkers.recordPayment(payment, sign);
         }
-        paymentRepository.deleteById(id);
+        summaryCache.paymentsChanged();
     }
 
-    public List<Payment> getPaymentsByWorker(Long workerId) {
-        return paymentRepository.findByWorkerId(workerId);
+    // Rebuild the monthly payment rollup from the payment table
+    public int rebuildRollup() {
+        int rows = rollupService.rebuild();
+        aggregateStore.rebuild();
+        summaryCache.paymentsChanged();
+        return rows;
+    }
+
+    // Highest paid workers overall, or within one project
+    public List<Object[]> getTopPaidWorkers(Long projectId, int limit) {
+        return topPaidWorkers.top(projectId, limit);
     }
 
     // ================== FINANCE SUMMARY ==================
     public Map<String, Object> getFinanceSummary() {
+        return summaryCache.finance(this::computeFinanceSummary);
+    }
+
+    private Map<String, Object> computeFinanceSummary() {
 
         Map<String, Object> summary = new HashMap<>();
 
+        // Last 6 months (including the current one)
+        YearMonth current = YearMonth.now();
+        YearMonth first = current.minusMonths(5);
+
+        // Independent aggregates from the monthly rollup, issued concurrently
+        CompletableFuture<Double> salary = queryFanOut.submit(() -> rollupRepository.totalByType("Salary"));
+        CompletableFuture<Double> advance = queryFanOut.submit(() -> rollupRepository.totalByType("Advance"));
+        CompletableFuture<List<Object[]>> monthly = queryFanOut.submit(
+                () -> rollupRepository.monthlyTotalsSince(PaymentRollupService.periodKey(first)));
+
         // Total Salary & Advance
-        Double totalSalary = paymentRepository.totalSalaryPaid();
-        Double totalAdvance = paymentRepository.totalAdvanceGiven();
+        Double totalSalary = queryFanOut.await("totalSalary", salary);
+        Double totalAdvance = queryFanOut.await("totalAdvance", advance);
 
         summary.put("totalSalary", totalSalary);
         summary.put("totalAdvance", totalAdvance);
         summary.put("balance", totalSalary - totalAdvance);
 
-        // Last 6 months
-        LocalDate start = LocalDate.now().minusMonths(6);
+        // [month, amount, year] per month, oldest first; months without payments are 0
+        Map<String, Double> byMonthAndType = new HashMap<>();
+        for (Object[] row : queryFanOut.await("monthlyTotals", monthly)) {
+            byMonthAndType.put(row[0] + ":" + row[1], ((Number) row[2]).doubleValue());
+        }
+        List<Object[]> salaryMonthly = new ArrayList<>();
+        List<Object[]> advanceMonthly = new ArrayList<>();
+        for (YearMonth ym = first; !ym.isAfter(current); ym = ym.plusMonths(1)) {
+            int key = PaymentRollupService.periodKey(ym);
+            salaryMonthly.add(new Object[]{ym.getMonthValue(), byMonthAndType.getOrDefault(key + ":Salary", 0.0), ym.getYear()});
+            advanceMonthly.add(new Object[]{ym.getMonthValue(), byMonthAndType.getOrDefault(key + ":Advance", 0.0), ym.getYear()});
+        }
 
-        summary.put("salaryMonthly", paymentRepository.monthlySalary(start));
-        summary.put("advanceMonthly", paymentRepository.monthlyAdvance(start));
+        summary.put("salaryMonthly", salaryMonthly);
+        summary.put("advanceMonthly", advanceMonthly);
 
         // Top Paid Workers
-        summary.put("topPaidWorkers", paymentRepository.topPaidWorkers());
+        summary.put("topPaidWorkers", topPaidWorkers.top(5));
 
         return summary;
     }
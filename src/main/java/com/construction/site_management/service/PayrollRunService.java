@@ -0,0 +1,232 @@
+package com.construction.site_management.service;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.*;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.construction.site_management.model.Payment;
+import com.construction.site_management.model.PayrollRun;
+import com.construction.site_management.model.Worker;
+import com.construction.site_management.repository.PaymentRepository;
+import com.construction.site_management.repository.PayrollRunRepository;
+import com.construction.site_management.support.ChangeClock;
+
+import jakarta.annotation.PreDestroy;
+
+// Set-based auto-salary for all workers:
+//  1. one grouped query gives present days, overtime and earned pay per worker for the period
+//  2. payments are built in memory and split into chunks
+//  3. chunks are inserted in parallel, each as one JDBC batch in its own transaction
+// Every run is recorded per period, so a rerun never pays a worker twice.
+@Service
+public class PayrollRunService {
+
+    public static final String RUNNING = "RUNNING";
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    private static final String INSERT_PAYMENT =
+            "INSERT INTO payment (worker_id, type, amount, date, note, project_id, payroll_run_id, change_version, " +
+            "period_start, period_end) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final PayrollRunRepository payrollRunRepository;
+    private final AttendanceArchiveService archiveService;
+    private final PaymentRepository paymentRepository;
+    private final PaymentRollupService paymentRollupService;
+    private final PaymentService paymentService;
+    private final WorkerLedgerService ledgerService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final int chunkSize;
+    private final ExecutorService chunkExecutor;
+    private final Set<Long> activeRuns = ConcurrentHashMap.newKeySet();
+
+    public PayrollRunService(PayrollRunRepository payrollRunRepository,
+            AttendanceArchiveService archiveService,
+            PaymentRepository paymentRepository,
+            PaymentRollupService paymentRollupService,
+            PaymentService paymentService,
+            WorkerLedgerService ledgerService,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${payroll.chunk-size:500}") int chunkSize,
+            @Value("${payroll.parallelism:4}") int parallelism) {
+        this.payrollRunRepository = payrollRunRepository;
+        this.archiveService = archiveService;
+        this.paymentRepository = paymentRepository;
+        this.paymentRollupService = paymentRollupService;
+        this.paymentService = paymentService;
+        this.ledgerService = ledgerService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.chunkSize = chunkSize;
+        this.chunkExecutor = Executors.newFixedThreadPool(parallelism, r -> {
+            Thread t = new Thread(r, "payroll-chunk");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public PayrollRun runForMonth(YearMonth month) {
+        return run(month.atDay(1), month.atEndOfMonth());
+    }
+
+    public PayrollRun run(LocalDate periodStart, LocalDate periodEnd) {
+        if (periodEnd.isBefore(periodStart)) {
+            throw new RuntimeException("Pay period end " + periodEnd + " is before start " + periodStart);
+        }
+
+        PayrollRun run = claimRun(periodStart, periodEnd);
+        if (COMPLETED.equals(run.getStatus())) {
+            return run; // idempotent rerun
+        }
+
+        int workerCount = 0;
+        try {
+            // Workers already paid by an earlier, interrupted attempt of this run, or paid a
+            // salary overlapping this period some other way (e.g. the single auto-salary endpoint)
+            Set<Long> alreadyPaid = new HashSet<>(paymentRepository.findWorkerIdsByPayrollRunId(run.getId()));
+            alreadyPaid.addAll(paymentRepository.findWorkerIdsWithSalaryFor(periodStart, periodEnd));
+
+            List<Object[]> totals = archiveService.payrollTotalsByWorker(periodStart, periodEnd);
+            workerCount = totals.size();
+
+            List<Payment> pending = new ArrayList<>();
+            for (Object[] row : totals) {
+                Long workerId = (Long) row[0];
+                if (alreadyPaid.contains(workerId)) continue;
+                pending.add(buildSalary(run, workerId, (String) row[1], (Long) row[2],
+                        ((Number) row[3]).longValue(), ((Number) row[4]).doubleValue(), ((Number) row[5]).doubleValue()));
+            }
+
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < pending.size(); i += chunkSize) {
+                List<Payment> chunk = pending.subList(i, Math.min(i + chunkSize, pending.size()));
+                futures.add(chunkExecutor.submit(() -> insertChunk(chunk)));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+
+            return finishRun(run.getId(), COMPLETED, null, workerCount);
+        } catch (ExecutionException e) {
+            finishRun(run.getId(), FAILED, e.getCause().getMessage(), workerCount);
+            throw new RuntimeException("Payroll run " + run.getId() + " failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            finishRun(run.getId(), FAILED, "Interrupted", workerCount);
+            throw new RuntimeException("Payroll run " + run.getId() + " interrupted", e);
+        } catch (RuntimeException e) {
+            finishRun(run.getId(), FAILED, e.getMessage(), workerCount);
+            throw e;
+        } finally {
+            activeRuns.remove(run.getId());
+        }
+    }
+
+    public List<PayrollRun> getRuns() {
+        return payrollRunRepository.findAllByOrderByPeriodStartDesc();
+    }
+
+    public PayrollRun getRun(Long id) {
+        return payrollRunRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Payroll run not found with ID: " + id));
+    }
+
+    // Create the run row for the period, or pick up an existing one
+    private PayrollRun claimRun(LocalDate periodStart, LocalDate periodEnd) {
+        try {
+            PayrollRun run = transactionTemplate.execute(status -> {
+                PayrollRun existing = payrollRunRepository.findByPeriodStartAndPeriodEnd(periodStart, periodEnd)
+                        .orElseGet(() -> new PayrollRun(null, periodStart, periodEnd, RUNNING, 0, 0, 0.0,
+                                null, null, null));
+                if (COMPLETED.equals(existing.getStatus())) {
+                    return existing;
+                }
+                if (existing.getId() != null && activeRuns.contains(existing.getId())) {
+                    throw new RuntimeException("Payroll for " + periodStart + " to " + periodEnd + " is already running");
+                }
+                existing.setStatus(RUNNING);
+                existing.setStartedAt(LocalDateTime.now());
+                existing.setFinishedAt(null);
+                existing.setMessage(null);
+                return payrollRunRepository.saveAndFlush(existing);
+            });
+            if (!COMPLETED.equals(run.getStatus()) && !activeRuns.add(run.getId())) {
+                throw new RuntimeException("Payroll for " + periodStart + " to " + periodEnd + " is already running");
+            }
+            return run;
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("Payroll for " + periodStart + " to " + periodEnd + " is already running");
+        }
+    }
+
+    private Payment buildSalary(PayrollRun run, Long workerId, String workerName, Long projectId,
+            long presentDays, double overtimeHours, double earned) {
+        Worker worker = new Worker();
+        worker.setId(workerId);
+        worker.setName(workerName);
+
+        Payment p = new Payment();
+        p.setWorker(worker);
+        p.setType("Salary");
+        p.setAmount(earned);
+        p.setDate(LocalDate.now());
+        p.setNote(PaymentService.salaryNote(run.getPeriodStart(), run.getPeriodEnd(), presentDays, overtimeHours));
+        p.setProjectId(projectId);
+        p.setPayrollRunId(run.getId());
+        p.setPeriodStart(run.getPeriodStart());
+        p.setPeriodEnd(run.getPeriodEnd());
+        return p;
+    }
+
+    private void insertChunk(List<Payment> chunk) {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(INSERT_PAYMENT, chunk, chunk.size(), (ps, p) -> {
+                ps.setLong(1, p.getWorker().getId());
+                ps.setString(2, p.getType());
+                ps.setDouble(3, p.getAmount());
+                ps.setDate(4, Date.valueOf(p.getDate()));
+                ps.setString(5, p.getNote());
+                ps.setObject(6, p.getProjectId());
+                ps.setLong(7, p.getPayrollRunId());
+                p.setChangeVersion(ChangeClock.next()); // no entity listener on this path
+                ps.setLong(8, p.getChangeVersion());
+                ps.setDate(9, Date.valueOf(p.getPeriodStart()));
+                ps.setDate(10, Date.valueOf(p.getPeriodEnd()));
+            });
+            paymentRollupService.apply(chunk, 1);
+            ledgerService.applyPayments(chunk, 1);
+        });
+        paymentService.paymentsWritten(chunk, 1);
+    }
+
+    private PayrollRun finishRun(Long runId, String status, String message, int workerCount) {
+        return transactionTemplate.execute(tx -> {
+            PayrollRun run = payrollRunRepository.findById(runId).orElseThrow();
+            Object[] totals = paymentRepository.totalsByPayrollRunId(runId).get(0);
+            run.setPaymentCount(((Number) totals[0]).intValue());
+            run.setWorkerCount(workerCount);
+            run.setTotalAmount(((Number) totals[1]).doubleValue());
+            run.setStatus(status);
+            run.setFinishedAt(LocalDateTime.now());
+            run.setMessage(message != null && message.length() > 500 ? message.substring(0, 500) : message);
+            return payrollRunRepository.save(run);
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        chunkExecutor.shutdownNow();
+    }
+}
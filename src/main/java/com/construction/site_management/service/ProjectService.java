@@ -3,10 +3,14 @@ package com.construction.site_management.service;
 import java.util.List;
 
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.construction.site_management.model.DeletionJob;
 import com.construction.site_management.model.Project;
+import com.construction.site_management.payload.ProjectRow;
 import com.construction.site_management.repository.ProjectRepository;
+import com.construction.site_management.support.AfterCommit;
 
 import lombok.AllArgsConstructor;
 
@@ -16,16 +20,25 @@ import lombok.AllArgsConstructor;
 public class ProjectService {
 
     private final ProjectRepository projectRepository;
+    private final DashboardAggregateStore aggregateStore;
+    private final SummaryCache summaryCache;
+    private final BulkDeleteService bulkDeleteService;
+    private final ReferenceDataCache referenceCache;
 
     public Project saveProject(Project project) {
         if (projectRepository.existsByName(project.getName())) {
             throw new RuntimeException("Project with name " + project.getName() + " already exists.");
         }
-        return projectRepository.save(project);
+        Project saved = projectRepository.save(project);
+        AfterCommit.run(() -> {
+            aggregateStore.recordProjectStatus(null, saved.getStatus(), false, true);
+            summaryCache.projectsChanged();
+        });
+        return saved;
     }
 
-    public List<Project> getAllProjects() {
-        return projectRepository.findAll();
+    public List<ProjectRow> getProjectRows() {
+        return projectRepository.findAllRows();
     }
 
     public Project getProjectById(Long id) {
@@ -36,12 +49,20 @@ public class ProjectService {
     public Project updateProjectStatus(Long id, String status) {
         Project project = projectRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Project not found"));
+        String previousStatus = project.getStatus();
         project.setStatus(status);
-        return projectRepository.save(project);
+        Project saved = projectRepository.save(project);
+        AfterCommit.run(() -> {
+            aggregateStore.recordProjectStatus(previousStatus, status, true, true);
+            referenceCache.projectChanged(id);
+            summaryCache.projectsChanged();
+        });
+        return saved;
     }
 
     public Project updateProject(Long id, Project updatedProject) {
         Project existingProject = getProjectById(id);
+        String previousStatus = existingProject.getStatus();
         existingProject.setName(updatedProject.getName());
         existingProject.setLocation(updatedProject.getLocation());
         existingProject.setStartDate(updatedProject.getStartDate());
@@ -49,13 +70,20 @@ public class ProjectService {
         existingProject.setManagerName(updatedProject.getManagerName());
         existingProject.setStatus(updatedProject.getStatus());
         existingProject.setDescription(updatedProject.getDescription());
-        return projectRepository.save(existingProject);
+        Project saved = projectRepository.save(existingProject);
+        AfterCommit.run(() -> {
+            aggregateStore.recordProjectStatus(previousStatus, saved.getStatus(), true, true);
+            referenceCache.projectChanged(id);
+            summaryCache.projectsChanged();
+        });
+        return saved;
     }
 
-    public void deleteProject(Long id) {
-        if (!projectRepository.existsById(id)) {
-            throw new RuntimeException("Cannot delete — Project not found with ID: " + id);
-        }
-        projectRepository.deleteById(id);
+    // Set-based removal: materials, attendance, payments and workers unassigned, tasks deleted
+    // only with deleteTasks; returns the background job when there is too much to handle inline.
+    // Runs outside the class-level transaction so a queued job is visible to its worker thread.
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public DeletionJob deleteProject(Long id, boolean deleteTasks) {
+        return bulkDeleteService.deleteProject(id, deleteTasks);
     }
 }
@@ -0,0 +1,94 @@
+package com.construction.site_management.service;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionTimedOutException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PreDestroy;
+
+// Runs independent read queries concurrently so a summary costs roughly its
+// slowest query instead of the sum of all of them.
+// Uses virtual threads when the JVM has them (21+), otherwise a small daemon pool;
+// either way at most maxConcurrency queries hold a connection at once.
+// Each query runs in a read-only transaction whose timeout becomes the JDBC statement
+// timeout, so a slow query is cancelled by the database and releases its connection and
+// permit. The clock starts once the permit is held, not while waiting for one.
+@Component
+public class QueryFanOut {
+
+    private final boolean enabled;
+    private final long timeoutMillis;
+    private final Semaphore permits;
+    private final ExecutorService executor;
+    private final TransactionTemplate transactionTemplate;
+
+    public QueryFanOut(PlatformTransactionManager transactionManager,
+            @Value("${dashboard.parallel.enabled:true}") boolean enabled,
+            @Value("${dashboard.parallel.max-concurrency:4}") int maxConcurrency,
+            @Value("${dashboard.parallel.query-timeout-ms:2000}") long timeoutMillis) {
+        this.enabled = enabled;
+        this.timeoutMillis = timeoutMillis;
+        this.permits = new Semaphore(maxConcurrency);
+        this.executor = enabled ? createExecutor(maxConcurrency) : null;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        // JDBC timeouts are whole seconds
+        this.transactionTemplate.setTimeout((int) Math.max(1, (timeoutMillis + 999) / 1000));
+    }
+
+    private static ExecutorService createExecutor(int maxConcurrency) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return Executors.newFixedThreadPool(maxConcurrency, r -> {
+                Thread t = new Thread(r, "dashboard-query");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> query) {
+        if (!enabled) {
+            // sequential mode: run on the caller's thread
+            try {
+                return CompletableFuture.completedFuture(transactionTemplate.execute(status -> query.get()));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+        return CompletableFuture.supplyAsync(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                return transactionTemplate.execute(status -> query.get());
+            } finally {
+                permits.release();
+            }
+        }, executor);
+    }
+
+    public <T> T await(String name, CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof QueryTimeoutException || e.getCause() instanceof TransactionTimedOutException) {
+                throw new RuntimeException("Query '" + name + "' timed out after " + timeoutMillis + " ms");
+            }
+            if (e.getCause() instanceof RuntimeException re) {
+                throw re;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) executor.shutdownNow();
+    }
+}
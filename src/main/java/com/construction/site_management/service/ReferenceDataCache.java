@@ -0,0 +1,188 @@
+package com.construction.site_management.service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.construction.site_management.model.Project;
+import com.construction.site_management.model.Worker;
+import com.construction.site_management.repository.ProjectRepository;
+import com.construction.site_management.repository.WorkerRepository;
+
+// Read-through cache of workers and projects for validating references and pricing
+// attendance on write paths without a database round trip.
+//  - bounded LRU per type with a TTL (bounds staleness across app instances)
+//  - misses of a batch are loaded with one IN query
+//  - write paths report changes after commit; a project change drops all workers,
+//    since each cached worker carries its project
+//  - workers are cached as copies without the password hash: the cache only serves
+//    references, and credentials are always read from the database (AuthService)
+// Entries are shared, detached entities: use them as references, never modify them.
+@Component
+public class ReferenceDataCache {
+
+    private static class Entry<V> {
+        final V value;
+        final long loadedAt;
+
+        Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private final WorkerRepository workerRepository;
+    private final ProjectRepository projectRepository;
+    private final long ttlNanos;
+
+    private final Map<Long, Entry<Worker>> workers;
+    private final Map<Long, Entry<Project>> projects;
+    // bumped by every invalidation so a load that started earlier is not cached
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ReferenceDataCache(WorkerRepository workerRepository, ProjectRepository projectRepository,
+            @Value("${reference-cache.max-workers:5000}") int maxWorkers,
+            @Value("${reference-cache.max-projects:1000}") int maxProjects,
+            @Value("${reference-cache.ttl-minutes:10}") long ttlMinutes) {
+        this.workerRepository = workerRepository;
+        this.projectRepository = projectRepository;
+        this.ttlNanos = Duration.ofMinutes(ttlMinutes).toNanos();
+        this.workers = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry<Worker>> eldest) {
+                return size() > maxWorkers;
+            }
+        };
+        this.projects = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Entry<Project>> eldest) {
+                return size() > maxProjects;
+            }
+        };
+    }
+
+    // ================= WORKERS =================
+
+    public Optional<Worker> worker(Long id) {
+        if (id == null) return Optional.empty();
+        return Optional.ofNullable(workers(List.of(id)).get(id));
+    }
+
+    // Workers found among the ids; cache misses are loaded together
+    public Map<Long, Worker> workers(Collection<Long> ids) {
+        return lookup(ids, workers, workerRepository::findByIdIn, Worker::getId,
+                (w, loadedAt) -> workers.put(w.getId(), new Entry<>(w, loadedAt)), ReferenceDataCache::reference);
+    }
+
+    // ================= PROJECTS =================
+
+    public Optional<Project> project(Long id) {
+        if (id == null) return Optional.empty();
+        return Optional.ofNullable(projects(List.of(id)).get(id));
+    }
+
+    public Map<Long, Project> projects(Collection<Long> ids) {
+        return lookup(ids, projects, projectRepository::findAllById, Project::getId,
+                (p, loadedAt) -> projects.put(p.getId(), new Entry<>(p, loadedAt)), Function.identity());
+    }
+
+    // ================= INVALIDATION =================
+
+    public synchronized void workerChanged(Long workerId) {
+        generation++;
+        invalidations.incrementAndGet();
+        workers.remove(workerId);
+    }
+
+    public synchronized void projectChanged(Long projectId) {
+        generation++;
+        invalidations.incrementAndGet();
+        projects.remove(projectId);
+        workers.clear();
+    }
+
+    public synchronized void clear() {
+        generation++;
+        invalidations.incrementAndGet();
+        workers.clear();
+        projects.clear();
+    }
+
+    // ================= INTERNALS =================
+
+    private interface Putter<V> {
+        void put(V value, long loadedAt);
+    }
+
+    private <V> Map<Long, V> lookup(Collection<Long> ids, Map<Long, Entry<V>> cache,
+            Function<Collection<Long>, List<V>> loader, Function<V, Long> idOf, Putter<V> putter,
+            Function<V, V> toCached) {
+        Map<Long, V> found = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        long gen;
+        synchronized (this) {
+            long now = System.nanoTime();
+            for (Long id : ids) {
+                if (id == null || found.containsKey(id)) continue;
+                Entry<V> e = cache.get(id);
+                if (e != null && now - e.loadedAt <= ttlNanos) {
+                    found.put(id, e.value);
+                    hits.incrementAndGet();
+                } else {
+                    missing.add(id);
+                    misses.incrementAndGet();
+                }
+            }
+            gen = generation;
+        }
+        if (missing.isEmpty()) return found;
+
+        List<V> loaded = loader.apply(missing);
+        synchronized (this) {
+            long now = System.nanoTime();
+            for (V entity : loaded) {
+                V value = toCached.apply(entity);
+                found.put(idOf.apply(value), value);
+                if (gen == generation) putter.put(value, now);
+            }
+        }
+        return found;
+    }
+
+    // The worker as cached and handed out: everything but the credentials
+    private static Worker reference(Worker worker) {
+        Worker copy = new Worker();
+        copy.setId(worker.getId());
+        copy.setName(worker.getName());
+        copy.setPhone(worker.getPhone());
+        copy.setRatePerDay(worker.getRatePerDay());
+        copy.setAadharNumber(worker.getAadharNumber());
+        copy.setPoliceVerified(worker.isPoliceVerified());
+        copy.setAddress(worker.getAddress());
+        copy.setJoinedDate(worker.getJoinedDate());
+        copy.setProject(worker.getProject());
+        copy.setRole(worker.getRole());
+        copy.setChangeVersion(worker.getChangeVersion());
+        copy.setPassword(null);
+        copy.setMustResetPassword(null);
+        return copy;
+    }
+
+    public synchronized Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("workers", workers.size());
+        stats.put("projects", projects.size());
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+}
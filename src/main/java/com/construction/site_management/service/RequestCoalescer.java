@@ -0,0 +1,35 @@
+package com.construction.site_management.service;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+import org.springframework.stereotype.Component;
+
+import com.construction.site_management.support.SingleFlight;
+
+// Shared single-flight groups for expensive aggregate endpoints.
+// Each endpoint picks a name (plus a key when its result depends on parameters);
+// identical concurrent requests run once and share the result.
+@Component
+public class RequestCoalescer {
+
+    private final Map<String, SingleFlight<Object, Object>> groups = new ConcurrentHashMap<>();
+
+    public <T> T execute(String name, Supplier<T> computation) {
+        return execute(name, name, computation);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String name, Object key, Supplier<T> computation) {
+        SingleFlight<Object, Object> group = groups.computeIfAbsent(name, n -> new SingleFlight<>());
+        return (T) group.execute(key, computation::get);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new TreeMap<>();
+        groups.forEach((name, group) -> stats.put(name, group.stats()));
+        return stats;
+    }
+}
@@ -0,0 +1,81 @@
+package com.construction.site_management.service;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.construction.site_management.support.RefreshingCache;
+
+import jakarta.annotation.PreDestroy;
+
+// Caches the dashboard and finance summaries that every open browser tab polls.
+// Write paths report what they changed and only the summaries depending on it are dropped.
+@Component
+public class SummaryCache {
+
+    private static final String KEY = "summary";
+
+    private final ExecutorService refreshExecutor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "summary-cache-refresh");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private final RefreshingCache<String, Map<String, Object>> dashboard;
+    private final RefreshingCache<String, Map<String, Object>> finance;
+
+    public SummaryCache(@Value("${summary-cache.max-entries:16}") int maxEntries,
+            @Value("${summary-cache.ttl-seconds:15}") long ttlSeconds,
+            @Value("${summary-cache.stale-seconds:120}") long staleSeconds) {
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        Duration stale = Duration.ofSeconds(staleSeconds);
+        this.dashboard = new RefreshingCache<>("dashboard", maxEntries, ttl, stale, refreshExecutor);
+        this.finance = new RefreshingCache<>("finance", maxEntries, ttl, stale, refreshExecutor);
+    }
+
+    public Map<String, Object> dashboard(Supplier<Map<String, Object>> loader) {
+        return dashboard.get(KEY, () -> Collections.unmodifiableMap(loader.get()));
+    }
+
+    public Map<String, Object> finance(Supplier<Map<String, Object>> loader) {
+        return finance.get(KEY, () -> Collections.unmodifiableMap(loader.get()));
+    }
+
+    // ================= INVALIDATION =================
+
+    public void paymentsChanged() {
+        dashboard.invalidateAll();
+        finance.invalidateAll();
+    }
+
+    public void attendanceChanged() {
+        dashboard.invalidateAll();
+    }
+
+    public void projectsChanged() {
+        dashboard.invalidateAll();
+    }
+
+    // worker count is on the dashboard, worker names appear in both top-paid lists
+    public void workersChanged() {
+        dashboard.invalidateAll();
+        finance.invalidateAll();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("dashboard", dashboard.stats());
+        stats.put("finance", finance.stats());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,106 @@
+package com.construction.site_management.service;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.*;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+
+import com.construction.site_management.support.ChangeClock;
+
+// Delta sync for site tablets: rows changed after the client's cursor, as flat
+// records, plus tombstones for deleted rows. Every table is read through its
+// change_version index, so the cost follows the number of changes, not table size.
+@Service
+public class SyncService {
+
+    private static final String ATTENDANCE_SQL =
+            "SELECT id, worker_id AS workerId, project_id AS projectId, date, status, " +
+            "overtime_hours AS overtimeHours, total_pay AS totalPay, change_version AS version " +
+            "FROM attendance WHERE change_version > ? AND change_version <= ? ORDER BY change_version LIMIT ?";
+
+    private static final String TASK_SQL =
+            "SELECT id, task_name AS taskName, description, project_id AS projectId, worker_id AS workerId, " +
+            "deadline, status, change_version AS version " +
+            "FROM task WHERE change_version > ? AND change_version <= ? ORDER BY change_version LIMIT ?";
+
+    // no credentials
+    private static final String WORKER_SQL =
+            "SELECT id, name, phone, rate_per_day AS ratePerDay, role, project_id AS projectId, " +
+            "joined_date AS joinedDate, change_version AS version " +
+            "FROM worker WHERE change_version > ? AND change_version <= ? ORDER BY change_version LIMIT ?";
+
+    private static final String PAYMENT_SQL =
+            "SELECT id, worker_id AS workerId, type, amount, date, note, project_id AS projectId, " +
+            "change_version AS version " +
+            "FROM payment WHERE change_version > ? AND change_version <= ? ORDER BY change_version LIMIT ?";
+
+    private static final String TOMBSTONE_SQL =
+            "SELECT entity_type AS type, entity_id AS id, change_version AS version " +
+            "FROM sync_tombstone WHERE change_version > ? AND change_version <= ? ORDER BY change_version LIMIT ?";
+
+    // flat row with SQL dates turned into LocalDate (serialized as yyyy-MM-dd)
+    private static final RowMapper<Map<String, Object>> FLAT_ROW = (ResultSet rs, int rowNum) -> {
+        ResultSetMetaData meta = rs.getMetaData();
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 1; i <= meta.getColumnCount(); i++) {
+            Object value = rs.getObject(i);
+            if (value instanceof java.sql.Date d) value = d.toLocalDate();
+            row.put(meta.getColumnLabel(i), value);
+        }
+        return row;
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    public SyncService(JdbcTemplate jdbcTemplate,
+            @Value("${sync.page-size:500}") int defaultLimit,
+            @Value("${sync.max-page-size:5000}") int maxLimit) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    // Changes with since < version <= watermark, at most limit records across all kinds.
+    // The returned cursor is the since value for the next call; hasMore asks for another call now.
+    public Map<String, Object> changesSince(long since, Integer limit) {
+        int pageSize = limit == null || limit <= 0 ? defaultLimit : Math.min(limit, maxLimit);
+        long upTo = ChangeClock.watermark();
+
+        // each kind can fill the page on its own; fetch one extra to detect more
+        List<Object[]> changes = new ArrayList<>(); // [version, kind, row]
+        collect(changes, "attendance", ATTENDANCE_SQL, since, upTo, pageSize);
+        collect(changes, "tasks", TASK_SQL, since, upTo, pageSize);
+        collect(changes, "workers", WORKER_SQL, since, upTo, pageSize);
+        collect(changes, "payments", PAYMENT_SQL, since, upTo, pageSize);
+        collect(changes, "deleted", TOMBSTONE_SQL, since, upTo, pageSize);
+        changes.sort(Comparator.comparingLong(c -> (Long) c[0]));
+
+        boolean hasMore = changes.size() > pageSize;
+        List<Object[]> page = hasMore ? changes.subList(0, pageSize) : changes;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("cursor", hasMore ? (Long) page.get(pageSize - 1)[0] : Math.max(since, upTo));
+        result.put("hasMore", hasMore);
+        for (String kind : List.of("attendance", "tasks", "workers", "payments", "deleted")) {
+            result.put(kind, new ArrayList<>());
+        }
+        for (Object[] change : page) {
+            @SuppressWarnings("unchecked")
+            List<Object> rows = (List<Object>) result.get((String) change[1]);
+            rows.add(change[2]);
+        }
+        return result;
+    }
+
+    private void collect(List<Object[]> changes, String kind, String sql, long since, long upTo, int pageSize) {
+        for (Map<String, Object> row : jdbcTemplate.query(sql, FLAT_ROW, since, upTo, pageSize + 1)) {
+            changes.add(new Object[] { ((Number) row.get("version")).longValue(), kind, row });
+        }
+    }
+}
@@ -8,35 +8,31 @@ import org.springframework.stereotype.Service;
 import com.construction.site_management.model.Project;
 import com.construction.site_management.model.Task;
 import com.construction.site_management.model.Worker;
-import com.construction.site_management.repository.ProjectRepository;
+import com.construction.site_management.payload.TaskRow;
 import com.construction.site_management.repository.TaskRepository;
-import com.construction.site_management.repository.WorkerRepository;
 
 @Service
 public class TaskService {
 
     private final TaskRepository taskRepository;
-    private final ProjectRepository projectRepository;
-    private final WorkerRepository workerRepository;
+    private final ReferenceDataCache referenceCache;
 
     public TaskService(TaskRepository taskRepository,
-            ProjectRepository projectRepository,
-            WorkerRepository workerRepository) {
+            ReferenceDataCache referenceCache) {
         this.taskRepository = taskRepository;
-        this.projectRepository = projectRepository;
-        this.workerRepository = workerRepository;
+        this.referenceCache = referenceCache;
     }
 
     // CREATE TASK
     public Task createTask(Task task) {
 
         // Load worker
-        Worker worker = workerRepository.findById(task.getWorker().getId())
+        Worker worker = referenceCache.worker(task.getWorker().getId())
                 .orElseThrow(() -> new RuntimeException("Worker not found"));
         task.setWorker(worker);
 
         // Load project
-        Project project = projectRepository.findById(task.getProject().getId())
+        Project project = referenceCache.project(task.getProject().getId())
                 .orElseThrow(() -> new RuntimeException("Project not found"));
         task.setProject(project);
 
@@ -49,8 +45,8 @@ public class TaskService {
     }
 
     // GET ALL TASKS
-    public List<Task> getAllTasks() {
-        return taskRepository.findAll();
+    public List<TaskRow> getTaskRows() {
+        return taskRepository.findAllRows();
     }
 
     // GET ONE TASK
@@ -60,9 +56,9 @@ public class TaskService {
     }
 
     public List<Task> getTasksByWorker(Long workerId) {
-        Worker worker = workerRepository.findById(workerId)
+        referenceCache.worker(workerId)
                 .orElseThrow(() -> new RuntimeException("Worker not found with ID: " + workerId));
-        return taskRepository.findByWorker(worker);
+        return taskRepository.findByWorkerId(workerId);
     }
 
     // UPDATE TASK
@@ -75,12 +71,12 @@ public class TaskService {
         task.setDeadline(updatedTask.getDeadline());
 
         // Update worker
-        Worker worker = workerRepository.findById(updatedTask.getWorker().getId())
+        Worker worker = referenceCache.worker(updatedTask.getWorker().getId())
                 .orElseThrow(() -> new RuntimeException("Worker not found"));
         task.setWorker(worker);
 
         // Update project
-        Project project = projectRepository.findById(updatedTask.getProject().getId())
+        Project project = referenceCache.project(updatedTask.getProject().getId())
                 .orElseThrow(() -> new RuntimeException("Project not found"));
         task.setProject(project);
 
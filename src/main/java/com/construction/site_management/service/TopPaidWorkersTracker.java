@@ -0,0 +1,221 @@
+package com.construction.site_management.service;
+
+import java.util.*;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.construction.site_management.model.Payment;
+import com.construction.site_management.repository.PaymentRepository;
+import com.construction.site_management.support.ChangeClock;
+
+// Salary leaderboard kept in memory: per-worker totals in an ordered set,
+// overall and per project, so "top K" is a walk over the first K entries.
+// Seeded from the database at startup and updated on payment insert/delete.
+@Component
+public class TopPaidWorkersTracker {
+
+    private static final Comparator<Entry> BY_TOTAL_DESC =
+            Comparator.comparingDouble((Entry e) -> e.total).reversed().thenComparing(e -> e.workerId);
+
+    private record Entry(Long workerId, double total) {
+    }
+
+    private static class Board {
+        final Map<Long, Entry> byWorker = new HashMap<>();
+        final TreeSet<Entry> ranked = new TreeSet<>(BY_TOTAL_DESC);
+
+        void add(Long workerId, double amount) {
+            Entry old = byWorker.remove(workerId);
+            double total = amount;
+            if (old != null) {
+                ranked.remove(old);
+                total += old.total;
+            }
+            if (total > 0.005) {
+                Entry updated = new Entry(workerId, total);
+                byWorker.put(workerId, updated);
+                ranked.add(updated);
+            }
+        }
+
+        void remove(Long workerId) {
+            Entry old = byWorker.remove(workerId);
+            if (old != null) ranked.remove(old);
+        }
+    }
+
+    // how long a seed waits for writes that may have committed before its query
+    private static final long SETTLE_TIMEOUT_MILLIS = 30_000;
+
+    // a change that arrived while seeding, replayed onto the seed unless the seed already counts it
+    private record Delta(Long version, int sign, Runnable change) {
+    }
+
+    private final PaymentRepository paymentRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Object seedLock = new Object();
+
+    private Board overall = new Board();
+    private Map<Long, Board> byProject = new HashMap<>();
+    private Map<Long, String> workerNames = new HashMap<>();
+    private boolean seeded;
+    // while a seed runs: the changes to reconcile with its result
+    private List<Delta> pending;
+
+    // boards read by one seed, installed as a whole
+    private static class Seed {
+        final Board overall = new Board();
+        final Map<Long, Board> byProject = new HashMap<>();
+        final Map<Long, String> workerNames = new HashMap<>();
+        Set<Long> visibleVersions = Set.of();
+        Set<Long> checkedVersions = Set.of();
+    }
+
+    public TopPaidWorkersTracker(PaymentRepository paymentRepository, TransactionTemplate transactionTemplate) {
+        this.paymentRepository = paymentRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        // the totals and the version check below must read the same snapshot
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    // Load the boards from the database (startup). Salary writes that report while the
+    // seed runs are buffered, and the seed then settles which of them its snapshot holds:
+    // it waits for every write that could have committed before its query to report, and
+    // looks their payment versions up in the same snapshot. A payment the snapshot already
+    // has (or, for a delete, no longer has) is dropped; the rest are replayed on top.
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        synchronized (seedLock) {
+            synchronized (this) {
+                pending = new ArrayList<>();
+            }
+            Seed seed;
+            try {
+                seed = transactionTemplate.execute(tx -> load());
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    pending = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                overall = seed.overall;
+                byProject = seed.byProject;
+                workerNames = seed.workerNames;
+                for (Delta delta : pending) {
+                    if (delta.version() == null || !seed.checkedVersions.contains(delta.version())) {
+                        // committed after the snapshot (or not a payment at all)
+                        delta.change().run();
+                    } else if (seed.visibleVersions.contains(delta.version()) != delta.sign() > 0) {
+                        delta.change().run();
+                    }
+                }
+                pending = null;
+                seeded = true;
+            }
+        }
+    }
+
+    private Seed load() {
+        Seed seed = new Seed();
+        for (Object[] row : paymentRepository.salaryTotalsByWorkerAndProject()) {
+            Long workerId = (Long) row[0];
+            Long projectId = (Long) row[2];
+            double total = ((Number) row[3]).doubleValue();
+            seed.workerNames.put(workerId, (String) row[1]);
+            seed.overall.add(workerId, total);
+            if (projectId != null) {
+                seed.byProject.computeIfAbsent(projectId, id -> new Board()).add(workerId, total);
+            }
+        }
+        // a write that committed before the query has a version no later than this one;
+        // once those have all finished, their after-commit reports are in pending
+        try {
+            ChangeClock.awaitCompletion(ChangeClock.current(), SETTLE_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Long> versions = new ArrayList<>();
+        synchronized (this) {
+            for (Delta delta : pending) {
+                if (delta.version() != null) versions.add(delta.version());
+            }
+        }
+        Set<Long> visible = new HashSet<>();
+        for (int from = 0; from < versions.size(); from += 1000) {
+            visible.addAll(paymentRepository.findChangeVersionsIn(
+                    versions.subList(from, Math.min(from + 1000, versions.size()))));
+        }
+        seed.checkedVersions = new HashSet<>(versions);
+        seed.visibleVersions = visible;
+        return seed;
+    }
+
+    // Buffer the change while a seed runs, apply it once seeded, drop it before that
+    // (the first seed reads it from the database)
+    private void apply(Long version, int sign, Runnable change) {
+        if (pending != null) {
+            pending.add(new Delta(version, sign, change));
+        } else if (seeded) {
+            change.run();
+        }
+    }
+
+    public synchronized void recordPayment(Payment payment, int sign) {
+        if (!"Salary".equalsIgnoreCase(payment.getType()) || payment.getWorker() == null) return;
+        Long workerId = payment.getWorker().getId();
+        String name = payment.getWorker().getName();
+        Long projectId = payment.getProjectId();
+        double amount = sign * payment.getAmount();
+        apply(payment.getChangeVersion(), sign, () -> {
+            workerNames.put(workerId, name);
+            overall.add(workerId, amount);
+            if (projectId != null) {
+                byProject.computeIfAbsent(projectId, id -> new Board()).add(workerId, amount);
+            }
+        });
+    }
+
+    public synchronized void renameWorker(Long workerId, String name) {
+        apply(null, 0, () -> {
+            if (workerNames.containsKey(workerId)) {
+                workerNames.put(workerId, name);
+            }
+        });
+    }
+
+    public synchronized void removeWorker(Long workerId) {
+        apply(null, 0, () -> {
+            overall.remove(workerId);
+            byProject.values().forEach(board -> board.remove(workerId));
+            workerNames.remove(workerId);
+        });
+    }
+
+    // the project's payments no longer carry its id
+    public synchronized void removeProject(Long projectId) {
+        apply(null, 0, () -> byProject.remove(projectId));
+    }
+
+    // [workerId, name, totalSalary] for the K highest paid workers
+    public List<Object[]> top(int k) {
+        return top(null, k);
+    }
+
+    public synchronized List<Object[]> top(Long projectId, int k) {
+        Board board = projectId == null ? overall : byProject.get(projectId);
+        List<Object[]> result = new ArrayList<>();
+        if (board == null) return result;
+        for (Entry e : board.ranked) {
+            if (result.size() >= k) break;
+            result.add(new Object[]{e.workerId, workerNames.get(e.workerId), e.total});
+        }
+        return result;
+    }
+}
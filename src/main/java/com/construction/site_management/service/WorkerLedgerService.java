@@ -0,0 +1,311 @@
+package com.construction.site_management.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.construction.site_management.model.Attendance;
+import com.construction.site_management.model.AttendanceMonthlySummary;
+import com.construction.site_management.model.Payment;
+import com.construction.site_management.model.WorkerLedgerSnapshot;
+import com.construction.site_management.payload.LedgerBalance;
+import com.construction.site_management.payload.LedgerStatement;
+import com.construction.site_management.repository.AttendanceRepository;
+import com.construction.site_management.repository.PaymentRepository;
+import com.construction.site_management.repository.WorkerLedgerRepository;
+import com.construction.site_management.repository.WorkerLedgerSnapshotRepository;
+import com.construction.site_management.repository.WorkerRepository;
+
+import jakarta.annotation.PostConstruct;
+
+// Per-worker running balance (earned - salary - advances).
+//  - every attendance/payment write applies its delta here in the same transaction,
+//    so the live balance is a primary-key lookup
+//  - month-end snapshots make balance-as-of a snapshot plus the activity after it
+//  - statements read only the requested range (plus the opening balance)
+//  - rebuilds and snapshots hold the write side of a lock that every delta holds (read
+//    side) until its transaction completes, so they never overlap an uncommitted delta.
+//    They read committed rows only: a write still waiting for the lock is invisible to
+//    them and applies its delta once they are done.
+@Service
+public class WorkerLedgerService {
+
+    private static final LocalDate EARLIEST_DATE = LocalDate.of(1900, 1, 1);
+
+    private final WorkerLedgerRepository ledgerRepository;
+    private final WorkerLedgerSnapshotRepository snapshotRepository;
+    private final WorkerRepository workerRepository;
+    private final AttendanceRepository attendanceRepository;
+    private final PaymentRepository paymentRepository;
+    private final AttendanceArchiveService archiveService;
+    private final TransactionTemplate transactionTemplate;
+    private final ReadWriteLock deltaLock = new ReentrantReadWriteLock();
+
+    // writes dated after the latest snapshot never need to shift snapshots
+    private volatile LocalDate latestSnapshot;
+
+    public WorkerLedgerService(WorkerLedgerRepository ledgerRepository,
+            WorkerLedgerSnapshotRepository snapshotRepository,
+            WorkerRepository workerRepository,
+            AttendanceRepository attendanceRepository,
+            PaymentRepository paymentRepository,
+            AttendanceArchiveService archiveService,
+            TransactionTemplate transactionTemplate) {
+        this.ledgerRepository = ledgerRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.workerRepository = workerRepository;
+        this.attendanceRepository = attendanceRepository;
+        this.paymentRepository = paymentRepository;
+        this.archiveService = archiveService;
+        this.transactionTemplate = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_READ_COMMITTED);
+    }
+
+    @PostConstruct
+    void loadLatestSnapshot() {
+        latestSnapshot = snapshotRepository.latestAsOf();
+    }
+
+    // Build the ledger for existing data the first time the app starts with it
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(1)
+    public void buildIfEmpty() {
+        if (ledgerRepository.count() == 0 && workerRepository.count() > 0) {
+            rebuild();
+        }
+    }
+
+    // Recompute every running balance from attendance, archived summaries and payments
+    public int rebuild() {
+        deltaLock.writeLock().lock();
+        try {
+            Integer rows = transactionTemplate.execute(status -> {
+                ledgerRepository.deleteAllRows();
+                return ledgerRepository.insertFromHistory();
+            });
+            return rows != null ? rows : 0;
+        } finally {
+            deltaLock.writeLock().unlock();
+        }
+    }
+
+    // ================= DELTAS (caller's transaction) =================
+
+    public void applyAttendance(Attendance attendance, int sign) {
+        applyAttendance(List.of(attendance), sign);
+    }
+
+    public void applyAttendance(Collection<Attendance> records, int sign) {
+        guarded(() -> writeAttendance(records, sign));
+    }
+
+    private void writeAttendance(Collection<Attendance> records, int sign) {
+        Map<Long, double[]> byWorker = new LinkedHashMap<>();
+        Map<List<Object>, double[]> backdated = new LinkedHashMap<>();
+        LocalDate snapshot = latestSnapshot;
+        for (Attendance a : records) {
+            if (a.getWorker() == null || a.getWorker().getId() == null || a.getTotalPay() == 0) continue;
+            Long workerId = a.getWorker().getId();
+            byWorker.computeIfAbsent(workerId, k -> new double[3])[0] += sign * a.getTotalPay();
+            if (snapshot != null && a.getDate() != null && !a.getDate().isAfter(snapshot)) {
+                backdated.computeIfAbsent(List.of(workerId, a.getDate()), k -> new double[3])[0] += sign * a.getTotalPay();
+            }
+        }
+        write(byWorker, backdated);
+    }
+
+    public void applyPayment(Payment payment, int sign) {
+        applyPayments(List.of(payment), sign);
+    }
+
+    public void applyPayments(Collection<Payment> payments, int sign) {
+        guarded(() -> writePayments(payments, sign));
+    }
+
+    private void writePayments(Collection<Payment> payments, int sign) {
+        Map<Long, double[]> byWorker = new LinkedHashMap<>();
+        Map<List<Object>, double[]> backdated = new LinkedHashMap<>();
+        LocalDate snapshot = latestSnapshot;
+        for (Payment p : payments) {
+            if (p.getWorker() == null || p.getWorker().getId() == null || p.getAmount() == null) continue;
+            Long workerId = p.getWorker().getId();
+            int slot = "Salary".equalsIgnoreCase(p.getType()) ? 1 : 2;
+            byWorker.computeIfAbsent(workerId, k -> new double[3])[slot] += sign * p.getAmount();
+            if (snapshot != null && p.getDate() != null && !p.getDate().isAfter(snapshot)) {
+                backdated.computeIfAbsent(List.of(workerId, p.getDate()), k -> new double[3])[slot] += sign * p.getAmount();
+            }
+        }
+        write(byWorker, backdated);
+    }
+
+    private void write(Map<Long, double[]> byWorker, Map<List<Object>, double[]> backdated) {
+        byWorker.forEach((workerId, d) -> ledgerRepository.upsertDelta(workerId, d[0], d[1], d[2]));
+        backdated.forEach((key, d) -> snapshotRepository.shiftFrom(
+                (Long) key.get(0), (LocalDate) key.get(1), d[0], d[1], d[2]));
+    }
+
+    // Set-based: a worker's attendance rows (id <= upToId) are about to be deleted
+    public void attendanceOfWorkerDeleted(Long workerId, Long upToId) {
+        guarded(() -> {
+            ledgerRepository.subtractWorkerAttendance(workerId, upToId);
+            if (latestSnapshot != null) {
+                snapshotRepository.subtractWorkerAttendance(workerId, upToId);
+            }
+        });
+    }
+
+    public void removeWorker(Long workerId) {
+        guarded(() -> {
+            ledgerRepository.deleteWorker(workerId);
+            snapshotRepository.deleteWorker(workerId);
+        });
+    }
+
+    // Run a delta under the read side of the lock, held until the caller's transaction ends
+    private void guarded(Runnable delta) {
+        deltaLock.readLock().lock();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            try {
+                delta.run();
+            } finally {
+                deltaLock.readLock().unlock();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                deltaLock.readLock().unlock();
+            }
+        });
+        delta.run();
+    }
+
+    // ================= SNAPSHOTS =================
+
+    @Scheduled(cron = "${ledger.snapshot-cron:0 15 0 1 * *}")
+    public void scheduledSnapshot() {
+        snapshot(YearMonth.now().minusMonths(1).atEndOfMonth());
+    }
+
+    // Record every worker's totals at the end of asOf; returns the rows written
+    public int snapshot(LocalDate asOf) {
+        if (archiveService.isArchived(asOf.plusDays(1))) {
+            throw new RuntimeException("Cannot snapshot the ledger at " + asOf + ": later attendance is already archived");
+        }
+        deltaLock.writeLock().lock();
+        try {
+            Integer rows = transactionTemplate.execute(status -> snapshotRepository.snapshotAt(asOf));
+            // committed: backdated writes from now on shift this snapshot too
+            if (latestSnapshot == null || asOf.isAfter(latestSnapshot)) {
+                latestSnapshot = asOf;
+            }
+            return rows != null ? rows : 0;
+        } finally {
+            deltaLock.writeLock().unlock();
+        }
+    }
+
+    // ================= READS =================
+
+    public LedgerBalance balance(Long workerId) {
+        requireWorker(workerId);
+        return ledgerRepository.findById(workerId)
+                .map(l -> new LedgerBalance(workerId, null, l.getEarned(), l.getSalaryPaid(), l.getAdvancesPaid()))
+                .orElse(new LedgerBalance(workerId, null, 0, 0, 0));
+    }
+
+    // Totals at the end of the given day: latest snapshot on or before it plus the activity after that
+    public LedgerBalance balanceAsOf(Long workerId, LocalDate date) {
+        requireWorker(workerId);
+        return totalsAsOf(workerId, date);
+    }
+
+    public LedgerStatement statement(Long workerId, LocalDate from, LocalDate to) {
+        requireWorker(workerId);
+        if (to.isBefore(from)) {
+            throw new RuntimeException("Statement end " + to + " is before start " + from);
+        }
+        if ((archiveService.isArchived(from) && from.getDayOfMonth() != 1)
+                || (archiveService.isArchived(to) && !to.equals(YearMonth.from(to).atEndOfMonth()))) {
+            throw new RuntimeException("Statement " + from + " to " + to + " splits an archived month; periods before "
+                    + archiveService.getHotStart() + " must cover whole months");
+        }
+
+        LedgerStatement statement = new LedgerStatement();
+        statement.setWorkerId(workerId);
+        statement.setFrom(from);
+        statement.setTo(to);
+        statement.setOpeningBalance(totalsAsOf(workerId, from.minusDays(1)).getBalance());
+
+        List<LedgerStatement.Entry> entries = new ArrayList<>();
+        for (AttendanceMonthlySummary s : archiveService.archivedMonthsOfWorker(workerId, YearMonth.from(from),
+                YearMonth.from(to))) {
+            YearMonth month = YearMonth.of(s.getPeriodKey() / 100, s.getPeriodKey() % 100);
+            entries.add(new LedgerStatement.Entry(month.atEndOfMonth(), LedgerStatement.ARCHIVED_MONTH, null,
+                    month + ": " + s.getPresentDays() + " present days, " + s.getOvertimeHours() + " overtime hours",
+                    s.getTotalPay(), 0));
+        }
+        for (Object[] row : attendanceRepository.statementRowsByWorker(workerId, from, to)) {
+            double overtime = ((Number) row[3]).doubleValue();
+            entries.add(new LedgerStatement.Entry((LocalDate) row[1], LedgerStatement.ATTENDANCE, (Long) row[0],
+                    row[2] + (overtime != 0 ? ", " + overtime + " overtime hours" : ""),
+                    ((Number) row[4]).doubleValue(), 0));
+        }
+        for (Payment p : paymentRepository.findByWorkerIdAndDateBetweenOrderByDateAscIdAsc(workerId, from, to)) {
+            entries.add(new LedgerStatement.Entry(p.getDate(), p.getType(), p.getId(), p.getNote(), 0,
+                    p.getAmount() != null ? p.getAmount() : 0));
+        }
+        entries.sort(Comparator.comparing(LedgerStatement.Entry::getDate)); // stable: earnings before payments per day
+
+        double balance = statement.getOpeningBalance();
+        for (LedgerStatement.Entry e : entries) {
+            balance += e.getCredit() - e.getDebit();
+        }
+        statement.setEntries(entries);
+        statement.setClosingBalance(balance);
+        return statement;
+    }
+
+    private LedgerBalance totalsAsOf(Long workerId, LocalDate date) {
+        Optional<WorkerLedgerSnapshot> snapshot =
+                snapshotRepository.findFirstByWorkerIdAndAsOfLessThanEqualOrderByAsOfDesc(workerId, date);
+        LedgerBalance totals = snapshot
+                .map(s -> new LedgerBalance(workerId, date, s.getEarned(), s.getSalaryPaid(), s.getAdvancesPaid()))
+                .orElse(new LedgerBalance(workerId, date, 0, 0, 0));
+        LocalDate from = snapshot.map(s -> s.getAsOf().plusDays(1)).orElse(EARLIEST_DATE);
+        // archived months only have month totals: a day inside one counts the months before it
+        LocalDate earnedTo = date;
+        if (archiveService.isArchived(date) && !date.equals(YearMonth.from(date).atEndOfMonth())) {
+            earnedTo = YearMonth.from(date).minusMonths(1).atEndOfMonth();
+        }
+        if (!from.isAfter(earnedTo)) {
+            Object[] earned = archiveService.payrollTotals(workerId, from, earnedTo);
+            totals.setEarned(totals.getEarned() + ((Number) earned[2]).doubleValue());
+        }
+        if (!from.isAfter(date)) {
+            Object[] paid = paymentRepository.ledgerTotalsByWorker(workerId, from, date).get(0);
+            totals.setSalaryPaid(totals.getSalaryPaid() + ((Number) paid[0]).doubleValue());
+            totals.setAdvancesPaid(totals.getAdvancesPaid() + ((Number) paid[1]).doubleValue());
+        }
+        return totals;
+    }
+
+    private void requireWorker(Long workerId) {
+        if (!workerRepository.existsById(workerId)) {
+            throw new RuntimeException("Worker not found with ID: " + workerId);
+        }
+    }
+}
@@ -0,0 +1,570 @@
+package com.construction.site_management.service;
+
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.construction.site_management.model.Worker;
+import com.construction.site_management.payload.WorkerSearchHit;
+import com.construction.site_management.repository.WorkerRepository;
+
+import jakarta.annotation.PreDestroy;
+
+// In-memory type-ahead index over worker name, phone and Aadhaar number.
+//  - prefix lists per tier (first name word, other name words, numbers): every prefix of a
+//    name word, the first two digits of a number
+//  - trigram postings for matches anywhere in a field; the rarest trigram of a term gives
+//    its candidates
+//  - every list is kept in rank order. A one-term query walks its tiers best first and
+//    stops after `limit` hits. A query of several terms walks the candidates of its most
+//    selective term, keeps those among every other term's candidates and scores at most
+//    MULTI_TERM_CANDIDATES of them
+//  - every candidate is verified and scored; all query terms must match (prefix beats infix)
+// Workers live in dense slots and postings are int arrays. A removed worker's slot stays
+// until a background compaction drops it. Seeded at startup, updated after worker
+// save/delete commits, and rebuilt periodically to pick up changes made by other instances.
+@Component
+public class WorkerSearchIndex {
+
+    private static final int GRAM = 3;
+
+    // filtered candidates scored for a query of several terms, taken in rank order
+    static final int MULTI_TERM_CANDIDATES = 2000;
+
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern NON_DIGIT = Pattern.compile("\\D");
+    private static final Pattern DIGITS = Pattern.compile("\\d+");
+    private static final Pattern PHONE_LIKE = Pattern.compile("\\+?\\d[\\d\\s-]*");
+    private static final Pattern COUNTRY_CODE = Pattern.compile("^\\+91[\\s-]*");
+
+    // score of one query term against one worker
+    private static final int EXACT_NUMBER = 100;
+    private static final int EXACT_NAME = 95;
+    private static final int FIRST_NAME_PREFIX = 90;
+    private static final int NAME_PREFIX = 80;
+    private static final int NUMBER_PREFIX = 75;
+    private static final int NAME_INFIX = 50;
+    private static final int NUMBER_INFIX = 40;
+
+    // prefix tiers, in the order their scores rank
+    private static final int LEADING = 0;
+    private static final int NAME = 1;
+    private static final int NUMBER = 2;
+
+    // order among equal scores: shorter names first, then by id
+    private static final Comparator<Doc> BY_RANK = Comparator.comparingInt((Doc d) -> d.nameKey.length())
+            .thenComparing(d -> d.id);
+
+    private static final Comparator<Scored> RANKING = Comparator.comparingInt((Scored s) -> s.score).reversed()
+            .thenComparing(s -> s.doc, BY_RANK);
+
+    // one indexed worker, with its fields normalized for matching
+    private static final class Doc {
+        final Long id;
+        final String name;
+        final String phone;
+        final String aadhaar;
+        final String nameKey;
+        final String[] nameTokens;
+        final String phoneKey;
+        final String aadhaarKey;
+
+        Doc(Long id, String name, String phone, String aadhaar) {
+            this.id = id;
+            this.name = name;
+            this.phone = phone;
+            this.aadhaar = aadhaar;
+            this.nameTokens = words(name);
+            this.nameKey = String.join(" ", nameTokens);
+            this.phoneKey = digits(phone);
+            this.aadhaarKey = digits(aadhaar);
+        }
+    }
+
+    private record Scored(Doc doc, int score) {
+    }
+
+    // One normalized query term; numeric terms are matched against phone and Aadhaar only
+    private record Term(String text, boolean numeric) {
+    }
+
+    // growable int array used for postings
+    private static final class IntList {
+        int[] items = new int[2];
+        int size;
+
+        void add(int value) {
+            insert(size, value);
+        }
+
+        void insert(int index, int value) {
+            if (size == items.length) items = Arrays.copyOf(items, size * 2);
+            System.arraycopy(items, index, items, index + 1, size - index);
+            items[index] = value;
+            size++;
+        }
+    }
+
+    private static final class Index {
+        final List<Doc> slots = new ArrayList<>();
+        final BitSet removedSlots = new BitSet();
+        final Map<Long, Integer> slotById = new HashMap<>();
+        final List<Map<String, IntList>> prefixes = List.of(new HashMap<>(), new HashMap<>(), new HashMap<>());
+        final Map<String, IntList> grams = new HashMap<>();
+
+        // Index a worker (replacing any previous entry). inRankOrder: the caller adds workers
+        // sorted by BY_RANK, so prefix lists can simply be appended to.
+        void put(Doc doc, boolean inRankOrder) {
+            remove(doc.id);
+            int slot = slots.size();
+            slots.add(doc);
+            slotById.put(doc.id, slot);
+
+            Set<String> docGrams = new HashSet<>();
+            for (int i = 0; i < doc.nameTokens.length; i++) {
+                index(i == 0 ? LEADING : NAME, doc.nameTokens[i], slot, inRankOrder, docGrams);
+            }
+            index(NUMBER, doc.phoneKey, slot, inRankOrder, docGrams);
+            index(NUMBER, doc.aadhaarKey, slot, inRankOrder, docGrams);
+            for (String gram : docGrams) {
+                add(grams.computeIfAbsent(gram, g -> new IntList()), slot, inRankOrder);
+            }
+        }
+
+        private void index(int tier, String token, int slot, boolean inRankOrder, Set<String> docGrams) {
+            int longest = tier == NUMBER ? Math.min(GRAM - 1, token.length()) : token.length();
+            for (int length = 1; length <= longest; length++) {
+                add(prefixes.get(tier).computeIfAbsent(token.substring(0, length), p -> new IntList()), slot,
+                        inRankOrder);
+            }
+            for (int i = 0; i + GRAM <= token.length(); i++) {
+                docGrams.add(token.substring(i, i + GRAM));
+            }
+        }
+
+        private void add(IntList list, int slot, boolean inRankOrder) {
+            if (inRankOrder) {
+                // the same prefix from another word of this worker
+                if (list.size == 0 || list.items[list.size - 1] != slot) list.add(slot);
+            } else {
+                int position = rankPosition(list, slots.get(slot));
+                if (position == 0 || list.items[position - 1] != slot) list.insert(position, slot);
+            }
+        }
+
+        // first position whose worker ranks after doc
+        private int rankPosition(IntList list, Doc doc) {
+            int low = 0;
+            int high = list.size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (BY_RANK.compare(slots.get(list.items[mid]), doc) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        void remove(Long id) {
+            Integer slot = slotById.remove(id);
+            if (slot != null) removedSlots.set(slot);
+        }
+
+        Doc live(int slot) {
+            return removedSlots.get(slot) ? null : slots.get(slot);
+        }
+
+        boolean needsCompaction() {
+            int removed = removedSlots.cardinality();
+            return removed > 1000 && removed > slotById.size() / 4;
+        }
+
+        static Index of(List<Doc> docs) {
+            docs.sort(BY_RANK);
+            Index index = new Index();
+            for (Doc doc : docs) {
+                index.put(doc, true);
+            }
+            return index;
+        }
+
+        List<Doc> liveDocs() {
+            List<Doc> docs = new ArrayList<>(slotById.size());
+            for (int slot : slotById.values()) {
+                docs.add(slots.get(slot));
+            }
+            return docs;
+        }
+    }
+
+    private final WorkerRepository workerRepository;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Index index = new Index();
+    // changes made while a rebuild reads the database, replayed onto the rebuilt index
+    private List<Consumer<Index>> replay;
+
+    private final AtomicBoolean compactionQueued = new AtomicBoolean();
+    private final ExecutorService compactor = Executors.newSingleThreadExecutor(r -> {
+        Thread t = new Thread(r, "worker-search-compaction");
+        t.setDaemon(true);
+        return t;
+    });
+
+    public WorkerSearchIndex(WorkerRepository workerRepository,
+            @Value("${worker-search.default-limit:20}") int defaultLimit,
+            @Value("${worker-search.max-limit:100}") int maxLimit) {
+        this.workerRepository = workerRepository;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+    }
+
+    // ================= BUILD =================
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seed() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${worker-search.rebuild-interval-ms:900000}",
+            fixedDelayString = "${worker-search.rebuild-interval-ms:900000}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    public synchronized int rebuild() {
+        return reload(() -> {
+            List<Doc> docs = new ArrayList<>();
+            for (Object[] row : workerRepository.searchRows()) {
+                docs.add(new Doc((Long) row[0], (String) row[1], (String) row[2], (String) row[3]));
+            }
+            return docs;
+        });
+    }
+
+    // Rebuild from the live entries to drop removed slots; runs on the compaction thread
+    synchronized void compact() {
+        compactionQueued.set(false);
+        reload(() -> {
+            lock.readLock().lock();
+            try {
+                return index.liveDocs();
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+    }
+
+    // Build a new index outside the lock; changes landing meanwhile are replayed onto it
+    private int reload(Supplier<List<Doc>> source) {
+        lock.writeLock().lock();
+        try {
+            replay = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        Index fresh;
+        try {
+            fresh = Index.of(source.get());
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                replay = null; // keep serving the current index
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+        lock.writeLock().lock();
+        try {
+            replay.forEach(change -> change.accept(fresh));
+            index = fresh;
+            replay = null;
+            return fresh.slotById.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // ================= UPDATES =================
+
+    // Call after the worker's save has committed
+    public void put(Worker worker) {
+        Doc doc = new Doc(worker.getId(), worker.getName(), worker.getPhone(), worker.getAadharNumber());
+        change(i -> i.put(doc, false));
+    }
+
+    // Call after the worker's delete has committed
+    public void remove(Long workerId) {
+        change(i -> i.remove(workerId));
+    }
+
+    private void change(Consumer<Index> change) {
+        boolean compact;
+        lock.writeLock().lock();
+        try {
+            change.accept(index);
+            if (replay != null) replay.add(change);
+            compact = index.needsCompaction();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        if (compact && compactionQueued.compareAndSet(false, true)) {
+            compactor.execute(this::compact);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        compactor.shutdownNow();
+    }
+
+    // ================= SEARCH =================
+
+    public List<WorkerSearchHit> search(String query, Integer limit) {
+        int max = limit == null || limit <= 0 ? defaultLimit : Math.min(limit, maxLimit);
+        Term[] terms = terms(query);
+        if (terms.length == 0) return List.of();
+
+        List<Scored> ranked;
+        lock.readLock().lock();
+        try {
+            if (terms.length > 1) {
+                ranked = bestOfAllTerms(index, terms, max);
+            } else if (terms[0].numeric && terms[0].text.length() >= GRAM) {
+                // exact, prefix and infix number matches all come from the trigram postings
+                ranked = bestOfCandidates(index, terms, candidates(index, terms[0]), List.of(), max,
+                        Integer.MAX_VALUE);
+            } else {
+                ranked = firstInRankOrder(index, terms[0], max);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<WorkerSearchHit> hits = new ArrayList<>(ranked.size());
+        for (Scored s : ranked) {
+            hits.add(new WorkerSearchHit(s.doc.id, s.doc.name, s.doc.phone, s.doc.aadhaar, s.score));
+        }
+        return hits;
+    }
+
+    // Single name term, or number term of 1-2 digits. Tiers rank in list order (first word
+    // prefix, other word prefix, then anywhere in the name through the rarest trigram) and
+    // each list is in rank order, so the first max matches are the best ones.
+    private static List<Scored> firstInRankOrder(Index idx, Term term, int max) {
+        Term[] terms = { term };
+        List<IntList> lists = new ArrayList<>(prefixLists(idx, term));
+        if (!term.numeric && term.text.length() >= GRAM) lists.addAll(rarestGram(idx, term.text));
+        List<Scored> hits = new ArrayList<>(max);
+        BitSet taken = new BitSet();
+        for (IntList list : lists) {
+            for (int i = 0; i < list.size && hits.size() < max; i++) {
+                int slot = list.items[i];
+                if (taken.get(slot)) continue;
+                Doc doc = idx.live(slot);
+                if (doc == null) continue;
+                // a trigram match may still miss the whole term
+                int score = score(doc, terms);
+                if (score == 0) continue;
+                taken.set(slot);
+                hits.add(new Scored(doc, score));
+            }
+        }
+        // a name equal to the term outscores the other first-name matches
+        hits.sort(RANKING);
+        return hits;
+    }
+
+    // Several terms: walk the candidates of the most selective term, drop those missing from
+    // another term's candidates, and score at most MULTI_TERM_CANDIDATES of the rest
+    private static List<Scored> bestOfAllTerms(Index idx, Term[] terms, int max) {
+        List<List<IntList>> perTerm = new ArrayList<>(terms.length);
+        int lead = 0;
+        int leadSize = Integer.MAX_VALUE;
+        for (int t = 0; t < terms.length; t++) {
+            List<IntList> lists = candidates(idx, terms[t]);
+            int size = 0;
+            for (IntList list : lists) {
+                size += list.size;
+            }
+            if (size == 0) return List.of();
+            perTerm.add(lists);
+            if (size < leadSize) {
+                lead = t;
+                leadSize = size;
+            }
+        }
+        List<BitSet> filters = new ArrayList<>(terms.length - 1);
+        for (int t = 0; t < terms.length; t++) {
+            if (t == lead) continue;
+            BitSet filter = new BitSet(idx.slots.size());
+            for (IntList list : perTerm.get(t)) {
+                for (int i = 0; i < list.size; i++) {
+                    filter.set(list.items[i]);
+                }
+            }
+            filters.add(filter);
+        }
+        return bestOfCandidates(idx, terms, perTerm.get(lead), filters, max, MULTI_TERM_CANDIDATES);
+    }
+
+    // Score up to maxScored candidates that pass every filter, in rank order, and keep the best max
+    private static List<Scored> bestOfCandidates(Index idx, Term[] terms, List<IntList> lists, List<BitSet> filters,
+            int max, int maxScored) {
+        // a worker can sit in more than one tier list
+        BitSet seen = lists.size() > 1 ? new BitSet(idx.slots.size()) : null;
+        // worst of the current top hits at the head
+        PriorityQueue<Scored> top = new PriorityQueue<>(max + 1, RANKING.reversed());
+        int scored = 0;
+        for (IntList list : lists) {
+            int[] items = list.items;
+            for (int i = 0; i < list.size && scored < maxScored; i++) {
+                int slot = items[i];
+                if (seen != null) {
+                    if (seen.get(slot)) continue;
+                    seen.set(slot);
+                }
+                if (!passes(filters, slot)) continue;
+                Doc doc = idx.live(slot);
+                if (doc == null) continue;
+                scored++;
+                int score = score(doc, terms);
+                if (score == 0) continue;
+                if (top.size() == max && !outranks(score, doc, top.peek())) continue;
+                top.add(new Scored(doc, score));
+                if (top.size() > max) top.poll();
+            }
+        }
+        List<Scored> ranked = new ArrayList<>(top);
+        ranked.sort(RANKING);
+        return ranked;
+    }
+
+    private static boolean passes(List<BitSet> filters, int slot) {
+        for (BitSet filter : filters) {
+            if (!filter.get(slot)) return false;
+        }
+        return true;
+    }
+
+    // Same order as RANKING, without allocating a candidate first
+    private static boolean outranks(int score, Doc doc, Scored other) {
+        if (score != other.score) return score > other.score;
+        return BY_RANK.compare(doc, other.doc) < 0;
+    }
+
+    // Every worker the term can match: its prefix lists, or for 3+ characters its rarest
+    // trigram (which also covers the prefix matches)
+    private static List<IntList> candidates(Index idx, Term term) {
+        return term.text.length() < GRAM ? prefixLists(idx, term) : rarestGram(idx, term.text);
+    }
+
+    // Tier lists for a term, best tier first
+    private static List<IntList> prefixLists(Index idx, Term term) {
+        List<IntList> lists = new ArrayList<>(2);
+        for (int tier : term.numeric ? new int[] { NUMBER } : new int[] { LEADING, NAME }) {
+            IntList list = idx.prefixes.get(tier).get(term.text);
+            if (list != null) lists.add(list);
+        }
+        return lists;
+    }
+
+    private static List<IntList> rarestGram(Index idx, String term) {
+        IntList rarest = null;
+        for (int i = 0; i + GRAM <= term.length(); i++) {
+            IntList postings = idx.grams.get(term.substring(i, i + GRAM));
+            if (postings == null) return List.of();
+            if (rarest == null || postings.size < rarest.size) rarest = postings;
+        }
+        return List.of(rarest);
+    }
+
+    // Sum of the term scores, or 0 when any term does not match
+    private static int score(Doc doc, Term[] terms) {
+        int total = 0;
+        for (Term term : terms) {
+            int best = term.numeric
+                    ? Math.max(numberScore(doc.phoneKey, term.text), numberScore(doc.aadhaarKey, term.text))
+                    : nameScore(doc, term.text);
+            if (best == 0) return 0;
+            total += best;
+        }
+        return total;
+    }
+
+    private static int nameScore(Doc doc, String term) {
+        if (term.equals(doc.nameKey)) return EXACT_NAME;
+        String[] tokens = doc.nameTokens;
+        for (int i = 0; i < tokens.length; i++) {
+            if (tokens[i].startsWith(term)) return i == 0 ? FIRST_NAME_PREFIX : NAME_PREFIX;
+        }
+        return term.length() >= GRAM && doc.nameKey.contains(term) ? NAME_INFIX : 0;
+    }
+
+    private static int numberScore(String key, String term) {
+        if (key.isEmpty()) return 0;
+        if (key.equals(term)) return EXACT_NUMBER;
+        if (key.startsWith(term)) return NUMBER_PREFIX;
+        if (term.length() >= GRAM && key.contains(term)) return NUMBER_INFIX;
+        return 0;
+    }
+
+    // ================= NORMALIZATION =================
+
+    // Query terms: words lower-cased; a number written with spaces or dashes is one term,
+    // and a leading +91 country code is dropped
+    private static Term[] terms(String query) {
+        if (query == null) return new Term[0];
+        String trimmed = query.trim();
+        if (PHONE_LIKE.matcher(trimmed).matches()) {
+            String digits = digits(COUNTRY_CODE.matcher(trimmed).replaceFirst(""));
+            return digits.isEmpty() ? new Term[0] : new Term[] { new Term(digits, true) };
+        }
+        String[] words = words(trimmed);
+        Term[] terms = new Term[words.length];
+        for (int i = 0; i < words.length; i++) {
+            terms[i] = new Term(words[i], DIGITS.matcher(words[i]).matches());
+        }
+        return terms;
+    }
+
+    private static String[] words(String text) {
+        if (text == null) return new String[0];
+        String normalized = NON_WORD.matcher(text.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    private static String digits(String text) {
+        return text == null ? "" : NON_DIGIT.matcher(text).replaceAll("");
+    }
+
+    public Map<String, Object> stats() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("workers", index.slotById.size());
+            stats.put("removedSlots", index.removedSlots.cardinality());
+            stats.put("prefixes", index.prefixes.stream().mapToInt(Map::size).sum());
+            stats.put("trigrams", index.grams.size());
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+}
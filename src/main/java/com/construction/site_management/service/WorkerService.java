@@ -1,34 +1,74 @@
 package com.construction.site_management.service;
 
+import com.construction.site_management.model.DeletionJob;
 import com.construction.site_management.model.Worker;
 import com.construction.site_management.model.Project;
+import com.construction.site_management.payload.WorkerRow;
+import com.construction.site_management.payload.WorkerSearchHit;
 import com.construction.site_management.repository.WorkerRepository;
-import com.construction.site_management.repository.ProjectRepository;
+import com.construction.site_management.support.AfterCommit;
 import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class WorkerService {
 
     private final WorkerRepository workerRepository;
-    private final ProjectRepository projectRepository;
+    private final SummaryCache summaryCache;
+    private final TopPaidWorkersTracker topPaidWorkers;
+    private final ReferenceDataCache referenceCache;
+    private final BulkDeleteService bulkDeleteService;
+    private final WorkerSearchIndex searchIndex;
 
-    public WorkerService(WorkerRepository workerRepository, ProjectRepository projectRepository) {
+    public WorkerService(WorkerRepository workerRepository,
+            SummaryCache summaryCache,
+            TopPaidWorkersTracker topPaidWorkers,
+            ReferenceDataCache referenceCache,
+            BulkDeleteService bulkDeleteService,
+            WorkerSearchIndex searchIndex) {
         this.workerRepository = workerRepository;
-        this.projectRepository = projectRepository;
+        this.summaryCache = summaryCache;
+        this.topPaidWorkers = topPaidWorkers;
+        this.referenceCache = referenceCache;
+        this.bulkDeleteService = bulkDeleteService;
+        this.searchIndex = searchIndex;
     }
 
     public Worker saveWorker(Worker worker) {
         if (worker.getProject() != null && worker.getProject().getId() != null) {
-            Project project = projectRepository.findById(worker.getProject().getId())
+            Project project = referenceCache.project(worker.getProject().getId())
                     .orElseThrow(() -> new RuntimeException("Project not found with ID: " + worker.getProject().getId()));
             worker.setProject(project);
         }
-        return workerRepository.save(worker);
+        Worker saved = workerRepository.save(worker);
+        AfterCommit.run(() -> {
+            topPaidWorkers.renameWorker(saved.getId(), saved.getName());
+            referenceCache.workerChanged(saved.getId());
+            searchIndex.put(saved);
+            summaryCache.workersChanged();
+        });
+        return saved;
     }
 
-    public List<Worker> getAllWorkers() {
-        return workerRepository.findAll();
+    public List<WorkerRow> getWorkerRows() {
+        return workerRepository.findAllRows();
+    }
+
+    // Rows for the given ids (search hits), in the order asked for; unknown ids are skipped
+    public List<WorkerRow> getWorkerRows(List<Long> ids) {
+        Map<Long, WorkerRow> byId = new HashMap<>();
+        for (WorkerRow row : workerRepository.findRowsByIdIn(ids)) {
+            byId.put(row.getId(), row);
+        }
+        List<WorkerRow> rows = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            WorkerRow row = byId.get(id);
+            if (row != null) rows.add(row);
+        }
+        return rows;
     }
 
     public Worker getWorkerById(Long id) {
@@ -36,13 +76,17 @@ public class WorkerService {
                 .orElseThrow(() -> new RuntimeException("Worker not found with ID: " + id));
     }
 
+    // Ranked type-ahead over name, phone and Aadhaar, served from memory
+    public List<WorkerSearchHit> searchWorkers(String query, Integer limit) {
+        return searchIndex.search(query, limit);
+    }
+
     public List<Worker> getWorkersByProjectId(Long projectId) {
         return workerRepository.findByProjectId(projectId);
     }
-    public void deleteWorker(Long id) {
-        if (!workerRepository.existsById(id)) {
-            throw new RuntimeException("Cannot delete — Worker not found with ID: " + id);
-        }
-        workerRepository.deleteById(id);
+    // Set-based removal of the worker and its attendance, payments and tasks;
+    // returns the background job when there is too much to delete inline
+    public DeletionJob deleteWorker(Long id) {
+        return bulkDeleteService.deleteWorker(id);
     }
 }
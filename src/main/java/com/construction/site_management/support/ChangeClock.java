@@ -0,0 +1,126 @@
+package com.construction.site_management.support;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+
+// Global, monotonic change-version clock for the sync API.
+// Versions handed out to transactions that have not finished yet are tracked, and
+// watermark() never passes the oldest of them: a client syncing up to the watermark
+// cannot skip a row that commits later with a lower version.
+// State is static because JPA entity listeners are not Spring beans.
+@Component
+@DependsOn("entityManagerFactory") // schema update has added the change_version columns
+public class ChangeClock {
+
+    // tables carrying change_version, in backfill order
+    private static final String[] TABLES = { "attendance", "task", "worker", "payment" };
+
+    private static long clock;
+    private static final ConcurrentSkipListSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    private static volatile JdbcTemplate jdbcTemplate;
+
+    private final JdbcTemplate jdbc;
+
+    public ChangeClock(JdbcTemplate jdbc) {
+        this.jdbc = jdbc;
+    }
+
+    // Give pre-existing rows distinct versions, then continue after the highest one
+    @PostConstruct
+    public void init() {
+        long offset = maxVersion();
+        for (String table : TABLES) {
+            jdbc.update("UPDATE " + table + " SET change_version = id + ? WHERE change_version IS NULL", offset);
+            offset = Math.max(offset, maxVersion(table));
+        }
+        synchronized (ChangeClock.class) {
+            clock = offset;
+        }
+        jdbcTemplate = jdbc;
+    }
+
+    private long maxVersion() {
+        long max = maxVersion("sync_tombstone");
+        for (String table : TABLES) {
+            max = Math.max(max, maxVersion(table));
+        }
+        return max;
+    }
+
+    private long maxVersion(String table) {
+        Long max = jdbc.queryForObject("SELECT MAX(change_version) FROM " + table, Long.class);
+        return max != null ? max : 0L;
+    }
+
+    public static synchronized long next() {
+        long version = ++clock;
+        inFlight.add(version);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    inFlight.remove(version);
+                }
+            });
+        } else {
+            inFlight.remove(version);
+        }
+        return version;
+    }
+
+    // Reserve count consecutive versions for a set-based statement; returns the first
+    public static synchronized long reserve(long count) {
+        long first = clock + 1;
+        clock += count;
+        // tracking the lowest version is enough to hold the watermark below the block
+        inFlight.add(first);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    inFlight.remove(first);
+                }
+            });
+        } else {
+            inFlight.remove(first);
+        }
+        return first;
+    }
+
+    // Highest version below which every change is committed (or rolled back)
+    public static synchronized long watermark() {
+        return inFlight.isEmpty() ? clock : inFlight.first() - 1;
+    }
+
+    // Highest version handed out so far
+    public static synchronized long current() {
+        return clock;
+    }
+
+    // Wait until every version up to upTo has committed or rolled back (and run its
+    // after-commit hooks); false if some are still open after the timeout
+    public static boolean awaitCompletion(long upTo, long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (watermark() < upTo) {
+            if (System.currentTimeMillis() >= deadline) return false;
+            Thread.sleep(5);
+        }
+        return true;
+    }
+
+    // Insert a tombstone in the caller's transaction
+    public static void recordDeletion(String entityType, Long entityId) {
+        jdbcTemplate.update(
+                "INSERT INTO sync_tombstone (entity_type, entity_id, change_version, deleted_at) VALUES (?, ?, ?, ?)",
+                entityType, entityId, next(), Timestamp.valueOf(LocalDateTime.now()));
+    }
+}
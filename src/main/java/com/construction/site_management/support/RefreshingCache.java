@@ -0,0 +1,154 @@
+package com.construction.site_management.support;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+// Small bounded LRU cache with a fresh TTL and a stale-while-revalidate window.
+//  - fresh entry          -> served as a hit
+//  - stale entry          -> served immediately, reloaded in the background
+//  - missing/too old      -> loaded on the caller's thread
+// Invalidation bumps a generation so a load that started earlier cannot
+// put an outdated value back into the cache.
+public class RefreshingCache<K, V> {
+
+    private static class Entry<V> {
+        final V value;
+        final long loadedAt;
+        boolean refreshing;
+
+        Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    private final String name;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final long staleNanos;
+    private final Executor refreshExecutor;
+
+    private final Map<K, Entry<V>> entries;
+    private long generation;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong staleHits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong loads = new AtomicLong();
+    private final AtomicLong loadFailures = new AtomicLong();
+    private final AtomicLong totalLoadNanos = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public RefreshingCache(String name, int maxEntries, Duration ttl, Duration staleWindow, Executor refreshExecutor) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.staleNanos = staleWindow.toNanos();
+        this.refreshExecutor = refreshExecutor;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, Entry<V>> eldest) {
+                if (size() > RefreshingCache.this.maxEntries) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public V get(K key, Supplier<V> loader) {
+        long now = System.nanoTime();
+        long startGeneration;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                long age = now - entry.loadedAt;
+                if (age < ttlNanos) {
+                    hits.incrementAndGet();
+                    return entry.value;
+                }
+                if (age < ttlNanos + staleNanos) {
+                    staleHits.incrementAndGet();
+                    if (!entry.refreshing) {
+                        entry.refreshing = true;
+                        long gen = generation;
+                        refreshExecutor.execute(() -> refresh(key, loader, gen));
+                    }
+                    return entry.value;
+                }
+            }
+            misses.incrementAndGet();
+            startGeneration = generation;
+        }
+        return load(key, loader, startGeneration);
+    }
+
+    private void refresh(K key, Supplier<V> loader, long startGeneration) {
+        try {
+            load(key, loader, startGeneration);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                Entry<V> entry = entries.get(key);
+                if (entry != null) entry.refreshing = false;
+            }
+        }
+    }
+
+    private V load(K key, Supplier<V> loader, long startGeneration) {
+        long started = System.nanoTime();
+        V value;
+        try {
+            value = loader.get();
+        } catch (RuntimeException e) {
+            loadFailures.incrementAndGet();
+            throw e;
+        } finally {
+            loads.incrementAndGet();
+            totalLoadNanos.addAndGet(System.nanoTime() - started);
+        }
+        synchronized (this) {
+            if (generation == startGeneration) {
+                entries.put(key, new Entry<>(value, started));
+            }
+        }
+        return value;
+    }
+
+    public synchronized void invalidate(K key) {
+        generation++;
+        invalidations.incrementAndGet();
+        entries.remove(key);
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        invalidations.incrementAndGet();
+        entries.clear();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long loadCount = loads.get();
+        long requests = hits.get() + staleHits.get() + misses.get();
+        stats.put("name", name);
+        synchronized (this) {
+            stats.put("size", entries.size());
+        }
+        stats.put("maxEntries", maxEntries);
+        stats.put("hits", hits.get());
+        stats.put("staleHits", staleHits.get());
+        stats.put("misses", misses.get());
+        stats.put("hitRate", requests == 0 ? 0.0 : (double) (hits.get() + staleHits.get()) / requests);
+        stats.put("loads", loadCount);
+        stats.put("loadFailures", loadFailures.get());
+        stats.put("averageLoadMillis", loadCount == 0 ? 0.0 : totalLoadNanos.get() / 1_000_000.0 / loadCount);
+        stats.put("evictions", evictions.get());
+        stats.put("invalidations", invalidations.get());
+        return stats;
+    }
+}
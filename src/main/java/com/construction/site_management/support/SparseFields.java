@@ -0,0 +1,51 @@
+package com.construction.site_management.support;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+// ?fields= sparse fieldsets for list rows annotated with @JsonFilter(FILTER):
+// only the named properties (plus id) are written; without the parameter, all of them.
+// A property also answers to its @JsonAlias names. Unknown names are ignored.
+public final class SparseFields {
+
+    public static final String FILTER = "sparseFields";
+
+    private SparseFields() {
+    }
+
+    public static MappingJacksonValue of(Object body, String fields) {
+        SimpleBeanPropertyFilter filter = SimpleBeanPropertyFilter.serializeAll();
+        if (fields != null && !fields.isBlank()) {
+            Set<String> names = new HashSet<>();
+            names.add("id");
+            for (String name : fields.split(",")) {
+                if (!name.isBlank()) names.add(name.trim());
+            }
+            filter = new SimpleBeanPropertyFilter() {
+                @Override
+                protected boolean include(PropertyWriter writer) {
+                    if (names.contains(writer.getName())) return true;
+                    JsonAlias alias = writer.getAnnotation(JsonAlias.class);
+                    return alias != null && Arrays.stream(alias.value()).anyMatch(names::contains);
+                }
+
+                @Override
+                protected boolean include(BeanPropertyWriter writer) {
+                    return include((PropertyWriter) writer);
+                }
+            };
+        }
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider().addFilter(FILTER, filter));
+        return value;
+    }
+}
@@ -0,0 +1,249 @@
+package com.construction.site_management.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.util.function.Supplier;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.construction.site_management.model.Attendance;
+import com.construction.site_management.model.Material;
+import com.construction.site_management.model.Payment;
+import com.construction.site_management.model.Project;
+import com.construction.site_management.model.Task;
+import com.construction.site_management.model.Worker;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+
+import jakarta.persistence.EntityManagerFactory;
+
+// Pins the number of SQL statements behind each read endpoint. Every read is rendered
+// to JSON the way the controller returns it, so a lazy association missing from the
+// endpoint's fetch plan shows up as extra statements.
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("statements")
+class FetchPlanStatementCountTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 3);
+    private static final int WORKERS = 6;
+    private static final int DAYS = 5;
+
+    @Autowired
+    private TestEntityManager em;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AttendanceRepository attendanceRepository;
+
+    @Autowired
+    private WorkerRepository workerRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private MaterialRepository materialRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    // list rows carry the ?fields= filter; rendered here without one
+    private final ObjectWriter json = new ObjectMapper().findAndRegisterModules()
+            .writer(new SimpleFilterProvider().setFailOnUnknownId(false));
+
+    private Statistics statistics;
+    private Project siteA;
+    private Project siteB;
+    private Worker firstWorker;
+    private Payment firstPayment;
+
+    @BeforeEach
+    void seed() {
+        siteA = em.persist(project("Site A"));
+        siteB = em.persist(project("Site B"));
+        for (int w = 0; w < WORKERS; w++) {
+            // workers alternate between the sites; attendance rows use the other site,
+            // so worker and row projects differ and each needs its own join
+            Project home = w % 2 == 0 ? siteA : siteB;
+            Project other = w % 2 == 0 ? siteB : siteA;
+            Worker worker = em.persist(worker("Worker " + w, "90000000" + w, home));
+            if (firstWorker == null) firstWorker = worker;
+            for (int d = 0; d < DAYS; d++) {
+                em.persist(attendance(worker, other, DAY.plusDays(d)));
+            }
+            em.persist(task("Task " + w, worker, other));
+            Payment payment = em.persist(payment(worker, home));
+            if (firstPayment == null) firstPayment = payment;
+        }
+        em.persist(material("Cement", siteA));
+        em.persist(material("Steel", siteB));
+        em.flush();
+        em.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // ================= ATTENDANCE =================
+
+    @Test
+    void attendancePageIsOneStatement() {
+        assertThat(statements(() -> attendanceRepository.findFirstPage(DAY, DAY.plusDays(DAYS), Limit.of(20))))
+                .isEqualTo(1);
+        assertThat(statements(() -> attendanceRepository.findPageAfter(DAY, DAY.plusDays(DAYS), DAY.plusDays(2),
+                Long.MAX_VALUE, Limit.of(20)))).isEqualTo(1);
+    }
+
+    @Test
+    void attendanceByProjectIsOneStatement() {
+        assertThat(statements(() -> attendanceRepository.findByProjectId(siteA.getId()))).isEqualTo(1);
+        assertThat(statements(() -> attendanceRepository.findByProjectIdAndDateBetween(siteA.getId(), DAY,
+                DAY.plusDays(2)))).isEqualTo(1);
+        assertThat(statements(() -> attendanceRepository.findByProjectIdAndWorkerId(siteB.getId(),
+                firstWorker.getId()))).isEqualTo(1);
+    }
+
+    @Test
+    void attendanceByWorkerIsOneStatement() {
+        assertThat(statements(() -> attendanceRepository.findByWorkerId(firstWorker.getId()))).isEqualTo(1);
+        assertThat(statements(() -> attendanceRepository.findByWorkerIdAndDateBetween(firstWorker.getId(), DAY,
+                DAY.plusDays(2)))).isEqualTo(1);
+        assertThat(statements(() -> attendanceRepository.findByWorkerIdAndDate(firstWorker.getId(), DAY)))
+                .isEqualTo(1);
+    }
+
+    // ================= WORKERS =================
+
+    @Test
+    void workerReadsAreOneStatement() {
+        assertThat(statements(() -> workerRepository.findAllRows())).isEqualTo(1);
+        assertThat(statements(() -> workerRepository.findAll())).isEqualTo(1);
+        assertThat(statements(() -> workerRepository.findById(firstWorker.getId()))).isEqualTo(1);
+        assertThat(statements(() -> workerRepository.findByProjectId(siteA.getId()))).isEqualTo(1);
+        assertThat(statements(() -> workerRepository.findByPhone(firstWorker.getPhone()))).isEqualTo(1);
+    }
+
+    // ================= TASKS / MATERIALS =================
+
+    @Test
+    void taskReadsAreOneStatement() {
+        assertThat(statements(() -> taskRepository.findAllRows())).isEqualTo(1);
+        assertThat(statements(() -> taskRepository.findAll())).isEqualTo(1);
+        assertThat(statements(() -> taskRepository.findByWorkerId(firstWorker.getId()))).isEqualTo(1);
+    }
+
+    @Test
+    void materialReadsAreOneStatement() {
+        assertThat(statements(() -> materialRepository.findAllRows())).isEqualTo(1);
+        assertThat(statements(() -> materialRepository.findAll())).isEqualTo(1);
+        assertThat(statements(() -> materialRepository.findByProjectId(siteA.getId()))).isEqualTo(1);
+    }
+
+    @Test
+    void projectListIsOneStatement() {
+        assertThat(statements(() -> projectRepository.findAllRows())).isEqualTo(1);
+    }
+
+    // ================= PAYMENTS =================
+
+    @Test
+    void paymentListIsOneStatement() {
+        assertThat(statements(() -> paymentRepository.findPage(DAY, DAY, null, null, null, null, null,
+                Limit.of(20)))).isEqualTo(1);
+        assertThat(statements(() -> paymentRepository.findPage(DAY, DAY, "Advance", firstWorker.getId(), null,
+                null, null, Limit.of(20)))).isEqualTo(1);
+    }
+
+    @Test
+    void paymentByIdFetchesItsWorker() {
+        assertThat(statements(() -> paymentRepository.findById(firstPayment.getId()).orElseThrow().getWorker()
+                .getName())).isEqualTo(1);
+    }
+
+    // Statements issued by one read plus rendering its result, starting from an empty context
+    private long statements(Supplier<?> read) {
+        em.clear();
+        statistics.clear();
+        Object result = read.get();
+        try {
+            json.writeValueAsString(result);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+        return statistics.getPrepareStatementCount();
+    }
+
+    // ================= FIXTURES =================
+
+    private static Project project(String name) {
+        Project p = new Project();
+        p.setName(name);
+        p.setStatus("Active");
+        return p;
+    }
+
+    private static Worker worker(String name, String phone, Project project) {
+        Worker w = new Worker();
+        w.setName(name);
+        w.setPhone(phone);
+        w.setRatePerDay(800);
+        w.setProject(project);
+        return w;
+    }
+
+    private static Attendance attendance(Worker worker, Project project, LocalDate date) {
+        Attendance a = new Attendance();
+        a.setWorker(worker);
+        a.setProject(project);
+        a.setDate(date);
+        a.setStatus("Present");
+        a.setTotalPay(worker.getRatePerDay());
+        return a;
+    }
+
+    private static Task task(String name, Worker worker, Project project) {
+        Task t = new Task();
+        t.setTaskName(name);
+        t.setWorker(worker);
+        t.setProject(project);
+        t.setStatus("Pending");
+        t.setDeadline(DAY.plusDays(7));
+        return t;
+    }
+
+    private static Material material(String name, Project project) {
+        Material m = new Material();
+        m.setName(name);
+        m.setQuantity(10);
+        m.setUnit("bags");
+        m.setProject(project);
+        return m;
+    }
+
+    private static Payment payment(Worker worker, Project project) {
+        Payment p = new Payment();
+        p.setWorker(worker);
+        p.setType("Advance");
+        p.setAmount(500.0);
+        p.setDate(DAY);
+        p.setProjectId(project.getId());
+        return p;
+    }
+}
@@ -0,0 +1,182 @@
+package com.construction.site_management.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.sql.PreparedStatement;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import com.construction.site_management.model.Attendance;
+import com.construction.site_management.model.Project;
+import com.construction.site_management.model.Worker;
+import com.construction.site_management.payload.BulkAttendanceResult;
+import com.construction.site_management.repository.AttendanceRepository;
+
+// Duplicate detection before the batch insert and inserted-row detection after it,
+// against stubbed references and a JDBC batch that only binds its rows
+class AttendanceIngestionServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 3);
+
+    private AttendanceRepository attendanceRepository;
+    private AttendanceIngestionService service;
+    private final Map<Long, Worker> workers = new HashMap<>();
+    private final List<Object[]> marked = new ArrayList<>();
+    // rows written by a concurrent writer between prepare() and the batch
+    private final List<Object[]> concurrentlyMarked = new ArrayList<>();
+    private final List<Attendance> batched = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        attendanceRepository = mock(AttendanceRepository.class);
+        ReferenceDataCache referenceCache = mock(ReferenceDataCache.class);
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(referenceCache.workers(any())).thenAnswer(call -> {
+            Map<Long, Worker> found = new HashMap<>();
+            for (Long id : call.<Collection<Long>>getArgument(0)) {
+                if (workers.containsKey(id)) found.put(id, workers.get(id));
+            }
+            return found;
+        });
+        when(referenceCache.projects(any())).thenReturn(Map.of());
+        when(attendanceRepository.findWorkerDates(any(), any(), any())).thenReturn(marked);
+        // what the table holds after the batch: this batch's versions unless a concurrent writer got there first
+        when(attendanceRepository.findWorkerDateVersions(any(), any(), any())).thenAnswer(call -> {
+            List<Object[]> rows = new ArrayList<>(concurrentlyMarked);
+            for (Attendance a : batched) {
+                Long workerId = a.getWorker().getId();
+                boolean lost = concurrentlyMarked.stream()
+                        .anyMatch(row -> row[0].equals(workerId) && row[1].equals(a.getDate()));
+                if (!lost) rows.add(new Object[] { workerId, a.getDate(), a.getChangeVersion() });
+            }
+            return rows;
+        });
+        when(jdbcTemplate.batchUpdate(anyString(), any(), anyInt(), any())).thenAnswer(call -> {
+            List<Attendance> rows = new ArrayList<>(call.<Collection<Attendance>>getArgument(1));
+            ParameterizedPreparedStatementSetter<Attendance> setter = call.getArgument(3);
+            PreparedStatement ps = mock(PreparedStatement.class);
+            for (Attendance a : rows) {
+                setter.setValues(ps, a);
+            }
+            batched.addAll(rows);
+            return new int[][] { new int[rows.size()] };
+        });
+
+        service = new AttendanceIngestionService(attendanceRepository, referenceCache,
+                mock(AttendanceRollupService.class), mock(DashboardAggregateStore.class),
+                mock(SummaryCache.class), mock(AttendanceArchiveService.class),
+                mock(WorkerLedgerService.class), jdbcTemplate);
+
+        worker(1L, 800);
+        worker(2L, 600);
+        worker(3L, 500);
+    }
+
+    private void worker(long id, double rate) {
+        Worker worker = new Worker();
+        worker.setId(id);
+        worker.setRatePerDay(rate);
+        workers.put(id, worker);
+    }
+
+    private static Attendance row(Long workerId, LocalDate date, String status, double overtimeHours) {
+        Attendance a = new Attendance();
+        if (workerId != null) {
+            Worker worker = new Worker();
+            worker.setId(workerId);
+            a.setWorker(worker);
+        }
+        a.setDate(date);
+        a.setStatus(status);
+        a.setOvertimeHours(overtimeHours);
+        return a;
+    }
+
+    private static List<String> outcomes(BulkAttendanceResult result) {
+        return result.getRows().stream()
+                .map(row -> row.getIndex() + ":" + row.getResult())
+                .sorted()
+                .toList();
+    }
+
+    private static String reason(BulkAttendanceResult result, int index) {
+        return result.getRows().stream().filter(row -> row.getIndex() == index).findFirst().orElseThrow().getReason();
+    }
+
+    @Test
+    void rejectsRowsAlreadyMarkedInTheDatabaseOrEarlierInTheBatch() {
+        marked.add(new Object[] { 1L, DAY });
+
+        BulkAttendanceResult result = service.ingest(List.of(
+                row(1L, DAY, "Present", 0),
+                row(2L, DAY, "Present", 0),
+                row(2L, DAY, "Half Day", 0),
+                row(2L, DAY.plusDays(1), "Present", 0)));
+
+        assertThat(outcomes(result)).containsExactly("0:REJECTED", "1:ACCEPTED", "2:REJECTED", "3:ACCEPTED");
+        assertThat(reason(result, 0)).isEqualTo(AttendanceIngestionService.ALREADY_MARKED + DAY);
+        assertThat(reason(result, 2)).isEqualTo(AttendanceIngestionService.ALREADY_MARKED + DAY);
+        assertThat(batched).hasSize(2);
+    }
+
+    @Test
+    void rejectsMissingAndUnknownReferences() {
+        Attendance unknownProject = row(3L, DAY, "Present", 0);
+        Project project = new Project();
+        project.setId(99L);
+        unknownProject.setProject(project);
+
+        BulkAttendanceResult result = service.ingest(List.of(
+                row(null, DAY, "Present", 0),
+                row(42L, DAY, "Present", 0),
+                row(1L, null, "Present", 0),
+                unknownProject));
+
+        assertThat(result.getAccepted()).isEqualTo(0);
+        assertThat(reason(result, 0)).isEqualTo("Worker ID is required");
+        assertThat(reason(result, 1)).isEqualTo("Worker not found with ID: 42");
+        assertThat(reason(result, 2)).isEqualTo("Date is required");
+        assertThat(reason(result, 3)).isEqualTo("Project not found with ID: 99");
+        assertThat(batched).isEmpty();
+    }
+
+    @Test
+    void pricesAcceptedRowsFromTheCachedWorker() {
+        service.ingest(List.of(row(1L, DAY, "Present", 2), row(2L, DAY, "Absent", 0)));
+
+        assertThat(batched.get(0).getTotalPay())
+                .isEqualTo(AttendanceService.calculatePay(800, "Present", 2));
+        assertThat(batched.get(1).getTotalPay()).isEqualTo(0.0);
+        assertThat(batched.get(0).getChangeVersion()).isNotNull();
+    }
+
+    @Test
+    void rowsAConcurrentWriteInsertedFirstAreMovedToRejected() {
+        // worker 2's day was marked by another request after prepare() looked
+        concurrentlyMarked.add(new Object[] { 2L, DAY, -1L });
+
+        BulkAttendanceResult result = service.ingest(List.of(
+                row(1L, DAY, "Present", 0),
+                row(2L, DAY, "Present", 0),
+                row(3L, DAY, "Present", 0)));
+
+        assertThat(outcomes(result)).containsExactly("0:ACCEPTED", "1:REJECTED", "2:ACCEPTED");
+        assertThat(reason(result, 1)).isEqualTo(AttendanceIngestionService.ALREADY_MARKED + DAY);
+        assertThat(result.getAccepted()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(1);
+    }
+}
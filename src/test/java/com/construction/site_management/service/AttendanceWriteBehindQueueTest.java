@@ -0,0 +1,220 @@
+package com.construction.site_management.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.construction.site_management.model.Attendance;
+import com.construction.site_management.model.Worker;
+import com.construction.site_management.payload.BulkAttendanceResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+// Journal replay across restarts and re-marks of a queued or in-flight day, with a real
+// journal in a temporary directory and a stubbed ingestion service recording each upsert
+class AttendanceWriteBehindQueueTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 3, 3);
+
+    @TempDir
+    Path dir;
+
+    private ReferenceDataCache referenceCache;
+    private AttendanceIngestionService ingestionService;
+    private JdbcTemplate jdbcTemplate;
+    // "workerId status" of every row upserted, one list per flush
+    private final List<List<String>> upserts = Collections.synchronizedList(new ArrayList<>());
+    private final List<AttendanceWriteBehindQueue> queues = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        referenceCache = mock(ReferenceDataCache.class);
+        ingestionService = mock(AttendanceIngestionService.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(referenceCache.worker(any())).thenAnswer(call -> {
+            Worker worker = new Worker();
+            worker.setId(call.getArgument(0));
+            worker.setRatePerDay(800);
+            return Optional.of(worker);
+        });
+        when(ingestionService.prepare(anyList(), anyInt(), any(), eq(true))).thenAnswer(call -> {
+            List<Attendance> rows = call.getArgument(0);
+            BulkAttendanceResult result = call.getArgument(2);
+            for (int i = 0; i < rows.size(); i++) {
+                result.accept(i, rows.get(i).getWorker().getId(), rows.get(i).getDate());
+            }
+            return rows;
+        });
+        doAnswer(call -> {
+            List<Attendance> rows = call.getArgument(0);
+            upserts.add(rows.stream().map(a -> a.getWorker().getId() + " " + a.getStatus()).toList());
+            return null;
+        }).when(ingestionService).upsert(anyList());
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class))).thenReturn(1);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        for (AttendanceWriteBehindQueue queue : queues) {
+            queue.shutdown();
+        }
+    }
+
+    // a queue on the shared journal, as after a (re)start; the writer is not running yet
+    private AttendanceWriteBehindQueue start(int capacity) throws Exception {
+        AttendanceWriteBehindQueue queue = new AttendanceWriteBehindQueue(true, capacity, 500, 10, 5,
+                dir.resolve("attendance.journal").toString(), referenceCache, ingestionService,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), jdbcTemplate, new ObjectMapper());
+        queue.replay();
+        queues.add(queue);
+        return queue;
+    }
+
+    private void restart(AttendanceWriteBehindQueue queue) throws Exception {
+        queue.shutdown();
+        queues.remove(queue);
+    }
+
+    private static Attendance mark(long workerId, LocalDate date, String status) {
+        Attendance a = new Attendance();
+        Worker worker = new Worker();
+        worker.setId(workerId);
+        a.setWorker(worker);
+        a.setDate(date);
+        a.setStatus(status);
+        return a;
+    }
+
+    private static List<String> statuses(AttendanceWriteBehindQueue queue, long workerId) {
+        return queue.withPending(workerId, null, null, List.of()).stream()
+                .map(a -> a.getDate() + " " + a.getStatus())
+                .sorted()
+                .toList();
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            if (System.currentTimeMillis() > deadline) throw new AssertionError("condition not reached");
+            Thread.sleep(5);
+        }
+    }
+
+    @Test
+    void acknowledgedMarksAreReplayedAfterARestart() throws Exception {
+        AttendanceWriteBehindQueue queue = start(100);
+        queue.submit(mark(1, DAY, "Present"));
+        queue.submit(mark(1, DAY.plusDays(1), "Half Day"));
+        queue.submit(mark(2, DAY, "Absent"));
+        restart(queue);
+
+        AttendanceWriteBehindQueue restarted = start(100);
+
+        assertThat(restarted.stats()).containsEntry("queued", 3);
+        assertThat(statuses(restarted, 1)).containsExactly(DAY + " Present", DAY.plusDays(1) + " Half Day");
+        assertThat(statuses(restarted, 2)).containsExactly(DAY + " Absent");
+    }
+
+    @Test
+    void reMarkOfAQueuedDayReplacesIt() throws Exception {
+        AttendanceWriteBehindQueue queue = start(100);
+        queue.submit(mark(1, DAY, "Present"));
+        queue.submit(mark(1, DAY, "Absent"));
+
+        assertThat(queue.stats()).containsEntry("queued", 1).containsEntry("accepted", 2L);
+        assertThat(statuses(queue, 1)).containsExactly(DAY + " Absent");
+
+        // the journal holds both marks; replay applies them in order, so the last still wins
+        restart(queue);
+        AttendanceWriteBehindQueue restarted = start(100);
+        assertThat(statuses(restarted, 1)).containsExactly(DAY + " Absent");
+
+        restarted.startWriter();
+        awaitUntil(() -> Integer.valueOf(0).equals(restarted.stats().get("queued")));
+        assertThat(upserts).containsExactly(List.of("1 Absent"));
+    }
+
+    @Test
+    void writtenMarksAreNotReplayed() throws Exception {
+        // worker 2's mark keeps failing on its own while the database is up
+        doAnswer(call -> {
+            List<Attendance> rows = call.getArgument(0);
+            if (rows.stream().anyMatch(a -> a.getWorker().getId() == 2L)) {
+                throw new IllegalStateException("constraint violated");
+            }
+            upserts.add(rows.stream().map(a -> a.getWorker().getId() + " " + a.getStatus()).toList());
+            return null;
+        }).when(ingestionService).upsert(anyList());
+        AttendanceWriteBehindQueue queue = start(100);
+        queue.submit(mark(1, DAY, "Present"));
+        queue.submit(mark(2, DAY, "Present"));
+        queue.submit(mark(3, DAY, "Present"));
+
+        queue.startWriter();
+        awaitUntil(() -> upserts.size() == 2);
+        restart(queue);
+        AttendanceWriteBehindQueue restarted = start(100);
+
+        assertThat(upserts).containsExactly(List.of("1 Present"), List.of("3 Present"));
+        assertThat(restarted.stats()).containsEntry("queued", 1);
+        assertThat(statuses(restarted, 2)).containsExactly(DAY + " Present");
+    }
+
+    @Test
+    void reMarkWhileTheFirstIsBeingWrittenIsWrittenAfterItAsAnUpdate() throws Exception {
+        AttendanceWriteBehindQueue queue = start(100);
+        doAnswer(call -> {
+            List<Attendance> rows = call.getArgument(0);
+            List<String> written = rows.stream().map(a -> a.getWorker().getId() + " " + a.getStatus()).toList();
+            if (upserts.isEmpty()) {
+                // the worker is marked again while the first mark's batch is in the database
+                queue.submit(mark(1, DAY, "Absent"));
+            }
+            upserts.add(written);
+            return null;
+        }).when(ingestionService).upsert(anyList());
+        queue.submit(mark(1, DAY, "Present"));
+
+        queue.startWriter();
+        awaitUntil(() -> upserts.size() == 2 && Integer.valueOf(0).equals(queue.stats().get("queued")));
+
+        assertThat(upserts).containsExactly(List.of("1 Present"), List.of("1 Absent"));
+        assertThat(queue.getDeadLetters()).isEmpty();
+        restart(queue);
+        assertThat(start(100).stats()).containsEntry("queued", 0);
+    }
+
+    @Test
+    void fullQueueRejectsNewDaysButTakesReMarks() throws Exception {
+        AttendanceWriteBehindQueue queue = start(1);
+        queue.submit(mark(1, DAY, "Present"));
+
+        assertThatThrownBy(() -> queue.submit(mark(2, DAY, "Present")))
+                .isInstanceOf(AttendanceWriteBehindQueue.QueueFullException.class);
+        queue.submit(mark(1, DAY, "Half Day"));
+
+        assertThat(statuses(queue, 1)).containsExactly(DAY + " Half Day");
+    }
+}
@@ -0,0 +1,114 @@
+package com.construction.site_management.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+// Replays, fingerprint mismatches, expiry and which outcomes are kept for an Idempotency-Key
+class IdempotencyStoreTest {
+
+    private final AtomicInteger runs = new AtomicInteger();
+
+    // a request that answers with the given status and counts how often it ran
+    private Supplier<ResponseEntity<?>> request(HttpStatus status) {
+        return () -> ResponseEntity.status(status).body("run " + runs.incrementAndGet());
+    }
+
+    @Test
+    void retryWithTheSameKeyAndBodyIsReplayed() {
+        IdempotencyStore store = new IdempotencyStore(100, 60);
+
+        ResponseEntity<?> first = store.execute("attendance", "k1", "body-a", request(HttpStatus.OK));
+        ResponseEntity<?> retry = store.execute("attendance", "k1", "body-a", request(HttpStatus.OK));
+
+        assertThat(runs.get()).isEqualTo(1);
+        assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(retry.getBody()).isEqualTo("run 1");
+        assertThat(retry.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(first.getHeaders().getFirst(IdempotencyStore.REPLAYED_HEADER)).isNull();
+        assertThat(store.stats()).containsEntry("replays", 1L);
+    }
+
+    @Test
+    void sameKeyWithADifferentBodyIsRefusedWith422() {
+        IdempotencyStore store = new IdempotencyStore(100, 60);
+        store.execute("attendance", "k1", "body-a", request(HttpStatus.OK));
+
+        ResponseEntity<?> other = store.execute("attendance", "k1", "body-b", request(HttpStatus.OK));
+
+        assertThat(other.getStatusCode()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY);
+        assertThat(runs.get()).isEqualTo(1);
+        assertThat(store.stats()).containsEntry("mismatches", 1L);
+    }
+
+    @Test
+    void keysAreScopedPerEndpoint() {
+        IdempotencyStore store = new IdempotencyStore(100, 60);
+        store.execute("attendance", "k1", "body-a", request(HttpStatus.OK));
+
+        ResponseEntity<?> payment = store.execute("payments", "k1", "body-b", request(HttpStatus.OK));
+
+        assertThat(payment.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(runs.get()).isEqualTo(2);
+    }
+
+    @Test
+    void expiredKeyRunsTheRequestAgain() throws InterruptedException {
+        IdempotencyStore store = new IdempotencyStore(100, 0);
+        store.execute("attendance", "k1", "body-a", request(HttpStatus.OK));
+        Thread.sleep(1);
+
+        ResponseEntity<?> later = store.execute("attendance", "k1", "body-b", request(HttpStatus.OK));
+
+        assertThat(later.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(later.getBody()).isEqualTo("run 2");
+    }
+
+    @Test
+    void validationErrorsAreKeptButTransientFailuresAreNot() {
+        IdempotencyStore store = new IdempotencyStore(100, 60);
+
+        store.execute("attendance", "bad", "body", request(HttpStatus.BAD_REQUEST));
+        assertThat(store.execute("attendance", "bad", "body", request(HttpStatus.BAD_REQUEST)).getBody())
+                .isEqualTo("run 1");
+
+        for (HttpStatus failure : new HttpStatus[] { HttpStatus.SERVICE_UNAVAILABLE,
+                HttpStatus.INTERNAL_SERVER_ERROR, HttpStatus.CONFLICT, HttpStatus.TOO_MANY_REQUESTS }) {
+            String key = "retry-" + failure.value();
+            store.execute("attendance", key, "body", request(failure));
+            ResponseEntity<?> retry = store.execute("attendance", key, "body", request(HttpStatus.OK));
+            assertThat(retry.getStatusCode()).isEqualTo(HttpStatus.OK);
+        }
+        assertThat(runs.get()).isEqualTo(9);
+    }
+
+    @Test
+    void requestsWithoutAKeyAlwaysRunAndOverlongKeysAreRejected() {
+        IdempotencyStore store = new IdempotencyStore(100, 60);
+
+        store.execute("attendance", null, "body", request(HttpStatus.OK));
+        store.execute("attendance", " ", "body", request(HttpStatus.OK));
+        ResponseEntity<?> overlong = store.execute("attendance", "k".repeat(256), "body", request(HttpStatus.OK));
+
+        assertThat(runs.get()).isEqualTo(2);
+        assertThat(overlong.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+        assertThat(store.stats()).containsEntry("entries", 0);
+    }
+
+    @Test
+    void leastRecentlyUsedKeyIsDroppedAtCapacity() {
+        IdempotencyStore store = new IdempotencyStore(2, 60);
+        store.execute("attendance", "a", "body", request(HttpStatus.OK));
+        store.execute("attendance", "b", "body", request(HttpStatus.OK));
+        store.execute("attendance", "a", "body", request(HttpStatus.OK)); // replay touches a
+        store.execute("attendance", "c", "body", request(HttpStatus.OK));
+
+        assertThat(store.execute("attendance", "a", "body", request(HttpStatus.OK)).getBody()).isEqualTo("run 1");
+        assertThat(store.execute("attendance", "b", "body", request(HttpStatus.OK)).getBody()).isEqualTo("run 4");
+    }
+}
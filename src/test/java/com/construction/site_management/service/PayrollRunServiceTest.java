@@ -0,0 +1,169 @@
+package com.construction.site_management.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.construction.site_management.model.Payment;
+import com.construction.site_management.model.PayrollRun;
+import com.construction.site_management.repository.PaymentRepository;
+import com.construction.site_management.repository.PayrollRunRepository;
+
+// A pay period is paid at most once per worker: reruns, resumed runs, salaries paid
+// elsewhere and concurrent runs, against stubbed repositories and a recording JDBC batch
+class PayrollRunServiceTest {
+
+    private static final YearMonth MONTH = YearMonth.of(2025, 3);
+
+    private PayrollRunRepository payrollRunRepository;
+    private PaymentRepository paymentRepository;
+    private AttendanceArchiveService archiveService;
+    private PayrollRunService service;
+
+    // the period's run row, as the database holds it
+    private PayrollRun stored;
+    private final List<Payment> inserted = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        payrollRunRepository = mock(PayrollRunRepository.class);
+        paymentRepository = mock(PaymentRepository.class);
+        archiveService = mock(AttendanceArchiveService.class);
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+
+        when(payrollRunRepository.findByPeriodStartAndPeriodEnd(any(), any()))
+                .thenAnswer(call -> Optional.ofNullable(stored));
+        when(payrollRunRepository.saveAndFlush(any())).thenAnswer(call -> {
+            PayrollRun run = call.getArgument(0);
+            if (run.getId() == null) run.setId(1L);
+            stored = run;
+            return run;
+        });
+        when(payrollRunRepository.findById(any())).thenAnswer(call -> Optional.ofNullable(stored));
+        when(payrollRunRepository.save(any())).thenAnswer(call -> call.getArgument(0));
+        when(paymentRepository.totalsByPayrollRunId(any())).thenAnswer(call -> List.<Object[]>of(new Object[] {
+                inserted.size(), inserted.stream().mapToDouble(Payment::getAmount).sum() }));
+        when(archiveService.payrollTotalsByWorker(any(), any())).thenReturn(List.of(
+                new Object[] { 1L, "Ramesh", 7L, 20L, 4.0, 16000.0 },
+                new Object[] { 2L, "Suresh", null, 10L, 0.0, 6000.0 }));
+        when(jdbcTemplate.batchUpdate(anyString(), any(), anyInt(), any())).thenAnswer(call -> {
+            Collection<Payment> chunk = call.getArgument(1);
+            synchronized (inserted) {
+                inserted.addAll(chunk);
+            }
+            return new int[][] { new int[chunk.size()] };
+        });
+
+        service = new PayrollRunService(payrollRunRepository, archiveService, paymentRepository,
+                mock(PaymentRollupService.class), mock(PaymentService.class), mock(WorkerLedgerService.class),
+                jdbcTemplate, new TransactionTemplate(mock(PlatformTransactionManager.class)), 500, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    private List<Long> paidWorkers() {
+        return inserted.stream().map(p -> p.getWorker().getId()).sorted().toList();
+    }
+
+    private void storedRun(String status) {
+        stored = new PayrollRun(1L, MONTH.atDay(1), MONTH.atEndOfMonth(), status, 0, 0, 0.0, null, null, null);
+    }
+
+    @Test
+    void rerunOfACompletedPeriodPaysNobody() {
+        PayrollRun first = service.runForMonth(MONTH);
+        PayrollRun again = service.runForMonth(MONTH);
+
+        assertThat(first.getStatus()).isEqualTo(PayrollRunService.COMPLETED);
+        assertThat(first.getPaymentCount()).isEqualTo(2);
+        assertThat(first.getTotalAmount()).isEqualTo(22000.0);
+        assertThat(again.getId()).isEqualTo(first.getId());
+        assertThat(paidWorkers()).containsExactly(1L, 2L);
+        verify(archiveService, times(1)).payrollTotalsByWorker(any(), any());
+    }
+
+    @Test
+    void resumedRunSkipsWorkersItPaidBeforeFailing() {
+        storedRun(PayrollRunService.FAILED);
+        when(paymentRepository.findWorkerIdsByPayrollRunId(1L)).thenReturn(List.of(1L));
+
+        PayrollRun run = service.runForMonth(MONTH);
+
+        assertThat(run.getStatus()).isEqualTo(PayrollRunService.COMPLETED);
+        assertThat(paidWorkers()).containsExactly(2L);
+    }
+
+    @Test
+    void workersAlreadyPaidAnOverlappingSalaryAreSkipped() {
+        when(paymentRepository.findWorkerIdsWithSalaryFor(MONTH.atDay(1), MONTH.atEndOfMonth()))
+                .thenReturn(List.of(2L));
+
+        service.runForMonth(MONTH);
+
+        assertThat(paidWorkers()).containsExactly(1L);
+    }
+
+    @Test
+    void salariesCarryTheRunAndPeriod() {
+        service.runForMonth(MONTH);
+
+        Payment salary = inserted.stream().filter(p -> p.getWorker().getId() == 1L).findFirst().orElseThrow();
+        assertThat(salary.getType()).isEqualTo("Salary");
+        assertThat(salary.getAmount()).isEqualTo(16000.0);
+        assertThat(salary.getProjectId()).isEqualTo(7L);
+        assertThat(salary.getPayrollRunId()).isEqualTo(1L);
+        assertThat(salary.getPeriodStart()).isEqualTo(MONTH.atDay(1));
+        assertThat(salary.getPeriodEnd()).isEqualTo(MONTH.atEndOfMonth());
+    }
+
+    @Test
+    void secondRunForAPeriodStillRunningIsRefused() {
+        List<RuntimeException> refused = new ArrayList<>();
+        when(archiveService.payrollTotalsByWorker(any(), any())).thenAnswer(call -> {
+            // another request for the same month arrives while this run reads its totals
+            try {
+                service.runForMonth(MONTH);
+            } catch (RuntimeException e) {
+                refused.add(e);
+            }
+            return List.<Object[]>of(new Object[] { 1L, "Ramesh", 7L, 20L, 4.0, 16000.0 });
+        });
+
+        service.runForMonth(MONTH);
+
+        assertThat(refused).hasSize(1);
+        assertThat(refused.get(0).getMessage()).isEqualTo("Payroll for " + MONTH.atDay(1) + " to "
+                + MONTH.atEndOfMonth() + " is already running");
+        assertThat(paidWorkers()).containsExactly(1L);
+    }
+
+    @Test
+    void periodEndingBeforeItStartsIsRejected() {
+        assertThatThrownBy(() -> service.run(LocalDate.of(2025, 3, 31), LocalDate.of(2025, 3, 1)))
+                .isInstanceOf(RuntimeException.class)
+                .hasMessageContaining("is before start");
+    }
+}
@@ -0,0 +1,175 @@
+package com.construction.site_management.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.construction.site_management.support.ChangeClock;
+
+// Delta sync paging against the change clock's watermark, with the change_version
+// tables kept in memory by a stubbed JdbcTemplate
+class SyncServiceTest {
+
+    // table name -> rows, each with at least a "version"
+    private final Map<String, List<Map<String, Object>>> tables = new HashMap<>();
+    private SyncService service;
+
+    @BeforeEach
+    void setUp() {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        for (String table : List.of("attendance", "task", "worker", "payment", "sync_tombstone")) {
+            tables.put(table, new ArrayList<>());
+        }
+        when(jdbcTemplate.queryForObject(anyString(), eq(Long.class))).thenReturn(0L);
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class), any(Object[].class))).thenAnswer(call -> {
+            String sql = call.getArgument(0);
+            long since = call.getArgument(2);
+            long upTo = call.getArgument(3);
+            int limit = call.getArgument(4);
+            String table = sql.substring(sql.indexOf(" FROM ") + 6).split(" ")[0];
+            return tables.get(table).stream()
+                    .filter(row -> (Long) row.get("version") > since && (Long) row.get("version") <= upTo)
+                    .sorted((a, b) -> Long.compare((Long) a.get("version"), (Long) b.get("version")))
+                    .limit(limit)
+                    .toList();
+        });
+        // tombstones written by ChangeClock.recordDeletion
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenAnswer(call -> {
+            String sql = call.getArgument(0);
+            if (sql.startsWith("INSERT INTO sync_tombstone")) {
+                row("sync_tombstone", call.getArgument(3), "type", call.getArgument(1), "id", call.getArgument(2));
+            }
+            return 1;
+        });
+        // starts the clock at 0 and hands recordDeletion the stub
+        new ChangeClock(jdbcTemplate).init();
+        service = new SyncService(jdbcTemplate, 500, 5000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private void row(String table, long version, Object... fields) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < fields.length; i += 2) {
+            row.put((String) fields[i], fields[i + 1]);
+        }
+        row.put("version", version);
+        tables.get(table).add(row);
+    }
+
+    // a committed change: the next version, written to the table
+    private long committed(String table, Object... fields) {
+        long version = ChangeClock.next();
+        row(table, version, fields);
+        return version;
+    }
+
+    private static List<Object> versions(Map<String, Object> page, String kind) {
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> rows = (List<Map<String, Object>>) page.get(kind);
+        return rows.stream().map(row -> row.get("version")).toList();
+    }
+
+    private static void completeTransaction() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    @Test
+    void pagesFollowVersionOrderAcrossKindsAndTheCursorResumes() {
+        committed("attendance", "id", 1L);
+        committed("payment", "id", 1L);
+        committed("task", "id", 1L);
+        committed("attendance", "id", 2L);
+        committed("worker", "id", 1L);
+
+        Map<String, Object> first = service.changesSince(0, 3);
+        assertThat(first).containsEntry("cursor", 3L).containsEntry("hasMore", true);
+        assertThat(versions(first, "attendance")).containsExactly(1L);
+        assertThat(versions(first, "payments")).containsExactly(2L);
+        assertThat(versions(first, "tasks")).containsExactly(3L);
+
+        Map<String, Object> second = service.changesSince(3, 3);
+        assertThat(second).containsEntry("cursor", 5L).containsEntry("hasMore", false);
+        assertThat(versions(second, "attendance")).containsExactly(4L);
+        assertThat(versions(second, "workers")).containsExactly(5L);
+        assertThat(versions(second, "payments")).isEmpty();
+    }
+
+    @Test
+    void watermarkHoldsBackChangesAboveAnOpenTransaction() {
+        committed("worker", "id", 1L);
+
+        // a transaction takes version 2 and is still open when version 3 commits
+        TransactionSynchronizationManager.initSynchronization();
+        long open = ChangeClock.next();
+        List<TransactionSynchronization> openTransaction = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        committed("attendance", "id", 1L);
+
+        Map<String, Object> page = service.changesSince(0, null);
+        assertThat(page).containsEntry("cursor", 1L);
+        assertThat(versions(page, "workers")).containsExactly(1L);
+        assertThat(versions(page, "attendance")).isEmpty();
+
+        // it commits: a client at cursor 1 now gets both, so version 2 is not skipped
+        row("payment", open, "id", 1L);
+        openTransaction.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        page = service.changesSince(1, null);
+        assertThat(page).containsEntry("cursor", 3L);
+        assertThat(versions(page, "payments")).containsExactly(open);
+        assertThat(versions(page, "attendance")).containsExactly(3L);
+    }
+
+    @Test
+    void reservedBlockHoldsTheWatermarkUntilItsTransactionEnds() {
+        TransactionSynchronizationManager.initSynchronization();
+        long first = ChangeClock.reserve(3);
+
+        assertThat(ChangeClock.watermark()).isEqualTo(first - 1);
+        completeTransaction();
+        assertThat(ChangeClock.watermark()).isEqualTo(first + 2);
+    }
+
+    @Test
+    void deletionsAreSyncedAsTombstones() {
+        committed("worker", "id", 9L);
+
+        TransactionSynchronizationManager.initSynchronization();
+        ChangeClock.recordDeletion("worker", 9L);
+        Map<String, Object> duringDelete = service.changesSince(1, null);
+        completeTransaction();
+        Map<String, Object> afterDelete = service.changesSince(1, null);
+
+        assertThat(versions(duringDelete, "deleted")).isEmpty();
+        assertThat(afterDelete).containsEntry("cursor", 2L);
+        @SuppressWarnings("unchecked")
+        List<Map<String, Object>> deleted = (List<Map<String, Object>>) afterDelete.get("deleted");
+        assertThat(deleted).hasSize(1);
+        assertThat(deleted.get(0)).containsEntry("type", "worker").containsEntry("id", 9L);
+    }
+}
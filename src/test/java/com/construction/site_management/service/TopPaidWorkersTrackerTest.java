@@ -0,0 +1,130 @@
+package com.construction.site_management.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.construction.site_management.model.Payment;
+import com.construction.site_management.model.Worker;
+import com.construction.site_management.repository.PaymentRepository;
+
+// Seeding the salary leaderboard while payments keep committing, against a stubbed repository
+class TopPaidWorkersTrackerTest {
+
+    private PaymentRepository paymentRepository;
+    private TopPaidWorkersTracker tracker;
+    private final List<Object[]> totals = new ArrayList<>();
+    private final List<Long> visibleVersions = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        paymentRepository = mock(PaymentRepository.class);
+        when(paymentRepository.salaryTotalsByWorkerAndProject()).thenReturn(totals);
+        when(paymentRepository.findChangeVersionsIn(any())).thenAnswer(call -> {
+            List<Long> asked = call.getArgument(0);
+            return visibleVersions.stream().filter(asked::contains).toList();
+        });
+        tracker = new TopPaidWorkersTracker(paymentRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)));
+    }
+
+    private static Payment salary(long workerId, String name, Long projectId, double amount, long version) {
+        Worker worker = new Worker();
+        worker.setId(workerId);
+        worker.setName(name);
+        Payment payment = new Payment();
+        payment.setWorker(worker);
+        payment.setType("Salary");
+        payment.setAmount(amount);
+        payment.setProjectId(projectId);
+        payment.setChangeVersion(version);
+        return payment;
+    }
+
+    private List<Double> totals(Long projectId) {
+        return tracker.top(projectId, 10).stream().map(row -> (Double) row[2]).toList();
+    }
+
+    @Test
+    void seedsTotalsAndAppliesLaterPayments() {
+        totals.add(new Object[] { 1L, "Ramesh", 7L, 1000.0 });
+        totals.add(new Object[] { 2L, "Suresh", null, 400.0 });
+        tracker.seed();
+
+        tracker.recordPayment(salary(2L, "Suresh", 7L, 800.0, 11), 1);
+
+        assertThat(totals(null)).containsExactly(1200.0, 1000.0);
+        assertThat(totals(7L)).containsExactly(1000.0, 800.0);
+    }
+
+    @Test
+    void paymentsReportedBeforeTheFirstSeedAreLeftToTheSeed() {
+        tracker.recordPayment(salary(1L, "Ramesh", null, 500.0, 10), 1);
+        totals.add(new Object[] { 1L, "Ramesh", null, 500.0 });
+
+        tracker.seed();
+
+        assertThat(totals(null)).containsExactly(500.0);
+    }
+
+    @Test
+    void reportsLandingDuringTheSeedAreCountedOnce() {
+        // salary 10 committed before the seed query and is in its totals, but reports after
+        // the query ran; salary 11 committed after the query's snapshot
+        Payment inSnapshot = salary(1L, "Ramesh", null, 500.0, 10);
+        Payment afterSnapshot = salary(1L, "Ramesh", null, 300.0, 11);
+        totals.add(new Object[] { 1L, "Ramesh", null, 500.0 });
+        visibleVersions.add(10L);
+        when(paymentRepository.salaryTotalsByWorkerAndProject()).thenAnswer(call -> {
+            tracker.recordPayment(inSnapshot, 1);
+            tracker.recordPayment(afterSnapshot, 1);
+            return totals;
+        });
+
+        tracker.seed();
+
+        assertThat(totals(null)).containsExactly(800.0);
+    }
+
+    @Test
+    void deletesLandingDuringTheSeedAreCountedOnce() {
+        // salary 10 was deleted before the snapshot, salary 11 only after it
+        Payment goneFromSnapshot = salary(1L, "Ramesh", null, 500.0, 10);
+        Payment stillInSnapshot = salary(1L, "Ramesh", null, 300.0, 11);
+        totals.add(new Object[] { 1L, "Ramesh", null, 1300.0 });
+        visibleVersions.add(11L);
+        when(paymentRepository.salaryTotalsByWorkerAndProject()).thenAnswer(call -> {
+            tracker.recordPayment(goneFromSnapshot, -1);
+            tracker.recordPayment(stillInSnapshot, -1);
+            return totals;
+        });
+
+        tracker.seed();
+
+        assertThat(totals(null)).containsExactly(1000.0);
+    }
+
+    @Test
+    void workerRemovedDuringTheSeedIsNotBroughtBack() {
+        totals.add(new Object[] { 1L, "Ramesh", 7L, 500.0 });
+        totals.add(new Object[] { 2L, "Suresh", 7L, 400.0 });
+        when(paymentRepository.salaryTotalsByWorkerAndProject()).thenAnswer(call -> {
+            tracker.removeWorker(1L);
+            return totals;
+        });
+
+        tracker.seed();
+
+        assertThat(totals(null)).containsExactly(400.0);
+        assertThat(totals(7L)).containsExactly(400.0);
+    }
+}
@@ -0,0 +1,164 @@
+package com.construction.site_management.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.construction.site_management.model.Worker;
+import com.construction.site_management.payload.WorkerSearchHit;
+import com.construction.site_management.repository.WorkerRepository;
+
+// Ranking, multi-term matching and the update paths of the in-memory type-ahead index,
+// against a stubbed repository
+class WorkerSearchIndexTest {
+
+    private WorkerRepository workerRepository;
+    private WorkerSearchIndex index;
+    private final List<Object[]> rows = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        workerRepository = mock(WorkerRepository.class);
+        when(workerRepository.searchRows()).thenReturn(rows);
+        index = new WorkerSearchIndex(workerRepository, 20, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        index.shutdown();
+    }
+
+    private void row(long id, String name, String phone, String aadhaar) {
+        rows.add(new Object[] { id, name, phone, aadhaar });
+    }
+
+    private List<String> names(String query) {
+        return index.search(query, 100).stream().map(WorkerSearchHit::getName).toList();
+    }
+
+    private static Worker worker(long id, String name, String phone) {
+        Worker worker = new Worker();
+        worker.setId(id);
+        worker.setName(name);
+        worker.setPhone(phone);
+        return worker;
+    }
+
+    @Test
+    void ranksExactThenFirstNameThenOtherWordThenInfix() {
+        row(1, "Vikram Singh", null, null);
+        row(2, "Suresh Ramani", null, null);
+        row(3, "Ramesh Kumar", null, null);
+        row(4, "Ram", null, null);
+        index.rebuild();
+
+        assertThat(names("ram")).containsExactly("Ram", "Ramesh Kumar", "Suresh Ramani", "Vikram Singh");
+    }
+
+    @Test
+    void shortNamesRankFirstAmongEqualScores() {
+        row(1, "Ramesh Kumar Yadav", null, null);
+        row(2, "Ramesh", null, null);
+        row(3, "Ramesh Kumar", null, null);
+        index.rebuild();
+
+        assertThat(names("rame")).containsExactly("Ramesh", "Ramesh Kumar", "Ramesh Kumar Yadav");
+    }
+
+    @Test
+    void matchesPhoneAndAadhaarByPrefixAndAnywhere() {
+        row(1, "Ramesh", "98765 43210", "1234 5678 9012");
+        row(2, "Suresh", "90000 55555", null);
+        index.rebuild();
+
+        assertThat(names("+91 98765-43210")).containsExactly("Ramesh");
+        assertThat(index.search("98765", 10).get(0).getScore())
+                .isGreaterThan(index.search("5678", 10).get(0).getScore());
+        assertThat(names("5555")).containsExactly("Suresh");
+        assertThat(names("90")).containsExactly("Suresh");
+        assertThat(names("43210")).containsExactly("Ramesh");
+    }
+
+    @Test
+    void everyTermMustMatch() {
+        row(1, "Ramesh Kumar", "9876543210", null);
+        row(2, "Ramesh Yadav", "9123456789", null);
+        row(3, "Kumar Swamy", null, null);
+        index.rebuild();
+
+        assertThat(names("ramesh ku")).containsExactly("Ramesh Kumar");
+        assertThat(names("ra 9123")).containsExactly("Ramesh Yadav");
+        assertThat(names("ramesh zzz")).isEmpty();
+    }
+
+    @Test
+    void multiTermMatchesBeyondTheScoringCapAreFound() {
+        // every term is common on its own, and the one worker matching all of them
+        // has the longest name, so ranks after more candidates than a query scores
+        int common = WorkerSearchIndex.MULTI_TERM_CANDIDATES + 500;
+        for (int i = 1; i <= common; i++) {
+            row(i, "Sanjay " + i, null, null);
+            row(common + i, "Yadav " + i, null, null);
+            row(2 * common + i, "Bhai " + i, null, null);
+        }
+        row(100_000, "Sanjay Yadav Bhai", null, null);
+        index.rebuild();
+
+        assertThat(names("sanjay yadav bhai")).containsExactly("Sanjay Yadav Bhai");
+    }
+
+    @Test
+    void putReplacesTheIndexedWorker() {
+        row(1, "Ramesh Kumar", "9876543210", null);
+        index.rebuild();
+
+        index.put(worker(1, "Mahesh Patel", "9000000001"));
+        index.put(worker(2, "Ramesh Yadav", null));
+
+        assertThat(names("mahesh")).containsExactly("Mahesh Patel");
+        assertThat(names("ramesh")).containsExactly("Ramesh Yadav");
+        assertThat(names("98765")).isEmpty();
+        assertThat(index.stats()).containsEntry("workers", 2);
+    }
+
+    @Test
+    void removedWorkersAreNotFoundAndCompactionDropsTheirSlots() {
+        row(1, "Ramesh Kumar", null, null);
+        row(2, "Ramesh Yadav", null, null);
+        row(3, "Ramesh Patel", null, null);
+        index.rebuild();
+
+        index.remove(2L);
+        index.remove(3L);
+        assertThat(names("ramesh")).containsExactly("Ramesh Kumar");
+        assertThat(index.stats()).containsEntry("removedSlots", 2);
+
+        index.compact();
+        assertThat(index.stats()).containsEntry("removedSlots", 0).containsEntry("workers", 1);
+        assertThat(names("ramesh")).containsExactly("Ramesh Kumar");
+        assertThat(names("yadav")).isEmpty();
+    }
+
+    @Test
+    void changesLandingDuringARebuildAreReplayed() {
+        row(1, "Ramesh Kumar", null, null);
+        index.rebuild();
+        // the rebuild reads the old name; the rename commits while that read runs
+        when(workerRepository.searchRows()).thenAnswer(call -> {
+            index.put(worker(1, "Mahesh Kumar", null));
+            return rows;
+        });
+
+        index.rebuild();
+
+        assertThat(names("mahesh")).containsExactly("Mahesh Kumar");
+        assertThat(names("ramesh")).isEmpty();
+    }
+}
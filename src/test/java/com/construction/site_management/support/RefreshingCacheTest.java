@@ -0,0 +1,134 @@
+package com.construction.site_management.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+// Fresh hits, stale-while-revalidate and generation-guarded invalidation,
+// with background refreshes queued until the test runs them
+class RefreshingCacheTest {
+
+    private final List<Runnable> refreshes = new ArrayList<>();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private RefreshingCache<String, String> cache(Duration ttl, Duration stale) {
+        return new RefreshingCache<>("test", 2, ttl, stale, refreshes::add);
+    }
+
+    // "v1", "v2", ... one per load
+    private String load() {
+        return "v" + loads.incrementAndGet();
+    }
+
+    private void runRefreshes() {
+        List<Runnable> queued = new ArrayList<>(refreshes);
+        refreshes.clear();
+        queued.forEach(Runnable::run);
+    }
+
+    @Test
+    void freshEntriesAreServedWithoutLoading() {
+        RefreshingCache<String, String> cache = cache(Duration.ofHours(1), Duration.ZERO);
+
+        assertThat(cache.get("k", this::load)).isEqualTo("v1");
+        assertThat(cache.get("k", this::load)).isEqualTo("v1");
+
+        assertThat(loads.get()).isEqualTo(1);
+        assertThat(cache.stats()).containsEntry("hits", 1L).containsEntry("misses", 1L);
+    }
+
+    @Test
+    void staleEntryIsServedWhileOneRefreshRunsInTheBackground() {
+        RefreshingCache<String, String> cache = cache(Duration.ZERO, Duration.ofHours(1));
+        cache.get("k", this::load);
+
+        assertThat(cache.get("k", this::load)).isEqualTo("v1");
+        assertThat(cache.get("k", this::load)).isEqualTo("v1");
+        assertThat(refreshes).hasSize(1);
+
+        runRefreshes();
+        assertThat(cache.get("k", this::load)).isEqualTo("v2");
+        assertThat(cache.stats()).containsEntry("staleHits", 3L).containsEntry("misses", 1L);
+    }
+
+    @Test
+    void entriesPastTheStaleWindowLoadOnTheCaller() {
+        RefreshingCache<String, String> cache = cache(Duration.ZERO, Duration.ZERO);
+        cache.get("k", this::load);
+
+        assertThat(cache.get("k", this::load)).isEqualTo("v2");
+        assertThat(refreshes).isEmpty();
+    }
+
+    @Test
+    void invalidationDuringALoadKeepsItsResultOutOfTheCache() {
+        RefreshingCache<String, String> cache = cache(Duration.ofHours(1), Duration.ZERO);
+
+        // a write commits and invalidates while the load is still reading
+        assertThat(cache.get("k", () -> {
+            cache.invalidate("k");
+            return load();
+        })).isEqualTo("v1");
+
+        assertThat(cache.get("k", this::load)).isEqualTo("v2");
+        assertThat(cache.get("k", this::load)).isEqualTo("v2");
+    }
+
+    @Test
+    void invalidationBeforeABackgroundRefreshFinishesDiscardsTheRefresh() {
+        RefreshingCache<String, String> cache = cache(Duration.ZERO, Duration.ofHours(1));
+        cache.get("k", this::load);
+        cache.get("k", this::load); // stale: refresh queued
+        cache.invalidateAll();
+        cache.get("k", this::load); // miss: loads v2 on the caller
+
+        runRefreshes(); // loads v3 under the old generation
+
+        assertThat(cache.get("k", () -> "unused")).isEqualTo("v2");
+    }
+
+    @Test
+    void failedRefreshLeavesTheStaleValueAndAllowsAnotherRefresh() {
+        RefreshingCache<String, String> cache = cache(Duration.ZERO, Duration.ofHours(1));
+        cache.get("k", this::load);
+        cache.get("k", () -> {
+            throw new IllegalStateException("database down");
+        });
+
+        runRefreshes();
+
+        assertThat(cache.get("k", this::load)).isEqualTo("v1");
+        assertThat(refreshes).hasSize(1);
+        assertThat(cache.stats()).containsEntry("loadFailures", 1L);
+    }
+
+    @Test
+    void failedLoadOnTheCallerIsNotCached() {
+        RefreshingCache<String, String> cache = cache(Duration.ofHours(1), Duration.ZERO);
+
+        assertThatThrownBy(() -> cache.get("k", () -> {
+            throw new IllegalStateException("database down");
+        })).isInstanceOf(IllegalStateException.class);
+
+        assertThat(cache.get("k", this::load)).isEqualTo("v1");
+    }
+
+    @Test
+    void leastRecentlyUsedEntryIsEvicted() {
+        RefreshingCache<String, String> cache = cache(Duration.ofHours(1), Duration.ZERO);
+        cache.get("a", () -> "a1");
+        cache.get("b", () -> "b1");
+        cache.get("a", () -> "a2"); // touch a
+        cache.get("c", () -> "c1");
+
+        assertThat(cache.get("a", () -> "a3")).isEqualTo("a1");
+        assertThat(cache.get("b", () -> "b2")).isEqualTo("b2");
+        assertThat(cache.stats()).containsEntry("evictions", 2L);
+    }
+}
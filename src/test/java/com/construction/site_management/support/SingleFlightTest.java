@@ -0,0 +1,95 @@
+package com.construction.site_management.support;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+// Callers arriving while a computation for their key runs share its result or failure
+class SingleFlightTest {
+
+    private final SingleFlight<String, Integer> group = new SingleFlight<>();
+    private final ExecutorService pool = Executors.newFixedThreadPool(4);
+    private final AtomicInteger runs = new AtomicInteger();
+
+    @AfterEach
+    void tearDown() {
+        pool.shutdownNow();
+    }
+
+    // wait until every caller but the leader has joined the in-flight computation
+    private void awaitCoalesced(long count) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!Long.valueOf(count).equals(group.stats().get("coalesced"))) {
+            if (System.currentTimeMillis() > deadline) throw new AssertionError("callers never joined");
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    void concurrentCallersShareOneExecution() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<Integer> leader = pool.submit(() -> group.execute("k", () -> {
+            started.countDown();
+            await(release);
+            return runs.incrementAndGet();
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        Future<Integer> second = pool.submit(() -> group.execute("k", runs::incrementAndGet));
+        Future<Integer> third = pool.submit(() -> group.execute("k", runs::incrementAndGet));
+        awaitCoalesced(2);
+
+        release.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(third.get(5, TimeUnit.SECONDS)).isEqualTo(1);
+        assertThat(runs.get()).isEqualTo(1);
+        assertThat(group.stats()).containsEntry("executions", 1L).containsEntry("inFlight", 0);
+    }
+
+    @Test
+    void callersAfterCompletionRunAgain() {
+        assertThat(group.execute("k", runs::incrementAndGet)).isEqualTo(1);
+        assertThat(group.execute("k", runs::incrementAndGet)).isEqualTo(2);
+        assertThat(group.execute("other", runs::incrementAndGet)).isEqualTo(3);
+    }
+
+    @Test
+    void waitingCallersGetTheLeadersFailureAndTheKeyIsReleased() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("query failed");
+        Future<Integer> leader = pool.submit(() -> group.execute("k", () -> {
+            started.countDown();
+            await(release);
+            throw failure;
+        }));
+        started.await(5, TimeUnit.SECONDS);
+        Future<Integer> waiter = pool.submit(() -> group.execute("k", runs::incrementAndGet));
+        awaitCoalesced(1);
+
+        release.countDown();
+
+        assertThatThrownBy(() -> leader.get(5, TimeUnit.SECONDS)).hasCause(failure);
+        assertThatThrownBy(() -> waiter.get(5, TimeUnit.SECONDS)).hasCause(failure);
+        assertThat(group.execute("k", runs::incrementAndGet)).isEqualTo(1);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}